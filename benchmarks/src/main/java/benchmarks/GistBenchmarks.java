@@ -0,0 +1,37 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs benchmarks with GC profiler, so every benchmark reports operations per second and
+ * allocation rate (gc.alloc.rate.norm is bytes per operation)
+ * Accepts the usual JMH options, e.g. a regexp of benchmarks: java -jar benchmarks/target/benchmarks.jar Payload
+ * Results are written to target/jmh-result.json
+ */
+public final class GistBenchmarks {
+
+    private GistBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        if (commandLine.getIncludes().isEmpty()) {
+            builder.include(GistBenchmarks.class.getPackage().getName() + "\\..*Benchmark");
+        }
+        Options options = builder.
+                parent(commandLine).
+                addProfiler(GCProfiler.class).
+                resultFormat(ResultFormatType.JSON).
+                result("target/jmh-result.json").
+                build();
+        new Runner(options).run();
+    }
+}
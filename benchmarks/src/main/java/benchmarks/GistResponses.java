@@ -0,0 +1,103 @@
+package benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response bodies of the same shape as GitHub API returns for a gist and a list of gists
+ */
+final class GistResponses {
+
+    static final String FILENAME = "newPublicGistFile.txt";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private GistResponses() {
+    }
+
+    /**
+     * @param index number of gist in list
+     * @return ID of gist, the same for every call
+     */
+    static String id(int index) {
+        return String.format("%032x", 0x5979afb981e4L * 31 + index);
+    }
+
+    /**
+     * @return body of GET /gists/{id}
+     */
+    static byte[] gist() {
+        return write(gist(0, true));
+    }
+
+    /**
+     * @param size number of gists
+     * @return body of GET /gists with the given number of gists
+     */
+    static byte[] list(int size) {
+        List<Object> gists = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            gists.add(gist(i, false));
+        }
+        return write(gists);
+    }
+
+    private static Map<String, Object> gist(int index, boolean withContent) {
+        String id = id(index);
+        String url = "https://api.github.com/gists/" + id;
+
+        Map<String, Object> file = new LinkedHashMap<>();
+        file.put("filename", FILENAME);
+        file.put("type", "text/plain");
+        file.put("language", "Text");
+        file.put("raw_url", "https://gist.githubusercontent.com/octocat/" + id + "/raw/" + FILENAME);
+        file.put("size", 19);
+        if (withContent) {
+            file.put("truncated", false);
+            file.put("content", "The content is here");
+        }
+        Map<String, Object> files = new LinkedHashMap<>();
+        files.put(FILENAME, file);
+
+        Map<String, Object> owner = new LinkedHashMap<>();
+        owner.put("login", "octocat");
+        owner.put("id", 583231);
+        owner.put("url", "https://api.github.com/users/octocat");
+        owner.put("type", "User");
+        owner.put("site_admin", false);
+
+        Map<String, Object> gist = new LinkedHashMap<>();
+        gist.put("url", url);
+        gist.put("forks_url", url + "/forks");
+        gist.put("commits_url", url + "/commits");
+        gist.put("id", id);
+        gist.put("node_id", "MDQ6R2lzdA" + index);
+        gist.put("git_pull_url", "https://gist.github.com/" + id + ".git");
+        gist.put("html_url", "https://gist.github.com/" + id);
+        gist.put("files", files);
+        gist.put("public", true);
+        gist.put("created_at", "2019-11-01T10:00:00Z");
+        gist.put("updated_at", "2019-11-01T10:00:00Z");
+        gist.put("description", "This is description for public gist");
+        gist.put("comments", 0);
+        gist.put("user", null);
+        gist.put("comments_url", url + "/comments");
+        gist.put("owner", owner);
+        gist.put("truncated", false);
+        return gist;
+    }
+
+    private static byte[] write(Object body) {
+        try {
+            return MAPPER.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
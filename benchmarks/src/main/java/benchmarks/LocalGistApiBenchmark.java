@@ -0,0 +1,156 @@
+package benchmarks;
+
+import config.GistTestConfigurationConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import stub.LocalGistApi;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests per second which the local stand-in sustains: GET /gists/{id} over keep-alive connections,
+ * one connection per benchmark thread, with one request in flight or with pipelines of 16 requests
+ * Client is a raw socket, so the score is the cost of the stand-in and of loopback, not of RestAssured
+ * Client threads share processors with the event loops of the stand-in
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dgist.local.enforceRateLimit=false")
+@Threads(16)
+public class LocalGistApiBenchmark {
+
+    private static final int PIPELINE = 16;
+
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        private URI baseUri;
+
+        @Setup
+        public void start() {
+            baseUri = URI.create(LocalGistApi.start().getBaseUri());
+        }
+
+        @TearDown
+        public void stop() {
+            LocalGistApi.stop();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Connection {
+
+        private Socket socket;
+
+        private OutputStream out;
+
+        private InputStream in;
+
+        private byte[] request;
+
+        private byte[] pipeline;
+
+        @Setup(Level.Trial)
+        public void open(Server server) throws IOException {
+            socket = new Socket(server.baseUri.getHost(), server.baseUri.getPort());
+            socket.setTcpNoDelay(true);
+            out = socket.getOutputStream();
+            in = new BufferedInputStream(socket.getInputStream(), 64 * 1024);
+            request = ("GET /gists/" + GistTestConfigurationConstants.ID_OF_GIST_FOR_FORK + " HTTP/1.1\r\n"
+                    + "Host: " + server.baseUri.getAuthority() + "\r\nAccept: application/json\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            pipeline = new byte[request.length * PIPELINE];
+            for (int i = 0; i < PIPELINE; i++) {
+                System.arraycopy(request, 0, pipeline, i * request.length, request.length);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            socket.close();
+        }
+
+        /**
+         * Read one response with Content-Length body, anything but 200 fails the benchmark
+         *
+         * @return status code
+         */
+        int readResponse() throws IOException {
+            int status = 0;
+            long contentLength = 0;
+            StringBuilder line = new StringBuilder();
+            boolean statusLine = true;
+            while (true) {
+                int b = in.read();
+                if (b < 0) {
+                    throw new IOException("Connection closed by the stand-in");
+                }
+                if (b != '\n') {
+                    if (b != '\r') {
+                        line.append((char) b);
+                    }
+                    continue;
+                }
+                if (line.length() == 0) {
+                    break;
+                }
+                if (statusLine) {
+                    status = Integer.parseInt(line.substring(9, 12));
+                    if (status != 200) {
+                        throw new IOException("Unexpected response " + line);
+                    }
+                    statusLine = false;
+                } else if (line.toString().regionMatches(true, 0, "Content-Length:", 0, 15)) {
+                    contentLength = Long.parseLong(line.substring(15).trim());
+                }
+                line.setLength(0);
+            }
+            for (long skipped = 0; skipped < contentLength; ) {
+                long n = in.skip(contentLength - skipped);
+                if (n <= 0) {
+                    throw new IOException("Connection closed by the stand-in");
+                }
+                skipped += n;
+            }
+            return status;
+        }
+    }
+
+    @Benchmark
+    public int getGist(Connection connection) throws IOException {
+        connection.out.write(connection.request);
+        return connection.readResponse();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE)
+    public int getGistPipelined(Connection connection) throws IOException {
+        connection.out.write(connection.pipeline);
+        int statuses = 0;
+        for (int i = 0; i < PIPELINE; i++) {
+            statuses += connection.readResponse();
+        }
+        return statuses;
+    }
+}
@@ -0,0 +1,118 @@
+package benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.path.json.JsonPath;
+import json.StreamingJsonAssertion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Evaluation of path expressions of the tests from response body: Groovy GPath of RestAssured,
+ * JSON pointer on Jackson tree and {@link StreamingJsonAssertion}
+ * Gist benchmarks read files.'newPublicGistFile.txt'.filename of GET /gists/{id}, list benchmarks find
+ * the last of 100 gists by ID like tests find created gists in GET /gists
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PathExpressionBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final int LIST_SIZE = 100;
+
+    private static final String GIST_PATH = "files.'" + GistResponses.FILENAME + "'.filename";
+
+    private static final String GIST_POINTER = "/files/" + GistResponses.FILENAME + "/filename";
+
+    private byte[] gist;
+
+    private String gistText;
+
+    private JsonPath parsedGist;
+
+    private byte[] list;
+
+    private String listText;
+
+    private String lastId;
+
+    private String listPath;
+
+    @Setup
+    public void setUp() {
+        gist = GistResponses.gist();
+        gistText = new String(gist, StandardCharsets.UTF_8);
+        parsedGist = new JsonPath(gistText);
+        parsedGist.get();
+
+        list = GistResponses.list(LIST_SIZE);
+        listText = new String(list, StandardCharsets.UTF_8);
+        lastId = GistResponses.id(LIST_SIZE - 1);
+        listPath = "find { it.id == '" + lastId + "' }." + GIST_PATH;
+    }
+
+    @Benchmark
+    public String gistGPath() {
+        return new JsonPath(gistText).getString(GIST_PATH);
+    }
+
+    @Benchmark
+    public String gistGPathParsed() {
+        return parsedGist.getString(GIST_PATH);
+    }
+
+    @Benchmark
+    public String gistJacksonPointer() throws IOException {
+        return MAPPER.readTree(gist).at(GIST_POINTER).asText();
+    }
+
+    @Benchmark
+    public void gistStreaming() {
+        StreamingJsonAssertion.assertThatJson().
+                path(GIST_POINTER, equalTo(GistResponses.FILENAME)).
+                verify(new ByteArrayInputStream(gist));
+    }
+
+    @Benchmark
+    public String listGPath() {
+        return new JsonPath(listText).getString(listPath);
+    }
+
+    @Benchmark
+    public String listJacksonTree() throws IOException {
+        for (JsonNode item : MAPPER.readTree(list)) {
+            if (lastId.equals(item.path("id").asText())) {
+                return item.at(GIST_POINTER).asText();
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public void listStreaming() {
+        StreamingJsonAssertion.assertThatJson().
+                element("id", lastId).
+                path(GIST_POINTER, equalTo(GistResponses.FILENAME)).
+                verify(new ByteArrayInputStream(list));
+    }
+}
@@ -0,0 +1,129 @@
+package benchmarks;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import config.GistPayload;
+import org.json.simple.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of create and update payloads: files read once by {@link GistPayload}, template,
+ * Jackson and json-simple
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private Map<String, String> templateValues;
+
+    private Map<String, Object> createGist;
+
+    private Map<String, Object> updateGist;
+
+    @Setup
+    public void setUp() {
+        templateValues = new HashMap<>();
+        templateValues.put("description", "This is description for public gist");
+        templateValues.put("public", "true");
+        templateValues.put("filename", "newPublicGistFile.txt");
+        templateValues.put("content", "The content is here");
+
+        createGist = gist(true, "newPublicGistFile.txt", "The content is here", null);
+        updateGist = gist(null, "newPublicGistFile.txt", "The updated content is here",
+                "updatedPublicGistFile.json");
+    }
+
+    @Benchmark
+    public byte[] createFromFile() {
+        return GistPayload.CREATE_PUBLIC_GIST.bytes();
+    }
+
+    @Benchmark
+    public byte[] createFromTemplate() {
+        return GistPayload.CREATE_GIST_TEMPLATE.render(templateValues);
+    }
+
+    @Benchmark
+    public byte[] createWithJacksonMap() throws IOException {
+        return MAPPER.writeValueAsBytes(createGist);
+    }
+
+    @Benchmark
+    public byte[] createWithJacksonGenerator() throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(160);
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(body, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("description", "This is description for public gist");
+            generator.writeBooleanField("public", true);
+            generator.writeObjectFieldStart("files");
+            generator.writeObjectFieldStart("newPublicGistFile.txt");
+            generator.writeStringField("content", "The content is here");
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+        return body.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] createWithJsonSimple() {
+        return JSONObject.toJSONString(createGist).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] updateFromFile() {
+        return GistPayload.UPDATE_PUBLIC_GIST.bytes();
+    }
+
+    @Benchmark
+    public byte[] updateWithJacksonMap() throws IOException {
+        return MAPPER.writeValueAsBytes(updateGist);
+    }
+
+    @Benchmark
+    public byte[] updateWithJsonSimple() {
+        return JSONObject.toJSONString(updateGist).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Object> gist(Boolean isPublic, String filename, String content, String newFilename) {
+        Map<String, Object> file = new LinkedHashMap<>();
+        file.put("content", content);
+        if (newFilename != null) {
+            file.put("filename", newFilename);
+        }
+        Map<String, Object> files = new LinkedHashMap<>();
+        files.put(filename, file);
+
+        Map<String, Object> gist = new LinkedHashMap<>();
+        gist.put("description", "This is description for public gist");
+        if (isPublic != null) {
+            gist.put("public", isPublic);
+        }
+        gist.put("files", files);
+        return gist;
+    }
+}
@@ -0,0 +1,84 @@
+package benchmarks;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.path.json.JsonPath;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of a single gist and of a list of 100 gists into object graph by Jackson, json-simple and
+ * RestAssured JsonPath, and reading all tokens by Jackson streaming parser
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseParseBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * 1 is GET /gists/{id}, other sizes are GET /gists
+     */
+    @Param({"1", "100"})
+    public int gists;
+
+    private byte[] body;
+
+    private String text;
+
+    @Setup
+    public void setUp() {
+        body = gists == 1 ? GistResponses.gist() : GistResponses.list(gists);
+        text = new String(body, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public JsonNode jacksonTree() throws IOException {
+        return MAPPER.readTree(body);
+    }
+
+    @Benchmark
+    public int jacksonStreaming() throws IOException {
+        int tokens = 0;
+        try (JsonParser parser = MAPPER.getFactory().createParser(body)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                tokens += token.id();
+            }
+        }
+        return tokens;
+    }
+
+    @Benchmark
+    public Object jsonSimple() throws IOException, ParseException {
+        return new JSONParser().parse(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public Object restAssuredJsonPath() {
+        return new JsonPath(text).get();
+    }
+}
@@ -0,0 +1,67 @@
+package benchmarks;
+
+import config.GistPayload;
+import config.GistRequestSpecifications;
+import config.GistTestConfigurationConstants;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Building of RestAssured request specifications: lookup of pre-built specification, building a new one
+ * and merging specification into request as every test does before sending it
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpecificationBenchmark {
+
+    private static final String TOKEN = "0123456789abcdef0123456789abcdef01234567";
+
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        body = GistPayload.CREATE_PUBLIC_GIST.bytes();
+        GistRequestSpecifications.authorized(TOKEN);
+    }
+
+    @Benchmark
+    public RequestSpecification preBuiltAuthorized() {
+        return GistRequestSpecifications.authorized(TOKEN);
+    }
+
+    @Benchmark
+    public RequestSpecification newAuthorized() {
+        return new RequestSpecBuilder().
+                setBaseUri(GistTestConfigurationConstants.GIST_GITHUB_API).
+                setAuth(RestAssured.oauth2(TOKEN)).
+                build();
+    }
+
+    @Benchmark
+    public RequestSpecification requestWithSpecification() {
+        return given().
+                spec(GistRequestSpecifications.authorized(TOKEN)).
+                contentType(ContentType.JSON).
+                body(body);
+    }
+}
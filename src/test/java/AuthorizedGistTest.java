@@ -1,29 +1,101 @@
+import config.GistPayload;
+import config.GistRequestSpecifications;
 import config.GistTestConfiguration;
 import config.GistTestConfigurationConstants;
-import io.restassured.RestAssured;
+import config.GistTestConfigurationExtension;
+import dependency.DependencyExtension;
+import dependency.DependencyOrderer;
+import dependency.Produces;
+import dependency.Requires;
 import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExtendWith;
+import pagination.GistPages;
 
-import java.io.File;
+import java.util.Set;
 
 import static io.restassured.RestAssured.given;
+import static json.StreamingJsonAssertion.assertThatJson;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.MatcherAssert.assertThat;
 
 /**
  * Test gist workflow in authorized context
+ * Workflow is executed on gists created by the first tests, so the shared configuration gists stay unchanged
+ * Tests declare states of gists they produce and require: public and secret gists are tested by two independent
+ * chains, fork and rate limit tests don't depend on them, so the chains run concurrently and every gist is
+ * changed by one test at a time
  */
-@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestMethodOrder(DependencyOrderer.class)
 @TestInstance(Lifecycle.PER_CLASS)
+@ExtendWith({GistTestConfigurationExtension.class, DependencyExtension.class})
 class AuthorizedGistTest {
 
+    private static final String PUBLIC_GIST_CREATED = "public gist created";
+
+    private static final String PUBLIC_GIST_READ = "public gist read";
+
+    private static final String PUBLIC_GIST_STARRED = "public gist starred";
+
+    private static final String PUBLIC_STAR_CHECKED = "star of public gist checked";
+
+    private static final String PUBLIC_GIST_UNSTARRED = "public gist unstarred";
+
+    private static final String PUBLIC_UNSTAR_CHECKED = "unstar of public gist checked";
+
+    private static final String PUBLIC_GIST_UPDATED = "public gist updated";
+
+    private static final String PUBLIC_GIST_FILE_ADDED = "file added to public gist";
+
+    private static final String PUBLIC_GIST_FILE_DELETED = "file deleted from public gist";
+
+    private static final String SECRET_GIST_CREATED = "secret gist created";
+
+    private static final String SECRET_GIST_READ = "secret gist read";
+
+    private static final String SECRET_GIST_STARRED = "secret gist starred";
+
+    private static final String SECRET_STAR_CHECKED = "star of secret gist checked";
+
+    private static final String SECRET_GIST_UNSTARRED = "secret gist unstarred";
+
+    private static final String SECRET_UNSTAR_CHECKED = "unstar of secret gist checked";
+
+    private static final String SECRET_GIST_UPDATED = "secret gist updated";
+
+    /**
+     * List of gists is checked before secret gist is changed and gists are deleted
+     */
+    private static final String GISTS_LISTED = "gists listed";
+
+    private static final String GIST_FORKED = "gist forked";
+
     private GistTestConfiguration gistTestConfiguration;
 
+    private RequestSpecification authorized;
+
+    private RequestSpecification unauthorized;
+
+    /**
+     * ID of public gist created by {@link #createPublicGist()}
+     */
+    private String publicGistId;
+
+    /**
+     * ID of secret gist created by {@link #createSecretGist()}
+     */
+    private String secretGistId;
+
     @BeforeAll
-    private void init() {
-        RestAssured.baseURI = GistTestConfigurationConstants.GIST_GITHUB_API;
+    private void init(GistTestConfiguration gistTestConfiguration) {
+        this.gistTestConfiguration = gistTestConfiguration;
 
-        gistTestConfiguration = new GistTestConfiguration();
+        authorized = GistRequestSpecifications.authorized(gistTestConfiguration.getAccessToken());
+        unauthorized = GistRequestSpecifications.unauthorized();
     }
 
     /**
@@ -31,15 +103,12 @@ class AuthorizedGistTest {
      */
     @DisplayName("authorized user creates public gist")
     @Test
-    @Order(1)
+    @Produces(PUBLIC_GIST_CREATED)
     void createPublicGist() {
-        File JSON = new File(GistTestConfigurationConstants.FILEPATH_CREATE_PUBLIC_GIST);
-
-        given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+        publicGistId = given().
+                spec(authorized).
                 contentType(ContentType.JSON).
-                body(JSON).
+                body(GistPayload.CREATE_PUBLIC_GIST.bytes()).
                 when().
                 post().
                 then().
@@ -48,22 +117,21 @@ class AuthorizedGistTest {
                 and().
                 body("files.'newPublicGistFile.txt'.filename", equalTo("newPublicGistFile.txt")).
                 body("files.'newPublicGistFile.txt'.content", equalTo("The content is here")).
-                body("public", equalTo(true));
+                body("public", equalTo(true)).
+                extract().path("id");
     }
 
     /**
      * Checks that authorized user can create secret gist
      */
     @Test
-    @Order(2)
+    @Produces(SECRET_GIST_CREATED)
     @DisplayName("authorized user creates secret gist")
     void createSecretGist() {
-        File JSON = new File(GistTestConfigurationConstants.FILEPATH_CREATE_SECRET_GIST);
-        given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+        secretGistId = given().
+                spec(authorized).
                 contentType(ContentType.JSON).
-                body(JSON).
+                body(GistPayload.CREATE_SECRET_GIST.bytes()).
                 when().
                 post().
                 then().
@@ -72,21 +140,22 @@ class AuthorizedGistTest {
                 and().
                 body("files.'newSecretGistFile.txt'.filename", equalTo("newSecretGistFile.txt")).
                 body("files.'newSecretGistFile.txt'.content", equalTo("The content is here")).
-                body("public", equalTo(false));
+                body("public", equalTo(false)).
+                extract().path("id");
     }
 
     /**
      * Checks that authorized user can read his public gist
      */
     @Test
-    @Order(3)
+    @Requires(PUBLIC_GIST_CREATED)
+    @Produces(PUBLIC_GIST_READ)
     @DisplayName("authorized user reads his public gist")
     void readPublicGist() {
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 when().
-                get(gistTestConfiguration.getPublicGistId()).
+                get(publicGistId).
                 then().
                 assertThat().
                 statusCode(200).
@@ -100,14 +169,14 @@ class AuthorizedGistTest {
      * Checks that authorized user can read his secret gist
      */
     @Test
-    @Order(4)
+    @Requires(SECRET_GIST_CREATED)
+    @Produces(SECRET_GIST_READ)
     @DisplayName("authorized user reads his secret gist")
     void readSecretGist() {
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 when().
-                get(gistTestConfiguration.getSecretGistId()).
+                get(secretGistId).
                 then().
                 assertThat().
                 statusCode(200).
@@ -115,7 +184,7 @@ class AuthorizedGistTest {
                 body("files.'newSecretGistFile.txt'.filename", equalTo("newSecretGistFile.txt")).
                 body("files.'newSecretGistFile.txt'.language", equalTo("Text")).
                 body("files.'newSecretGistFile.txt'.content", equalTo("The content is here")).
-                body("id", equalTo(gistTestConfiguration.getSecretGistId()));
+                body("id", equalTo(secretGistId));
     }
 
     /**
@@ -123,34 +192,45 @@ class AuthorizedGistTest {
      * Check that list includes user's secret gist
      */
     @Test
-    @Order(5)
+    @Requires({PUBLIC_GIST_CREATED, SECRET_GIST_CREATED})
+    @Produces(GISTS_LISTED)
     @DisplayName("authorized user reads list of his gists")
     void readListOfGists() {
 
-        given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+        Response response = given().
+                spec(authorized).
+                // body is not cached, so it is parsed from the connection
+                header("Cache-Control", "no-store").
                 when().
                 get().
                 then().assertThat().statusCode(200).
-                // check that we receive our secret gist
-                body("files.'newSecretGistFile.txt'.filename[0]", equalTo("newSecretGistFile.txt")).
-                body("files.'newSecretGistFile.txt'.language[0]", equalTo("Text")).
-                body("public[0]", equalTo(false));
+                extract().response();
+
+        // check that we receive our secret gist
+        assertThatJson().
+                element("id", secretGistId).
+                path("/files/newSecretGistFile.txt/filename", equalTo("newSecretGistFile.txt")).
+                path("/files/newSecretGistFile.txt/language", equalTo("Text")).
+                path("/public", equalTo(false)).
+                verify(response.asInputStream());
+
+        // check that all pages of the list contain both gists of the user
+        Set<String> ids = GistPages.of(authorized, "").ids();
+        assertThat(ids, hasItems(publicGistId, secretGistId));
     }
 
     /**
      * Checks that authorized user can make his public gist starred
      */
     @Test
-    @Order(6)
+    @Requires(PUBLIC_GIST_CREATED)
+    @Produces(PUBLIC_GIST_STARRED)
     @DisplayName("authorized user stars his public gist")
     void starPublicGist() {
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 when().
-                put(gistTestConfiguration.getPublicGistId() + "/star").
+                put(publicGistId + "/star").
                 then().
                 assertThat().statusCode(204);
     }
@@ -159,14 +239,14 @@ class AuthorizedGistTest {
      * Checks that authorized user can make his secret gist starred
      */
     @Test
-    @Order(7)
+    @Requires(SECRET_GIST_CREATED)
+    @Produces(SECRET_GIST_STARRED)
     @DisplayName("authorized user stars his secret gist")
     void starSecretGist() {
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 when().
-                put(gistTestConfiguration.getSecretGistId() + "/star").
+                put(secretGistId + "/star").
                 then().
                 assertThat().statusCode(204);
     }
@@ -175,14 +255,14 @@ class AuthorizedGistTest {
      * Checks that authorized user can check that his public gist is starred
      */
     @Test
-    @Order(8)
+    @Requires(PUBLIC_GIST_STARRED)
+    @Produces(PUBLIC_STAR_CHECKED)
     @DisplayName("authorized user checks that his public gist is starred")
     void checkStarredPublicGist() {
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 when().
-                get(gistTestConfiguration.getPublicGistId() + "/star").
+                get(publicGistId + "/star").
                 then().
                 assertThat().statusCode(204);
     }
@@ -191,14 +271,14 @@ class AuthorizedGistTest {
      * Checks that authorized user can check that his secret gist is starred
      */
     @Test
-    @Order(9)
+    @Requires(SECRET_GIST_STARRED)
+    @Produces(SECRET_STAR_CHECKED)
     @DisplayName("authorized user checks that his secret gist is starred")
     void checkStarredSecretGist() {
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 when().
-                get(gistTestConfiguration.getSecretGistId() + "/star").
+                get(secretGistId + "/star").
                 then().
                 assertThat().statusCode(204);
     }
@@ -207,14 +287,14 @@ class AuthorizedGistTest {
      * Checks that authorized user can make his starred public gist unstarred
      */
     @Test
-    @Order(10)
+    @Requires(PUBLIC_STAR_CHECKED)
+    @Produces(PUBLIC_GIST_UNSTARRED)
     @DisplayName("authorized user unstars his public gist")
     void unstarPublicGist() {
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 when().
-                delete(gistTestConfiguration.getPublicGistId() + "/star").
+                delete(publicGistId + "/star").
                 then().
                 assertThat().statusCode(204);
     }
@@ -223,14 +303,14 @@ class AuthorizedGistTest {
      * Checks that authorized user can make his starred secret gist unstarred
      */
     @Test
-    @Order(11)
+    @Requires(SECRET_STAR_CHECKED)
+    @Produces(SECRET_GIST_UNSTARRED)
     @DisplayName("authorized user unstars his secret gist")
     void unstarSecretGist() {
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 when().
-                delete(gistTestConfiguration.getSecretGistId() + "/star").
+                delete(secretGistId + "/star").
                 then().
                 assertThat().statusCode(204);
     }
@@ -239,14 +319,14 @@ class AuthorizedGistTest {
      * Checks that authorized user can check that his public gist unstarred
      */
     @Test
-    @Order(12)
+    @Requires(PUBLIC_GIST_UNSTARRED)
+    @Produces(PUBLIC_UNSTAR_CHECKED)
     @DisplayName("authorized user checks that his public gist is unstarred")
     void checkUnstarredPublicGist() {
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 when().
-                get(gistTestConfiguration.getPublicGistId() + "/star").
+                get(publicGistId + "/star").
                 then().
                 assertThat().statusCode(404);
     }
@@ -255,14 +335,14 @@ class AuthorizedGistTest {
      * Checks that authorized user can check that his secret gist unstarred
      */
     @Test
-    @Order(13)
+    @Requires(SECRET_GIST_UNSTARRED)
+    @Produces(SECRET_UNSTAR_CHECKED)
     @DisplayName("authorized user checks that his secret gist is unstarred")
     void checkUnstarredSecretGist() {
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 when().
-                get(gistTestConfiguration.getSecretGistId() + "/star").
+                get(secretGistId + "/star").
                 then().
                 assertThat().statusCode(404);
     }
@@ -273,23 +353,20 @@ class AuthorizedGistTest {
      * description and name of file to change
      */
     @Test
-    @Order(14)
+    @Requires(PUBLIC_GIST_READ)
+    @Produces(PUBLIC_GIST_UPDATED)
     @DisplayName("authorized user updates his public gist")
     void updatePublicGistFirstTest() {
-        File JSON = new File(GistTestConfigurationConstants.FILEPATH_UPDATE_PUBLIC_GIST);
-
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 contentType(ContentType.JSON).
-                body(JSON).
+                body(GistPayload.UPDATE_PUBLIC_GIST.bytes()).
                 when().
-                patch(gistTestConfiguration.getPublicGistId()).
+                patch(publicGistId).
                 then().
                 assertThat().statusCode(200).
                 body("url",
-                        equalTo(GistTestConfigurationConstants.GIST_GITHUB_API + "/" + gistTestConfiguration
-                                .getPublicGistId())).
+                        equalTo(GistTestConfigurationConstants.GIST_GITHUB_API + "/" + publicGistId)).
                 body("files.'updatedPublicGistFile.json'.filename",
                         equalTo("updatedPublicGistFile.json")).
                 body("files.'updatedPublicGistFile.json'.content",
@@ -301,23 +378,20 @@ class AuthorizedGistTest {
      * description and name of file to change
      */
     @Test
-    @Order(15)
+    @Requires({SECRET_GIST_READ, GISTS_LISTED})
+    @Produces(SECRET_GIST_UPDATED)
     @DisplayName("authorized user updates his secret gist")
     void updatesSecretGistFirstTest() {
-        File JSON = new File(GistTestConfigurationConstants.FILEPATH_UPDATE_SECRET_GIST);
-
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 contentType(ContentType.JSON).
-                body(JSON).
+                body(GistPayload.UPDATE_SECRET_GIST.bytes()).
                 when().
-                patch(gistTestConfiguration.getSecretGistId()).
+                patch(secretGistId).
                 then().
                 assertThat().statusCode(200).
                 body("url",
-                        equalTo(GistTestConfigurationConstants.GIST_GITHUB_API + "/" + gistTestConfiguration
-                                .getSecretGistId())).
+                        equalTo(GistTestConfigurationConstants.GIST_GITHUB_API + "/" + secretGistId)).
                 body("files.'updatedSecretGistFile.json'.filename",
                         equalTo("updatedSecretGistFile.json")).
                 body("files.'updatedSecretGistFile.json'.content",
@@ -329,24 +403,21 @@ class AuthorizedGistTest {
      * sending nonexistent description and name of file to change
      */
     @Test
-    @Order(16)
+    @Requires(PUBLIC_GIST_UPDATED)
+    @Produces(PUBLIC_GIST_FILE_ADDED)
     @DisplayName("authorized user creates new " +
             "gist file with new description")
     void updatesGistSecondTest() {
-        File JSON = new File(GistTestConfigurationConstants.FILEPATH_CREATE_NEW_GIST_FILE);
-
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 contentType(ContentType.JSON).
-                body(JSON).
+                body(GistPayload.CREATE_NEW_GIST_FILE.bytes()).
                 when().
-                patch(gistTestConfiguration.getPublicGistId()).
+                patch(publicGistId).
                 then().
                 assertThat().statusCode(200).
                 body("url",
-                        equalTo(GistTestConfigurationConstants.GIST_GITHUB_API + "/" + gistTestConfiguration
-                                .getPublicGistId())).
+                        equalTo(GistTestConfigurationConstants.GIST_GITHUB_API + "/" + publicGistId)).
                 body("files.'newFileName.json'.filename", equalTo("newFileName.json")).
                 body("files.'newFileName.json'.content", equalTo("The content is here"));
     }
@@ -355,18 +426,16 @@ class AuthorizedGistTest {
      * Checks that user can delete file from gist by sending null as name of file to change
      */
     @Test
-    @Order(17)
+    @Requires(PUBLIC_GIST_FILE_ADDED)
+    @Produces(PUBLIC_GIST_FILE_DELETED)
     @DisplayName("authorized user deletes gist file")
     void deleteFileFromGist() {
-        File JSON = new File(GistTestConfigurationConstants.FILEPATH_DELETE_GIST_FILE);
-
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 contentType(ContentType.JSON).
-                body(JSON).
+                body(GistPayload.DELETE_GIST_FILE.bytes()).
                 when().
-                patch(gistTestConfiguration.getPublicGistId()).
+                patch(publicGistId).
                 then().
                 assertThat().statusCode(200);
     }
@@ -375,14 +444,13 @@ class AuthorizedGistTest {
      * Checks that authorized user can delete his public gist
      */
     @Test
-    @Order(18)
+    @Requires({PUBLIC_GIST_FILE_DELETED, PUBLIC_UNSTAR_CHECKED, GISTS_LISTED})
     @DisplayName("authorized user deletes his public gist")
     void deletePublicGist() {
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 when().
-                delete(gistTestConfiguration.getPublicGistId()).
+                delete(publicGistId).
                 then().
                 assertThat().statusCode(204);
     }
@@ -391,14 +459,13 @@ class AuthorizedGistTest {
      * Checks that authorized user can delete his public gist
      */
     @Test
-    @Order(19)
+    @Requires({SECRET_GIST_UPDATED, SECRET_UNSTAR_CHECKED})
     @DisplayName("authorized user deletes his secret gist")
     void deleteSecretGist() {
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 when().
-                delete(gistTestConfiguration.getSecretGistId()).
+                delete(secretGistId).
                 then().
                 assertThat().statusCode(204);
     }
@@ -407,12 +474,11 @@ class AuthorizedGistTest {
      * Checks that authorized user can fork other gist
      */
     @Test
-    @Order(20)
+    @Produces(GIST_FORKED)
     @DisplayName("authorized user forks gist")
     void forkGist() {
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 when().
                 post(GistTestConfigurationConstants.ID_OF_GIST_FOR_FORK + "/forks").
                 then().
@@ -427,12 +493,11 @@ class AuthorizedGistTest {
      * 2. List of user's gist forks includes information of forked gist
      */
     @Test
-    @Order(21)
+    @Requires(GIST_FORKED)
     @DisplayName("authorized user checks gist forks")
     void checkGistForks() {
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 when().
                 get(GistTestConfigurationConstants.ID_OF_GIST_FOR_FORK + "/forks").
                 then().
@@ -445,12 +510,12 @@ class AuthorizedGistTest {
      * Checks that the user has a rate limit of 5000 calls
      */
     @Test
-    @Order(22)
+    // the same request as listing, cassette replays responses of the same request in recorded order
+    @Requires(GISTS_LISTED)
     @DisplayName("authorized user has rate limiting of 5000 calls")
     void checkRateLimiting() {
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 when().
                 get().
                 then().
@@ -462,10 +527,10 @@ class AuthorizedGistTest {
      * Checks that the user can increase rate limit to 5000 calls
      */
     @Test
-    @Order(23)
     @DisplayName("authorized user increases unauthenticated rate limiting to 5000 calls")
     void checkIncreasingOfRateLimiting() {
         given().
+                spec(unauthorized).
                 when().
                 params("client_id", GistTestConfigurationConstants.CLIENT_ID, "client_secret",
                         GistTestConfigurationConstants.CLIENT_SECRET).
@@ -0,0 +1,66 @@
+import config.GistTestConfiguration;
+import config.GistTestConfigurationExtension;
+import contention.ContentionProfile;
+import contention.ContentionReport;
+import contention.ContentionResult;
+import contention.StarContention;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stars and unstars shared gists from many threads at once and checks that stars are consistent afterwards
+ * Enabled only in contention mode: ./mvnw test -Pcontention
+ */
+@TestInstance(Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "gist.contention.requests", matches = "\\d+")
+@ExtendWith(GistTestConfigurationExtension.class)
+class GistContentionTest {
+
+    /**
+     * Maximal share of failed star and unstar requests
+     */
+    private static final double MAX_FAILED_REQUESTS = Double.parseDouble(
+            System.getProperty("gist.contention.maxFailedRequests", "0.01"));
+
+    private static final ContentionProfile PROFILE = ContentionProfile.fromSystemProperties();
+
+    private final ContentionReport report = new ContentionReport();
+
+    @AfterAll
+    void writeReport() throws IOException {
+        report.write(Paths.get("target", "gist-contention.json"));
+    }
+
+    /**
+     * Runs contention on one gist, where every request conflicts with others, and on gist.contention.gists gists,
+     * throughput, latency and checks are written to target/gist-contention.json
+     *
+     * @param manyGists false for one gist, true for gist.contention.gists gists
+     */
+    @DisplayName("authorized user stars and unstars gists concurrently")
+    @ParameterizedTest(name = "many gists: {0}")
+    @ValueSource(booleans = {false, true})
+    void starAndUnstarConcurrently(boolean manyGists, GistTestConfiguration gistTestConfiguration)
+            throws InterruptedException {
+        ContentionResult result = new StarContention(gistTestConfiguration.getAccessToken()).
+                run(manyGists ? PROFILE : PROFILE.withGists(1));
+        report.add(result);
+
+        assertTrue(result.getFailedRequests() <= PROFILE.getRequests() * MAX_FAILED_REQUESTS,
+                result.getFailedRequests() + " of " + PROFILE.getRequests() + " requests failed");
+        assertTrue(result.getViolations().isEmpty(), "Stars don't match requests: " + result.getViolations());
+        assertTrue(result.getListingMismatches().isEmpty(),
+                "Starred gists don't match stars: " + result.getListingMismatches());
+    }
+}
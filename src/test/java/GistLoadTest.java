@@ -0,0 +1,49 @@
+import config.GistRequestSpecifications;
+import config.GistTestConfiguration;
+import config.GistTestConfigurationExtension;
+import load.GistLifecycle;
+import load.LoadGenerator;
+import load.LoadMetrics;
+import load.LoadProfile;
+import load.LoadReport;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Replays gist workflow of authorized user as load
+ * Enabled only in load mode: ./mvnw test -Pload
+ */
+@EnabledIfSystemProperty(named = "gist.load.mode", matches = "open|closed")
+@ExtendWith(GistTestConfigurationExtension.class)
+class GistLoadTest {
+
+    /**
+     * Maximal share of failed sessions in steady state
+     */
+    private static final double MAX_FAILED_SESSIONS = Double.parseDouble(
+            System.getProperty("gist.load.maxFailedSessions", "0.01"));
+
+    /**
+     * Runs load and writes per-endpoint throughput and latency percentiles to target/gist-load-report.json
+     */
+    @Test
+    @DisplayName("authorized users run gist workflow under load")
+    void runGistLifecycleUnderLoad(GistTestConfiguration gistTestConfiguration) throws Exception {
+        GistLifecycle lifecycle = new GistLifecycle(
+                GistRequestSpecifications.authorized(gistTestConfiguration.getAccessToken()));
+
+        LoadReport report = LoadGenerator.run(lifecycle, LoadProfile.fromSystemProperties());
+        report.write(Paths.get("target", "gist-load-report.json"));
+
+        LoadMetrics steadyState = report.getSteadyState();
+        assertTrue(steadyState.getSessions() > 0, "No sessions were started in steady state");
+        assertTrue(steadyState.getFailedSessions() <= steadyState.getSessions() * MAX_FAILED_SESSIONS,
+                steadyState.getFailedSessions() + " of " + steadyState.getSessions() + " sessions failed");
+    }
+}
@@ -0,0 +1,49 @@
+import config.GistRequestSpecifications;
+import config.GistTestConfiguration;
+import config.GistTestConfigurationExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import pagination.GistPages;
+import seed.GistSeeder;
+import seed.SeedProfile;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeds many gists and reads them back as a list, latency of list pages is written by latency filter
+ * Enabled only in seed mode: ./mvnw test -Pseed -Dgist.seed.count=1000
+ */
+@EnabledIfSystemProperty(named = "gist.seed.count", matches = "\\d+")
+@ExtendWith(GistTestConfigurationExtension.class)
+class GistSeedTest {
+
+    private static final Path SEED_FILE = Paths.get(System.getProperty("user.home"), ".gists-api-tests",
+            "gist-seed.json");
+
+    /**
+     * IDs of seeded gists are kept in ~/.gists-api-tests/gist-seed.json unless gist.seed.file is set,
+     * the file is outside of target/ so that seeded gists are reused after ./mvnw clean
+     */
+    @Test
+    @DisplayName("authorized user's list of gists contains all seeded gists")
+    void readListOfSeededGists(GistTestConfiguration gistTestConfiguration) throws Exception {
+        SeedProfile profile = SeedProfile.fromSystemProperties();
+        List<GistSeeder.SeededGist> seeded = new GistSeeder(gistTestConfiguration.getAccessToken(), profile,
+                Paths.get(System.getProperty("gist.seed.file", SEED_FILE.toString()))).seed();
+        assertEquals(profile.getCount(), seeded.size(), "Number of seeded gists");
+
+        Set<String> listed = GistPages.of(
+                GistRequestSpecifications.authorized(gistTestConfiguration.getAccessToken()), "").ids();
+        for (GistSeeder.SeededGist gist : seeded) {
+            assertTrue(listed.contains(gist.getId()), "Seeded gist " + gist.getIndex() + " is not listed");
+        }
+    }
+}
@@ -0,0 +1,133 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import config.GistRequestSpecifications;
+import config.GistTestConfiguration;
+import config.GistTestConfigurationExtension;
+import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import metrics.TimeToFirstByte;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import shape.GistShape;
+import shape.ShapeReport;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Test gists with many files: creation and PATCH with mixed update, rename and delete of every file
+ * Every shape is repeated gist.shape.repetitions times, request size, latency and response parse cost
+ * are written to target/gist-shapes.json
+ * Enabled only in shape mode: ./mvnw test -Pshape -Dgist.shape.repetitions=3
+ */
+@EnabledIfSystemProperty(named = "gist.shape.repetitions", matches = "\\d+")
+@TestInstance(Lifecycle.PER_CLASS)
+@ExtendWith(GistTestConfigurationExtension.class)
+class GistShapeTest {
+
+    private static final int REPETITIONS = Integer.getInteger("gist.shape.repetitions", 3);
+
+    private static final int FILE_BYTES = Integer.getInteger("gist.shape.fileBytes", 256);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final ShapeReport report = new ShapeReport();
+
+    private RequestSpecification authorized;
+
+    @BeforeAll
+    void init(GistTestConfiguration gistTestConfiguration) {
+        authorized = GistRequestSpecifications.authorized(gistTestConfiguration.getAccessToken());
+    }
+
+    @AfterAll
+    void writeReport() throws IOException {
+        report.write(Paths.get("target", "gist-shapes.json"));
+    }
+
+    /**
+     * Checks that gist with many files is created and all its files are changed by one PATCH
+     */
+    @DisplayName("authorized user creates gist with many files and changes all of them")
+    @ParameterizedTest(name = "{0} files")
+    @ValueSource(ints = {1, 10, 100, 300})
+    void createAndPatchGist(int files) throws IOException {
+        GistShape shape = new GistShape(files, FILE_BYTES);
+        for (int repetition = 0; repetition < REPETITIONS; repetition++) {
+            byte[] createBody = shape.createBody();
+            JsonNode created = send("POST", files, createBody, () -> given().
+                    spec(authorized).
+                    contentType(ContentType.JSON).
+                    body(createBody).
+                    when().
+                    post(), 201);
+            String id = created.path("id").asText();
+            try {
+                assertEquals(files, created.path("files").size(), "Number of created files");
+
+                byte[] patchBody = shape.patchBody();
+                JsonNode patched = send("PATCH", files, patchBody, () -> given().
+                        spec(authorized).
+                        contentType(ContentType.JSON).
+                        body(patchBody).
+                        when().
+                        patch(id), 200);
+                assertEquals(shape.filesAfterPatch(), contents(patched), "Files after PATCH");
+            } finally {
+                given().spec(authorized).when().delete(id);
+            }
+        }
+    }
+
+    /**
+     * Send request, record its size, latency and parse cost and check status
+     *
+     * @return parsed response
+     */
+    private JsonNode send(String operation, int files, byte[] body, Supplier<Response> request, int expectedStatus)
+            throws IOException {
+        long start = System.nanoTime();
+        Response response = request.get();
+        long latency = System.nanoTime() - start;
+        Long firstByte = TimeToFirstByte.receivedNanos();
+        byte[] responseBody = response.asByteArray();
+        assertEquals(expectedStatus, response.getStatusCode(),
+                operation + " returned " + new String(responseBody, StandardCharsets.UTF_8));
+
+        long jacksonStart = System.nanoTime();
+        JsonNode tree = MAPPER.readTree(responseBody);
+        long jsonPathStart = System.nanoTime();
+        new JsonPath(new String(responseBody, StandardCharsets.UTF_8)).get();
+        long jsonPathEnd = System.nanoTime();
+
+        report.record(operation, files, body.length, responseBody.length, latency,
+                firstByte == null ? -1 : firstByte - start, jsonPathStart - jacksonStart, jsonPathEnd - jsonPathStart);
+        return tree;
+    }
+
+    private static Map<String, String> contents(JsonNode gist) {
+        Map<String, String> contents = new HashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = gist.path("files").fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> file = it.next();
+            contents.put(file.getKey(), file.getValue().path("content").asText());
+        }
+        return contents;
+    }
+}
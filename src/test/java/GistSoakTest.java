@@ -0,0 +1,75 @@
+import config.GistRequestSpecifications;
+import config.GistTestConfiguration;
+import config.GistTestConfigurationExtension;
+import load.GistLifecycle;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import soak.SoakProfile;
+import soak.SoakReport;
+import soak.SoakRunner;
+
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Repeats gist workflow of authorized user for a long time and watches the JVM for leaks
+ * Enabled only in soak mode: ./mvnw test -Psoak -Dgist.soak.minutes=60
+ */
+@EnabledIfSystemProperty(named = "gist.soak.minutes", matches = "\\d+(\\.\\d+)?")
+@ExtendWith(GistTestConfigurationExtension.class)
+class GistSoakTest {
+
+    /**
+     * Maximal share of failed iterations
+     */
+    private static final double MAX_FAILED_ITERATIONS = Double.parseDouble(
+            System.getProperty("gist.soak.maxFailedIterations", "0.01"));
+
+    /**
+     * Growing metrics fail the test unless gist.soak.failOnLeak=false, they are reported anyway
+     */
+    private static final boolean FAIL_ON_LEAK = Boolean.parseBoolean(
+            System.getProperty("gist.soak.failOnLeak", "true"));
+
+    /**
+     * Runs soak and writes time series of heap, allocation, collections, threads and sockets
+     * with their trends to target/gist-soak.json
+     */
+    @Test
+    @DisplayName("authorized user repeats gist workflow without leaks")
+    void soakGistLifecycle(GistTestConfiguration gistTestConfiguration) throws Exception {
+        GistLifecycle lifecycle = new GistLifecycle(
+                GistRequestSpecifications.authorized(gistTestConfiguration.getAccessToken()));
+
+        SoakReport report = SoakRunner.run(lifecycle, GistSoakTest::fixtureSession,
+                SoakProfile.fromSystemProperties());
+        report.write(Paths.get("target", "gist-soak.json"));
+
+        assertTrue(report.getIterations() > 0, "No iterations were finished");
+        assertTrue(report.getFailedIterations() <= report.getIterations() * MAX_FAILED_ITERATIONS,
+                report.getFailedIterations() + " of " + report.getIterations() + " iterations failed");
+        assertEquals(0, report.getFailedFixtureSessions(), "Fixtures failed to be created or deleted");
+        if (FAIL_ON_LEAK) {
+            assertTrue(report.getLeaks().isEmpty(), "Metrics grow after warm-up: " + report.getLeaks());
+        }
+    }
+
+    /**
+     * Create and delete fixtures like one test session, without sweep of the account and without deleting the fork
+     * which is shared with the running session
+     */
+    private static void fixtureSession() {
+        GistTestConfiguration configuration = new GistTestConfiguration(false);
+        try {
+            configuration.getPublicGistId();
+            configuration.getSecretGistId();
+            configuration.getForkedGistId();
+        } finally {
+            configuration.close();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+import cleanup.GistSweeper;
+import cleanup.SweepMarkers;
+import cleanup.SweepReport;
+import config.GistPayload;
+import config.GistRequestSpecifications;
+import config.GistTestConfiguration;
+import config.GistTestConfigurationExtension;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import pagination.GistPages;
+import seed.GistSeeder;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sweeps gists left by tests and seeder from user's account
+ * Enabled only on demand: ./mvnw test -Psweep
+ */
+@EnabledIfSystemProperty(named = "gist.sweep", matches = "true")
+@ExtendWith(GistTestConfigurationExtension.class)
+class GistSweepTest {
+
+    /**
+     * Sweeps the whole account regardless of age of gists and writes result to target/gist-sweep.json
+     */
+    @Test
+    @DisplayName("sweeper deletes leaked fixture and seeded gists")
+    void sweepLeakedGists(GistTestConfiguration gistTestConfiguration) throws IOException {
+        String accessToken = gistTestConfiguration.getAccessToken();
+        String leakedFixture = GistTestConfiguration.createGist(accessToken,
+                GistPayload.CREATE_SECRET_GIST.bytes(), "leaked secret gist");
+        Map<String, String> values = new HashMap<>();
+        values.put("description", GistSeeder.DESCRIPTION_MARKER + " leaked");
+        values.put("public", "false");
+        values.put("filename", "leaked.txt");
+        values.put("content", "leaked");
+        String leakedSeed = GistTestConfiguration.createGist(accessToken,
+                GistPayload.CREATE_GIST_TEMPLATE.render(values), "leaked seeded gist");
+
+        SweepReport report = new GistSweeper(accessToken, SweepMarkers.fixtures().withSeeded()).sweep();
+        report.write(Paths.get("target", "gist-sweep.json"));
+
+        assertEquals(0, report.getFailed(), "Gists failed to be deleted");
+        assertThat(report.getRemoved(), greaterThanOrEqualTo(2));
+        Set<String> listed = GistPages.of(GistRequestSpecifications.authorized(accessToken), "").ids();
+        assertThat(listed, not(hasItem(leakedFixture)));
+        assertThat(listed, not(hasItem(leakedSeed)));
+    }
+}
@@ -0,0 +1,85 @@
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import config.GistRequestSpecifications;
+import config.GistTestConfiguration;
+import config.GistTestConfigurationExtension;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import largefile.LargeFile;
+import largefile.StreamedGist;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test gists with large files: content is streamed from disk into request, API returns only the first megabyte
+ * of content marked as truncated and the whole file is read by raw_url with incremental digest
+ * Sizes of files in megabytes are set with gist.largeFile.sizesMb, upload and download throughput is written
+ * to target/gist-transfer.json
+ * Enabled only in large file mode: ./mvnw test -Plargefile -Dgist.largeFile.sizesMb=1,4
+ */
+@EnabledIfSystemProperty(named = "gist.largeFile.sizesMb", matches = ".+")
+@ExtendWith(GistTestConfigurationExtension.class)
+class LargeGistTest {
+
+    private static final long MEGABYTE = 1024 * 1024;
+
+    /**
+     * GitHub returns only the first megabyte of file content
+     */
+    private static final long MAX_CONTENT_BYTES = MEGABYTE;
+
+    private static final String SIZES_MB = System.getProperty("gist.largeFile.sizesMb", "1,4");
+
+    private static final Path FILES_DIRECTORY = Paths.get("target", "large-files");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Checks that large file is uploaded and downloaded without changes
+     */
+    @DisplayName("authorized user creates gist with large file and reads it by raw_url")
+    @TestFactory
+    Stream<DynamicTest> createAndReadLargeFile(GistTestConfiguration gistTestConfiguration) {
+        RequestSpecification authorized = GistRequestSpecifications.authorized(gistTestConfiguration.getAccessToken());
+        return Arrays.stream(SIZES_MB.split(",")).
+                map(String::trim).
+                map(size -> DynamicTest.dynamicTest(size + " MB", () ->
+                        createAndReadLargeFile(authorized, LargeFile.of(FILES_DIRECTORY,
+                                Math.round(Double.parseDouble(size) * MEGABYTE)))));
+    }
+
+    private static void createAndReadLargeFile(RequestSpecification authorized, LargeFile file) throws IOException {
+        String filename = "large-gist-" + file.getSize() + ".txt";
+        Response response = StreamedGist.create(authorized, file, filename);
+        assertEquals(201, response.getStatusCode(), "Status of POST /gists");
+
+        JsonNode gist = MAPPER.readTree(response.asInputStream());
+        String id = gist.path("id").asText();
+        try {
+            JsonNode created = gist.path("files").path(filename);
+            assertEquals(file.getSize(), created.path("size").asLong(), "Size of file");
+            assertEquals(file.getSize() > MAX_CONTENT_BYTES, created.path("truncated").asBoolean(),
+                    "File is truncated");
+            assertTrue(created.path("raw_url").isTextual(), "File has raw_url");
+
+            StreamedGist.Download download = StreamedGist.download(created.path("raw_url").asText());
+            assertEquals(file.getSize(), download.getSize(), "Size of raw content");
+            assertEquals(file.getSha256(), download.getSha256(), "SHA-256 of raw content");
+        } finally {
+            given().spec(authorized).when().delete(id);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+import metrics.HistogramFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import regression.Comparison;
+import regression.RegressionGate;
+import regression.RegressionProfile;
+import regression.RegressionReport;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Compares per-endpoint latency, client CPU time and allocation of the test run which was just finished
+ * with stored baseline and fails the build on regression
+ * Enabled only in regression mode: ./mvnw test -Pregression, where it runs in its own JVM after other tests
+ * and reads histograms written by their JVM
+ */
+@EnabledIfSystemProperty(named = "gist.regression.gate", matches = "true")
+class LatencyRegressionGateTest {
+
+    /**
+     * "compare" checks current run against baseline, "record" makes current run the baseline
+     */
+    private static final String MODE = System.getProperty("gist.regression.mode", "compare");
+
+    /**
+     * In record mode current run is added to existing baseline instead of replacing it
+     */
+    private static final boolean APPEND = Boolean.parseBoolean(System.getProperty("gist.regression.append", "false"));
+
+    private static final Path BASELINE = Paths.get(
+            System.getProperty("gist.regression.baseline", "perf/latency-baseline.json"));
+
+    private static final Path CURRENT = Paths.get(
+            System.getProperty("gist.metrics.histogramsFile", "target/gist-latency-histograms.json"));
+
+    /**
+     * Records baseline or writes comparison with it to target/gist-regression.json and prints it as table
+     */
+    @Test
+    @DisplayName("latency of endpoints doesn't regress against baseline")
+    void latencyDoesNotRegress() throws Exception {
+        assertTrue(Files.exists(CURRENT), "Histograms of test run " + CURRENT + " are missing");
+        HistogramFile current = HistogramFile.read(CURRENT);
+
+        if ("record".equals(MODE)) {
+            HistogramFile baseline = current;
+            if (APPEND && Files.exists(BASELINE)) {
+                baseline = HistogramFile.read(BASELINE);
+                baseline.add(current);
+            }
+            baseline.write(BASELINE);
+            System.out.println("Recorded baseline of " + baseline.getRuns() + " run(s) to " + BASELINE);
+            return;
+        }
+
+        if (!Files.exists(BASELINE)) {
+            fail("Baseline " + BASELINE + " is missing, record it with -Dgist.regression.mode=record");
+        }
+        RegressionReport report = new RegressionGate(RegressionProfile.fromSystemProperties()).
+                compare(HistogramFile.read(BASELINE), current);
+        report.write(Paths.get("target", "gist-regression.json"));
+        String table = report.table();
+        System.out.print(table);
+
+        List<Comparison> regressions = report.getRegressions();
+        assertTrue(regressions.isEmpty(), () -> regressions.size() + " regression(s) against baseline:"
+                + System.lineSeparator() + table);
+    }
+}
@@ -1,31 +1,57 @@
+import config.GistPayload;
+import config.GistRequestSpecifications;
 import config.GistTestConfiguration;
 import config.GistTestConfigurationConstants;
-import io.restassured.RestAssured;
+import config.GistTestConfigurationExtension;
 import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import pagination.GistPages;
 
-import java.io.File;
+import java.util.Set;
 
 import static io.restassured.RestAssured.given;
+import static json.StreamingJsonAssertion.assertThatJson;
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
 
 /**
  * This class contains tests of gists accessibility in authorized context
+ * Tests don't change any state, so they are executed concurrently when parallel execution is enabled
  */
 @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
 @TestInstance(Lifecycle.PER_CLASS)
+@Execution(ExecutionMode.CONCURRENT)
+@ExtendWith(GistTestConfigurationExtension.class)
 class UnauthorizedGistTest {
 
+    /**
+     * Number of pages of public gists list which are checked for secret gist
+     */
+    private static final int PUBLIC_LIST_PAGES = 5;
+
     private GistTestConfiguration gistTestConfiguration;
 
+    private RequestSpecification authorized;
+
+    private RequestSpecification unauthorized;
+
     /**
-     * Specifies that for all tests will be used one URI from variable GIST_GITHUB_API
+     * Specifies that for all tests will be used specifications with URI from variable GIST_GITHUB_API
      */
     @BeforeAll
-    private void init() {
-        RestAssured.baseURI = GistTestConfigurationConstants.GIST_GITHUB_API;
-        gistTestConfiguration = new GistTestConfiguration();
+    private void init(GistTestConfiguration gistTestConfiguration) {
+        this.gistTestConfiguration = gistTestConfiguration;
+
+        authorized = GistRequestSpecifications.authorized(gistTestConfiguration.getAccessToken());
+        unauthorized = GistRequestSpecifications.unauthorized();
     }
 
     /**
@@ -35,11 +61,10 @@ class UnauthorizedGistTest {
     @Order(1)
     @DisplayName("unauthorized user creates public gist")
     void createGist() {
-        File file = new File(GistTestConfigurationConstants.FILEPATH_CREATE_PUBLIC_GIST);
-
         given().
+                spec(unauthorized).
                 contentType(ContentType.JSON).
-                body(file).
+                body(GistPayload.CREATE_PUBLIC_GIST.bytes()).
                 when().
                 post().
                 then().
@@ -54,6 +79,7 @@ class UnauthorizedGistTest {
     @DisplayName("unauthorized user reads public gist")
     void readGist() {
         given().
+                spec(unauthorized).
                 when().
                 get(gistTestConfiguration.getPublicGistId()).
                 then().
@@ -73,6 +99,7 @@ class UnauthorizedGistTest {
     @DisplayName("unauthorized user reads list of his starred gists")
     void readStarredGists() {
         given().
+                spec(unauthorized).
                 when().
                 get("/starred").
                 then().
@@ -87,11 +114,10 @@ class UnauthorizedGistTest {
     @Order(4)
     @DisplayName("unauthorized user updates public gist")
     void updateGist() {
-        File JSON = new File(GistTestConfigurationConstants.FILEPATH_UPDATE_SECRET_GIST);
-
         given().
+                spec(unauthorized).
                 contentType(ContentType.JSON).
-                body(JSON).
+                body(GistPayload.UPDATE_SECRET_GIST.bytes()).
                 when().
                 patch(gistTestConfiguration.getPublicGistId()).
                 then().
@@ -106,6 +132,7 @@ class UnauthorizedGistTest {
     @DisplayName("unauthorized user deletes public gist")
     void givenUnauthorizedUser_whenDeletesGist_then404NotFound() {
         given().
+                spec(unauthorized).
                 when().
                 delete(gistTestConfiguration.getPublicGistId()).
                 then().
@@ -120,15 +147,25 @@ class UnauthorizedGistTest {
     @Order(6)
     @DisplayName("unauthorized user reads list of his gists ")
     void readListOfGists() {
-        given().
+        Response response = given().
+                spec(unauthorized).
+                // body is not cached, so it is parsed from the connection
+                header("Cache-Control", "no-store").
                 when().
                 get().
                 then().
                 assertThat().
                 statusCode(200).
-                and().
-                // check that we don't receive our secret gist
-                        body("files.'newSecretGistFile.txt'.filename[0]", equalTo(null));
+                extract().response();
+
+        // check that we don't receive our secret gist
+        assertThatJson().
+                path("/0/files/newSecretGistFile.txt/filename", equalTo(null)).
+                verify(response.asInputStream());
+
+        // list of public gists contains gists of all users, so only the newest pages are checked
+        Set<String> ids = GistPages.of(unauthorized, "").maxPages(PUBLIC_LIST_PAGES).ids();
+        assertThat(ids, not(hasItem(gistTestConfiguration.getSecretGistId())));
     }
 
     /**
@@ -139,6 +176,7 @@ class UnauthorizedGistTest {
     @DisplayName("unauthorized user stars his public gist")
     void starPublicGist() {
         given().
+                spec(unauthorized).
                 when().
                 put(gistTestConfiguration.getPublicGistId() + "/star").
                 then().
@@ -152,14 +190,15 @@ class UnauthorizedGistTest {
     @Order(8)
     @DisplayName("unauthorized user checks gist forks")
     void checkGistForks() {
+        // fork is created asynchronously by test configuration, it must exist before the list is read
+        String forkedGistId = gistTestConfiguration.getForkedGistId();
         given().
-                auth().
-                oauth2(gistTestConfiguration.getAccessToken()).
+                spec(authorized).
                 when().
                 get(GistTestConfigurationConstants.ID_OF_GIST_FOR_FORK + "/forks").
                 then().
                 assertThat().statusCode(200).
-                body("id[0]", equalTo(gistTestConfiguration.getForkedGistId()));
+                body("id[0]", equalTo(forkedGistId));
     }
 
     /**
@@ -170,6 +209,7 @@ class UnauthorizedGistTest {
     @DisplayName("unauthorized user has a rate limit of 60 calls")
     void checkRateLimiting() {
         given().
+                spec(unauthorized).
                 when().
                 get().
                 then().
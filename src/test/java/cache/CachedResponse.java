@@ -0,0 +1,54 @@
+package cache;
+
+import io.restassured.http.Headers;
+
+/**
+ * Response stored in cache with validators which are sent in conditional request
+ */
+class CachedResponse {
+
+    private final String statusLine;
+
+    private final Headers headers;
+
+    private final String contentType;
+
+    private final byte[] body;
+
+    private final String etag;
+
+    private final String lastModified;
+
+    CachedResponse(String statusLine, Headers headers, String contentType, byte[] body) {
+        this.statusLine = statusLine;
+        this.headers = headers;
+        this.contentType = contentType;
+        this.body = body;
+        this.etag = headers.getValue("ETag");
+        this.lastModified = headers.getValue("Last-Modified");
+    }
+
+    String getStatusLine() {
+        return statusLine;
+    }
+
+    Headers getHeaders() {
+        return headers;
+    }
+
+    String getContentType() {
+        return contentType;
+    }
+
+    byte[] getBody() {
+        return body;
+    }
+
+    String getEtag() {
+        return etag;
+    }
+
+    String getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,147 @@
+package cache;
+
+import config.RequestCredential;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import metrics.EndpointMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client-side HTTP cache of GET responses which have ETag or Last-Modified
+ * Cached responses are always revalidated with If-None-Match and If-Modified-Since, so a changed gist
+ * is never served from cache, and 304 Not Modified is replaced by the cached response
+ * Cache is bounded by system properties gist.cache.maxEntries and gist.cache.maxBytes
+ * and can be disabled with gist.cache.enabled=false
+ * Requests with Cache-Control: no-store bypass the cache, so their body is read by the caller from the connection
+ */
+public class ConditionalGetFilter implements OrderedFilter {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("gist.cache.enabled", "true"));
+
+    private static final ResponseCache CACHE = new ResponseCache(
+            Integer.getInteger("gist.cache.maxEntries", 1000),
+            Long.getLong("gist.cache.maxBytes", 32L * 1024 * 1024));
+
+    private static final AtomicLong HITS = new AtomicLong();
+
+    private static final AtomicLong MISSES = new AtomicLong();
+
+    private static final AtomicLong NOT_MODIFIED = new AtomicLong();
+
+    static {
+        EndpointMetrics.addGauge("cacheHits", HITS::get);
+        EndpointMetrics.addGauge("cacheMisses", MISSES::get);
+        EndpointMetrics.addGauge("cacheNotModified", NOT_MODIFIED::get);
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (!ENABLED || !"GET".equals(requestSpec.getMethod()) || noStore(requestSpec)) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+
+        String key = RequestCredential.of(requestSpec) + " " + requestSpec.getURI();
+        CachedResponse cached = CACHE.get(key);
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                requestSpec.header("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                requestSpec.header("If-Modified-Since", cached.getLastModified());
+            }
+        }
+
+        Response response = ctx.next(requestSpec, responseSpec);
+
+        if (response.getStatusCode() == 304) {
+            NOT_MODIFIED.incrementAndGet();
+            if (cached != null) {
+                HITS.incrementAndGet();
+                return fromCache(response, cached);
+            }
+            return response;
+        }
+
+        MISSES.incrementAndGet();
+        if (response.getStatusCode() == 200
+                && (response.getHeader("ETag") != null || response.getHeader("Last-Modified") != null)) {
+            CACHE.put(key, new CachedResponse(response.getStatusLine(), response.getHeaders(),
+                    response.getContentType(), response.asByteArray()));
+        } else {
+            CACHE.remove(key);
+        }
+        return response;
+    }
+
+    private static boolean noStore(FilterableRequestSpecification requestSpec) {
+        String cacheControl = requestSpec.getHeaders().getValue("Cache-Control");
+        return cacheControl != null && cacheControl.toLowerCase(Locale.ROOT).contains("no-store");
+    }
+
+    /**
+     * Filter runs after latency is measured, so 304 responses are counted with their real latency
+     */
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE + 2;
+    }
+
+    /**
+     * Get number of responses served from cache after 304 Not Modified
+     *
+     * @return number of cache hits
+     */
+    public static long hits() {
+        return HITS.get();
+    }
+
+    /**
+     * Get number of GET responses which were downloaded with body
+     *
+     * @return number of cache misses
+     */
+    public static long misses() {
+        return MISSES.get();
+    }
+
+    /**
+     * Get number of received 304 Not Modified responses
+     *
+     * @return number of 304 responses
+     */
+    public static long notModified() {
+        return NOT_MODIFIED.get();
+    }
+
+    /**
+     * Build response from cached one, headers of 304 response such as rate limit replace cached ones
+     */
+    private static Response fromCache(Response notModified, CachedResponse cached) {
+        List<Header> headers = new ArrayList<>(notModified.getHeaders().asList());
+        for (Header header : cached.getHeaders()) {
+            if (!notModified.getHeaders().hasHeaderWithName(header.getName())) {
+                headers.add(header);
+            }
+        }
+
+        return new ResponseBuilder().
+                clone(notModified).
+                setStatusCode(200).
+                setStatusLine(cached.getStatusLine()).
+                setHeaders(new Headers(headers)).
+                setContentType(cached.getContentType()).
+                setBody(cached.getBody()).
+                build();
+    }
+}
@@ -0,0 +1,54 @@
+package cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used responses, bounded by number of entries and total size of bodies
+ */
+class ResponseCache {
+
+    private final int maxEntries;
+
+    private final long maxBytes;
+
+    private final LinkedHashMap<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long bytes;
+
+    ResponseCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized CachedResponse get(String key) {
+        return entries.get(key);
+    }
+
+    synchronized void put(String key, CachedResponse response) {
+        if (response.getBody().length > maxBytes) {
+            remove(key);
+            return;
+        }
+
+        CachedResponse previous = entries.put(key, response);
+        if (previous != null) {
+            bytes -= previous.getBody().length;
+        }
+        bytes += response.getBody().length;
+
+        Iterator<Map.Entry<String, CachedResponse>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries || bytes > maxBytes) {
+            bytes -= eldest.next().getValue().getBody().length;
+            eldest.remove();
+        }
+    }
+
+    synchronized void remove(String key) {
+        CachedResponse previous = entries.remove(key);
+        if (previous != null) {
+            bytes -= previous.getBody().length;
+        }
+    }
+}
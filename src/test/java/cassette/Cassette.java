@@ -0,0 +1,141 @@
+package cassette;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recorded HTTP interactions stored in two files: &lt;name&gt;.json index with normalized request keys,
+ * statuses, headers and positions of bodies, and &lt;name&gt;.bodies with all bodies one after another
+ * Replay keeps only the index in heap, bodies are read from memory-mapped file when response is served
+ */
+class Cassette {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final TypeReference<List<Interaction>> INTERACTIONS = new TypeReference<List<Interaction>>() {
+    };
+
+    private Cassette() {
+    }
+
+    static Path indexFile(Path cassette) {
+        return Paths.get(cassette + ".json");
+    }
+
+    static Path bodiesFile(Path cassette) {
+        return Paths.get(cassette + ".bodies");
+    }
+
+    /**
+     * Appends interactions to a new cassette, index is written by {@link #close()}
+     */
+    static class Recorder implements AutoCloseable {
+
+        private final Path cassette;
+
+        private final FileChannel bodies;
+
+        private final List<Interaction> interactions = new ArrayList<>();
+
+        private final Map<String, Integer> sequences = new HashMap<>();
+
+        private long position;
+
+        Recorder(Path cassette) throws IOException {
+            this.cassette = cassette;
+            Files.createDirectories(cassette.toAbsolutePath().getParent());
+            this.bodies = FileChannel.open(bodiesFile(cassette), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        /**
+         * Reserve number of request before it is sent, so requests with the same key are replayed
+         * in order they were sent and not in order their responses were received
+         */
+        synchronized int reserve(String key) {
+            return sequences.merge(key, 1, Integer::sum) - 1;
+        }
+
+        synchronized void record(String key, int sequence, int status, Map<String, String> headers, byte[] body)
+                throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(body);
+            while (buffer.hasRemaining()) {
+                bodies.write(buffer);
+            }
+            interactions.add(new Interaction(key, sequence, status, headers, position, body.length));
+            position += body.length;
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            bodies.close();
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(indexFile(cassette).toFile(), interactions);
+        }
+    }
+
+    /**
+     * Serves recorded interactions, interactions with the same key are served in recorded order
+     * and the last one is repeated when all of them were served
+     */
+    static class Player {
+
+        private final Map<String, List<Interaction>> interactions = new HashMap<>();
+
+        private final Map<String, AtomicInteger> cursors = new HashMap<>();
+
+        private final MappedByteBuffer bodies;
+
+        Player(Path cassette) {
+            try {
+                for (Interaction interaction : MAPPER.readValue(indexFile(cassette).toFile(), INTERACTIONS)) {
+                    interactions.computeIfAbsent(interaction.getKey(), key -> new ArrayList<>()).add(interaction);
+                    cursors.computeIfAbsent(interaction.getKey(), key -> new AtomicInteger());
+                }
+                interactions.values().forEach(recorded ->
+                        recorded.sort(Comparator.comparingInt(Interaction::getSequence)));
+                try (FileChannel channel = FileChannel.open(bodiesFile(cassette), StandardOpenOption.READ)) {
+                    bodies = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to load cassette " + cassette, e);
+            }
+        }
+
+        /**
+         * @param key normalized request key
+         * @return next interaction with this key or null if nothing was recorded
+         */
+        Interaction next(String key) {
+            List<Interaction> recorded = interactions.get(key);
+            if (recorded == null) {
+                return null;
+            }
+            int index = cursors.get(key).getAndIncrement();
+            return recorded.get(Math.min(index, recorded.size() - 1));
+        }
+
+        byte[] body(Interaction interaction) {
+            byte[] body = new byte[interaction.getLength()];
+            ByteBuffer slice = bodies.duplicate();
+            slice.position((int) interaction.getOffset());
+            slice.get(body);
+            return body;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package cassette;
+
+import config.GistTestConfigurationConstants;
+import config.RequestCredential;
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Records all requests and responses to a cassette or replays them from it without network
+ * Mode is set with system property gist.cassette=record|replay, cassette is
+ * src/test/resources/cassettes/gists by default and can be changed with gist.cassette.file
+ * Filter is the last one before network, so rate limit, latency and cache filters work the same way in replay
+ */
+public class CassetteFilter implements OrderedFilter {
+
+    private static final String MODE = System.getProperty("gist.cassette", "off");
+
+    private static final Path CASSETTE = Paths.get(
+            System.getProperty("gist.cassette.file", "src/test/resources/cassettes/gists"));
+
+    /**
+     * Only headers which tests and filters use are recorded, others such as Date are volatile
+     */
+    private static final String[] RECORDED_HEADERS = {"Content-Type", "ETag", "Last-Modified", "Link", "Location",
+            "X-RateLimit-Limit", "X-RateLimit-Remaining", "X-RateLimit-Reset"};
+
+    /**
+     * Query parameters which are never written to cassette
+     */
+    private static final Pattern SECRET_PARAMETERS = Pattern.compile("([?&](?:client_secret|access_token)=)[^&#]*");
+
+    /**
+     * Credentials are told apart by 8 bytes of their SHA-256
+     */
+    private static final int CREDENTIAL_HASH_BYTES = 8;
+
+    private static final CassetteNormalizer NORMALIZER =
+            new CassetteNormalizer(GistTestConfigurationConstants.GITHUB_API);
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        switch (MODE) {
+            case "record":
+                return record(requestSpec, responseSpec, ctx);
+            case "replay":
+                return replay(requestSpec);
+            default:
+                return ctx.next(requestSpec, responseSpec);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return LOWEST_PRECEDENCE;
+    }
+
+    private static Response record(FilterableRequestSpecification requestSpec,
+                                   FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        String key = key(requestSpec);
+        int sequence = Recording.RECORDER.reserve(key);
+        Response response = ctx.next(requestSpec, responseSpec);
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (String name : RECORDED_HEADERS) {
+            String value = response.getHeader(name);
+            if (value != null) {
+                // reset time of recorded window is always in the past when cassette is replayed
+                headers.put(name, name.equals("X-RateLimit-Reset") ? "0" : NORMALIZER.normalizeResponse(value));
+            }
+        }
+        byte[] body = NORMALIZER.normalizeResponse(new String(response.asByteArray(), StandardCharsets.UTF_8)).
+                getBytes(StandardCharsets.UTF_8);
+        try {
+            Recording.RECORDER.record(key, sequence, response.getStatusCode(), headers, body);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to record " + key, e);
+        }
+        return response;
+    }
+
+    private static Response replay(FilterableRequestSpecification requestSpec) {
+        String key = key(requestSpec);
+        Interaction interaction = Replay.PLAYER.next(key);
+        if (interaction == null) {
+            throw new IllegalStateException("Cassette " + CASSETTE + " has no interaction " + key);
+        }
+
+        List<Header> headers = new ArrayList<>();
+        interaction.getHeaders().forEach((name, value) -> headers.add(new Header(name, value)));
+        String contentType = interaction.getHeaders().get("Content-Type");
+        return new ResponseBuilder().
+                setStatusCode(interaction.getStatus()).
+                setStatusLine("HTTP/1.1 " + interaction.getStatus()).
+                setHeaders(new Headers(headers)).
+                setContentType(contentType != null ? contentType : "").
+                setBody(Replay.PLAYER.body(interaction)).
+                build();
+    }
+
+    /**
+     * Build normalized key of request: method, URI, credential and checksum of body
+     */
+    private static String key(FilterableRequestSpecification requestSpec) {
+        return key(requestSpec.getMethod(), requestSpec.getURI(), RequestCredential.of(requestSpec),
+                requestSpec.getBody());
+    }
+
+    /**
+     * Key is written to cassette index, so secret query parameters are redacted and credential is replaced
+     * with hash of its normalized value, which is the same when cassette is replayed
+     */
+    static String key(String method, String uri, String credential, Object body) {
+        // streamed body can be read only once, such requests are told apart by their order
+        String text = body instanceof byte[] ? new String((byte[]) body, StandardCharsets.UTF_8)
+                : body instanceof InputStream ? "stream" : body != null ? body.toString() : "";
+        CRC32 checksum = new CRC32();
+        checksum.update(NORMALIZER.normalizeRequest(text).getBytes(StandardCharsets.UTF_8));
+
+        return method + " " + NORMALIZER.normalizeRequest(SECRET_PARAMETERS.matcher(uri).replaceAll("$1redacted"))
+                + " " + hash(NORMALIZER.normalizeRequest(credential)) + " " + Long.toHexString(checksum.getValue());
+    }
+
+    private static String hash(String credential) {
+        if (credential.equals("unauthenticated")) {
+            return credential;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(credential.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hash = new StringBuilder("credential-");
+            for (int i = 0; i < CREDENTIAL_HASH_BYTES; i++) {
+                hash.append(Character.forDigit((digest[i] >> 4) & 0xF, 16))
+                        .append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Recorder is opened on first request and index is written when JVM exits
+     */
+    private static class Recording {
+
+        private static final Cassette.Recorder RECORDER = open();
+
+        private static Cassette.Recorder open() {
+            try {
+                Cassette.Recorder recorder = new Cassette.Recorder(CASSETTE);
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    try {
+                        recorder.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to write cassette " + CASSETTE, e);
+                    }
+                }, "gist-cassette-writer"));
+                return recorder;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to create cassette " + CASSETTE, e);
+            }
+        }
+    }
+
+    /**
+     * Cassette is loaded on first replayed request
+     */
+    private static class Replay {
+
+        private static final Cassette.Player PLAYER = new Cassette.Player(CASSETTE);
+    }
+}
@@ -0,0 +1,64 @@
+package cassette;
+
+import config.GistTestConfigurationConstants;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests of request keys which are written to cassette index, no API is called
+ */
+class CassetteFilterTest {
+
+    private static final String BASIC_CREDENTIALS = "dXNlcjpwYXNzd29yZA==";
+
+    private static final String TOKEN = "0123456789abcdef0123456789abcdef01234567";
+
+    private static final String CLIENT_URI = GistTestConfigurationConstants.GITHUB_API + "/gists?client_id="
+            + GistTestConfigurationConstants.CLIENT_ID + "&client_secret=" + GistTestConfigurationConstants.CLIENT_SECRET;
+
+    @Test
+    @DisplayName("written index contains no credentials, client secret or access token")
+    void indexHasNoSecrets(@TempDir Path directory) throws IOException {
+        Path cassette = directory.resolve("gists");
+        try (Cassette.Recorder recorder = new Cassette.Recorder(cassette)) {
+            record(recorder, CassetteFilter.key("POST", GistTestConfigurationConstants.GITHUB_API + "/authorizations",
+                    "Basic " + BASIC_CREDENTIALS, null));
+            record(recorder, CassetteFilter.key("GET", CLIENT_URI, "client " + GistTestConfigurationConstants.CLIENT_ID,
+                    null));
+            record(recorder, CassetteFilter.key("GET", GistTestConfigurationConstants.GITHUB_API
+                    + "/gists?access_token=" + TOKEN + "&page=2", "token " + TOKEN, null));
+        }
+
+        String index = new String(Files.readAllBytes(Cassette.indexFile(cassette)), StandardCharsets.UTF_8);
+        assertThat(index, not(containsString(BASIC_CREDENTIALS)));
+        assertThat(index, not(containsString(GistTestConfigurationConstants.CLIENT_SECRET)));
+        assertThat(index, not(containsString(TOKEN)));
+        assertThat(index, containsString("client_secret=redacted"));
+        assertThat(index, containsString("access_token=redacted&page=2"));
+    }
+
+    @Test
+    @DisplayName("requests with the same credential have the same key, other credentials have other keys")
+    void credentialIsToldApartByHash() {
+        String key = CassetteFilter.key("GET", CLIENT_URI, "token " + TOKEN, null);
+        assertThat(CassetteFilter.key("GET", CLIENT_URI, "token " + TOKEN, null), equalTo(key));
+        assertThat(CassetteFilter.key("GET", CLIENT_URI, "token " + TOKEN.replace('0', '1'), null), not(equalTo(key)));
+        assertThat(CassetteFilter.key("GET", CLIENT_URI, "unauthenticated", null), containsString(" unauthenticated "));
+    }
+
+    private static void record(Cassette.Recorder recorder, String key) throws IOException {
+        recorder.record(key, recorder.reserve(key), 200, Collections.emptyMap(), new byte[0]);
+    }
+}
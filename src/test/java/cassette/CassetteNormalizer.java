@@ -0,0 +1,78 @@
+package cassette;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Replaces volatile values of recorded traffic with deterministic ones:
+ * gist IDs (32 hex digits) and access tokens (40 hex digits) which first appear in a response
+ * are replaced with sequential fake values of the same shape, timestamps are replaced with a fixed one
+ * and URI of recorded API is replaced with https://api.github.com
+ * Values which first appear in a request, e.g. ID of gist for fork, are kept as is
+ * Replayed responses already contain fake values, so client sends them back and requests match without rewriting
+ */
+class CassetteNormalizer {
+
+    static final String CANONICAL_API = "https://api.github.com";
+
+    private static final Pattern HEX_ID = Pattern.compile("\\b(?:[0-9a-f]{40}|[0-9a-f]{32})\\b");
+
+    private static final Pattern TIMESTAMP = Pattern.compile("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}Z");
+
+    private static final String FIXED_TIMESTAMP = "2019-10-01T00:00:00Z";
+
+    private final String api;
+
+    private final ConcurrentMap<String, String> replacements = new ConcurrentHashMap<>();
+
+    private final AtomicLong fakeIds = new AtomicLong();
+
+    /**
+     * @param api URI of API which traffic is normalized
+     */
+    CassetteNormalizer(String api) {
+        this.api = api;
+    }
+
+    /**
+     * Normalize request text, new hex values are kept as is
+     */
+    String normalizeRequest(String text) {
+        return normalize(text, false);
+    }
+
+    /**
+     * Normalize response text, new hex values are replaced with fake ones
+     */
+    String normalizeResponse(String text) {
+        return normalize(text, true);
+    }
+
+    private String normalize(String text, boolean response) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        String result = text.replace(api, CANONICAL_API);
+        result = TIMESTAMP.matcher(result).replaceAll(FIXED_TIMESTAMP);
+
+        Matcher matcher = HEX_ID.matcher(result);
+        if (!matcher.find()) {
+            return result;
+        }
+        StringBuffer normalized = new StringBuffer(result.length());
+        do {
+            String value = matcher.group();
+            String replacement = replacements.computeIfAbsent(value, key -> response ? fake(key.length()) : key);
+            matcher.appendReplacement(normalized, replacement);
+        } while (matcher.find());
+        matcher.appendTail(normalized);
+        return normalized.toString();
+    }
+
+    private String fake(int length) {
+        return String.format("%0" + length + "x", fakeIds.incrementAndGet());
+    }
+}
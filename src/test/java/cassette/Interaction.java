@@ -0,0 +1,91 @@
+package cassette;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Entry of cassette index: normalized request key and response whose body is stored in the bodies file
+ */
+public class Interaction {
+
+    private String key;
+
+    private int sequence;
+
+    private int status;
+
+    private Map<String, String> headers = new LinkedHashMap<>();
+
+    private long offset;
+
+    private int length;
+
+    public Interaction() {
+    }
+
+    Interaction(String key, int sequence, int status, Map<String, String> headers, long offset, int length) {
+        this.key = key;
+        this.sequence = sequence;
+        this.status = status;
+        this.headers = headers;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    /**
+     * @return number of request among requests with the same key in order they were sent
+     */
+    public int getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(int sequence) {
+        this.sequence = sequence;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    public void setHeaders(Map<String, String> headers) {
+        this.headers = headers;
+    }
+
+    /**
+     * @return position of body in bodies file
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    public void setOffset(long offset) {
+        this.offset = offset;
+    }
+
+    /**
+     * @return size of body in bytes
+     */
+    public int getLength() {
+        return length;
+    }
+
+    public void setLength(int length) {
+        this.length = length;
+    }
+}
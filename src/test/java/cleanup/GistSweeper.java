@@ -0,0 +1,190 @@
+package cleanup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import config.GistRequestSpecifications;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import pagination.GistPages;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Deletes gists left by tests from user's account
+ * The whole list is read first, so deletions don't shift pages, then matching gists are deleted by
+ * gist.sweep.concurrency threads (8 by default)
+ * Sweep can be limited by age of gists, see {@link #withAge(Duration, Duration)}, so it doesn't delete live fixtures
+ * of concurrent runs and doesn't read the whole list of a large account
+ * Requests are paced by rate limit filter of the specification, deletions which hit secondary rate limit or
+ * server error are retried gist.sweep.retries times after Retry-After or exponential backoff
+ */
+public final class GistSweeper {
+
+    private static final int CONCURRENCY = Integer.getInteger("gist.sweep.concurrency", 8);
+
+    private static final int RETRIES = Integer.getInteger("gist.sweep.retries", 3);
+
+    private static final long INITIAL_BACKOFF_MILLIS = 1000;
+
+    private static final long MAX_BACKOFF_MILLIS = 60_000;
+
+    private final RequestSpecification authorized;
+
+    private final SweepMarkers markers;
+
+    private Duration minAge = Duration.ZERO;
+
+    private Duration maxAge;
+
+    /**
+     * @param accessToken access token of owner of gists
+     * @param markers     markers of gists to delete
+     */
+    public GistSweeper(String accessToken, SweepMarkers markers) {
+        this.authorized = GistRequestSpecifications.authorized(accessToken);
+        this.markers = markers;
+    }
+
+    /**
+     * Delete only gists created between maxAge and minAge ago
+     * List is ordered from the newest gist, so listing stops at the first gist not updated since maxAge:
+     * the following gists were updated, and therefore created, even earlier
+     *
+     * @param minAge younger gists may be fixtures of running tests and are kept
+     * @param maxAge older gists are not listed, null to list all of them
+     * @return this sweeper
+     */
+    public GistSweeper withAge(Duration minAge, Duration maxAge) {
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        return this;
+    }
+
+    /**
+     * Find and delete all gists with markers
+     *
+     * @return numbers of found, deleted and failed gists
+     */
+    public SweepReport sweep() {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        Instant createdBefore = now.minus(minAge);
+        Instant listedAfter = maxAge == null ? null : now.minus(maxAge);
+        List<String> ids = new ArrayList<>();
+        int listed = 0;
+        for (JsonNode gist : GistPages.of(authorized, "")) {
+            if (listedAfter != null && timestamp(gist, "updated_at").isBefore(listedAfter)) {
+                break;
+            }
+            listed++;
+            if (markers.matches(gist) && timestamp(gist, "created_at").isBefore(createdBefore)) {
+                ids.add(gist.path("id").asText());
+            }
+        }
+
+        AtomicInteger removed = new AtomicInteger();
+        AtomicInteger missing = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        if (!ids.isEmpty()) {
+            ExecutorService executor = createExecutor(Math.min(CONCURRENCY, ids.size()));
+            try {
+                CompletableFuture<?>[] deletions = new CompletableFuture<?>[ids.size()];
+                for (int i = 0; i < ids.size(); i++) {
+                    String id = ids.get(i);
+                    deletions[i] = CompletableFuture.runAsync(() -> {
+                        switch (delete(id)) {
+                            case 204:
+                                removed.incrementAndGet();
+                                break;
+                            case 404:
+                                missing.incrementAndGet();
+                                break;
+                            default:
+                                failed.incrementAndGet();
+                        }
+                    }, executor);
+                }
+                CompletableFuture.allOf(deletions).join();
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        return new SweepReport(listed, ids.size(), removed.get(), missing.get(), failed.get(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Delete gist with retries
+     *
+     * @return status of the last attempt, -1 if it failed without response
+     */
+    private int delete(String id) {
+        int status = -1;
+        long backoff = INITIAL_BACKOFF_MILLIS;
+        for (int attempt = 0; attempt <= RETRIES; attempt++) {
+            Response response;
+            try {
+                response = given().spec(authorized).when().delete(id);
+            } catch (RuntimeException e) {
+                status = -1;
+                sleep(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+                continue;
+            }
+            status = response.getStatusCode();
+            if (!isRetryable(response)) {
+                return status;
+            }
+            String retryAfter = response.getHeader("Retry-After");
+            sleep(retryAfter != null && retryAfter.matches("\\d+")
+                    ? TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter)) : backoff);
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MILLIS);
+        }
+        return status;
+    }
+
+    /**
+     * Gist without timestamp is treated as the oldest one
+     */
+    private static Instant timestamp(JsonNode gist, String field) {
+        JsonNode value = gist.path(field);
+        return value.isTextual() ? Instant.parse(value.asText()) : Instant.EPOCH;
+    }
+
+    /**
+     * Secondary rate limit is reported with 403 and Retry-After, primary one with 403 and no remaining calls
+     */
+    private static boolean isRetryable(Response response) {
+        int status = response.getStatusCode();
+        return status == 429 || status >= 500
+                || status == 403 && (response.getHeader("Retry-After") != null
+                || "0".equals(response.getHeader("X-RateLimit-Remaining")));
+    }
+
+    private static ExecutorService createExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "gist-sweeper-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry deletion", e);
+        }
+    }
+}
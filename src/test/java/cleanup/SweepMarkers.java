@@ -0,0 +1,128 @@
+package cleanup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import config.GistPayload;
+import config.GistRequestSpecifications;
+import config.GistTestConfigurationConstants;
+import contention.StarContention;
+import io.restassured.response.Response;
+import largefile.StreamedGist;
+import seed.GistSeeder;
+import shape.GistShape;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Markers of gists created by tests: descriptions, description prefixes, file names and forked gists
+ * Gist matches if it has any marker
+ */
+public final class SweepMarkers {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Payloads which create or rename gists and files
+     */
+    private static final GistPayload[] FIXTURE_PAYLOADS = {GistPayload.CREATE_PUBLIC_GIST,
+            GistPayload.CREATE_SECRET_GIST, GistPayload.UPDATE_PUBLIC_GIST, GistPayload.UPDATE_SECRET_GIST,
+            GistPayload.CREATE_NEW_GIST_FILE};
+
+    private final Set<String> descriptions = new HashSet<>();
+
+    private final Set<String> descriptionPrefixes = new HashSet<>();
+
+    private final Set<String> filenames = new HashSet<>();
+
+    private final Set<String> forkOf = new HashSet<>();
+
+    private SweepMarkers() {
+    }
+
+    /**
+     * Markers of gists created by fixtures, large file, shape, contention and load tests: descriptions and file
+     * names of payloads, descriptions of {@link StreamedGist}, {@link GistShape} and {@link StarContention}
+     * and forks of {@link GistTestConfigurationConstants#ID_OF_GIST_FOR_FORK}
+     * List of gists doesn't contain fork_of, so forks are also recognized by file names of the forked gist
+     *
+     * @return markers of fixtures
+     */
+    public static SweepMarkers fixtures() {
+        SweepMarkers markers = new SweepMarkers();
+        for (GistPayload payload : FIXTURE_PAYLOADS) {
+            JsonNode body = read(payload);
+            if (body.hasNonNull("description")) {
+                markers.descriptions.add(body.get("description").asText());
+            }
+            Iterator<String> names = body.path("files").fieldNames();
+            while (names.hasNext()) {
+                String name = names.next();
+                markers.filenames.add(name);
+                JsonNode renamed = body.path("files").path(name).path("filename");
+                if (renamed.isTextual()) {
+                    markers.filenames.add(renamed.asText());
+                }
+            }
+        }
+
+        markers.descriptionPrefixes.add(StreamedGist.DESCRIPTION_MARKER);
+        markers.descriptionPrefixes.add(GistShape.DESCRIPTION_MARKER);
+        markers.descriptionPrefixes.add(StarContention.DESCRIPTION_MARKER);
+        markers.forkOf.add(GistTestConfigurationConstants.ID_OF_GIST_FOR_FORK);
+        Response forked = given().
+                spec(GistRequestSpecifications.unauthorized()).
+                when().
+                get(GistTestConfigurationConstants.ID_OF_GIST_FOR_FORK);
+        if (forked.getStatusCode() == 200) {
+            markers.filenames.addAll(forked.jsonPath().<String, Object>getMap("files").keySet());
+        }
+        return markers;
+    }
+
+    /**
+     * Add markers of gists created by {@link GistSeeder}
+     *
+     * @return this markers
+     */
+    public SweepMarkers withSeeded() {
+        descriptionPrefixes.add(GistSeeder.DESCRIPTION_MARKER);
+        return this;
+    }
+
+    /**
+     * @param gist gist from list of gists
+     * @return true if gist has any marker
+     */
+    public boolean matches(JsonNode gist) {
+        String description = gist.path("description").asText("");
+        if (descriptions.contains(description) || forkOf.contains(gist.path("fork_of").path("id").asText())) {
+            return true;
+        }
+        for (String prefix : descriptionPrefixes) {
+            if (description.startsWith(prefix)) {
+                return true;
+            }
+        }
+        Iterator<String> names = gist.path("files").fieldNames();
+        while (names.hasNext()) {
+            if (filenames.contains(names.next())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static JsonNode read(GistPayload payload) {
+        try {
+            return MAPPER.readTree(payload.bytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to parse " + payload, e);
+        }
+    }
+}
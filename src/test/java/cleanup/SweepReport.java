@@ -0,0 +1,99 @@
+package cleanup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Result of one sweep: how many gists were listed, found and removed and how fast
+ */
+public class SweepReport {
+
+    private final int listed;
+
+    private final int found;
+
+    private final int removed;
+
+    private final int missing;
+
+    private final int failed;
+
+    private final long elapsedMillis;
+
+    SweepReport(int listed, int found, int removed, int missing, int failed, long elapsedMillis) {
+        this.listed = listed;
+        this.found = found;
+        this.removed = removed;
+        this.missing = missing;
+        this.failed = failed;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return number of gists read from the list
+     */
+    public int getListed() {
+        return listed;
+    }
+
+    /**
+     * @return number of gists with markers
+     */
+    public int getFound() {
+        return found;
+    }
+
+    /**
+     * @return number of deleted gists
+     */
+    public int getRemoved() {
+        return removed;
+    }
+
+    /**
+     * @return number of gists which were already deleted by someone else
+     */
+    public int getMissing() {
+        return missing;
+    }
+
+    /**
+     * @return number of gists which were not deleted after all retries
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return deleted gists per second including listing
+     */
+    public double getRemovedPerSecond() {
+        return elapsedMillis == 0 ? 0 : removed * 1000.0 / elapsedMillis;
+    }
+
+    /**
+     * Write report as JSON
+     *
+     * @param file file to write
+     */
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().
+                enable(SerializationFeature.INDENT_OUTPUT).
+                writeValue(file.toFile(), this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Swept %d of %d test gists among %d listed in %d ms (%.1f/s), %d already missing, "
+                + "%d failed", removed, found, listed, elapsedMillis, getRemovedPerSecond(), missing, failed);
+    }
+}
@@ -0,0 +1,170 @@
+package config;
+
+import stub.LocalGistApi;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileAttribute;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import java.util.function.Supplier;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Keeps access tokens on disk, so test runs and JVMs reuse one authorization instead of creating a new one
+ * Tokens are kept in ~/.gists-api-tests/tokens.properties (gist.token.file) readable only by the owner,
+ * key is a hash of API URI and credentials. Cached token is checked with GET /rate_limit which doesn't count
+ * against rate limit and is replaced only if it gets 401
+ * JVMs are serialized by file lock, so concurrent runs authorize once
+ * Cache is disabled with gist.token.cache=false and when cassette is recorded or replayed,
+ * because recorded requests must contain the token received in the same run
+ * Tokens of the local stand-in live only as long as its JVM, so for it cache is off unless enabled explicitly
+ */
+final class AccessTokenCache {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("gist.token.cache",
+            String.valueOf(!LocalGistApi.LOCAL.equals(System.getProperty("gist.api")))))
+            && "off".equals(System.getProperty("gist.cassette", "off"));
+
+    private static final Path FILE = Paths.get(System.getProperty("gist.token.file",
+            Paths.get(System.getProperty("user.home"), ".gists-api-tests", "tokens.properties").toString()));
+
+    private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
+    private AccessTokenCache() {
+    }
+
+    /**
+     * Get cached token if it is still valid, otherwise get new one and cache it
+     *
+     * @param authorize request of new token
+     * @return access token
+     */
+    static String get(Supplier<String> authorize) {
+        if (!ENABLED) {
+            return authorize.get();
+        }
+        String key = key();
+        try {
+            createDirectory(FILE.getParent());
+            Path lockFile = FILE.resolveSibling(FILE.getFileName() + ".lock");
+            try (FileChannel lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE)) {
+                FileLock lock = lockChannel.lock();
+                try {
+                    Properties tokens = read();
+                    String token = tokens.getProperty(key);
+                    if (token != null && isValid(token)) {
+                        return token;
+                    }
+                    token = authorize.get();
+                    tokens.setProperty(key, token);
+                    write(tokens);
+                    return token;
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to use token cache " + FILE, e);
+        }
+    }
+
+    /**
+     * Token is valid unless GitHub rejects it, other errors are left to tests
+     */
+    private static boolean isValid(String token) {
+        return given().
+                spec(GistRequestSpecifications.authorized(token)).
+                when().
+                get(GistTestConfigurationConstants.GITHUB_API + "/rate_limit").
+                getStatusCode() != 401;
+    }
+
+    private static Properties read() throws IOException {
+        Properties tokens = new Properties();
+        if (Files.exists(FILE)) {
+            try (InputStream in = Files.newInputStream(FILE)) {
+                tokens.load(in);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Write to temporary file with owner-only permissions and replace cache with it
+     */
+    private static void write(Properties tokens) throws IOException {
+        Path temporary = POSIX
+                ? Files.createTempFile(FILE.getParent(), "tokens", ".tmp",
+                PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")))
+                : Files.createTempFile(FILE.getParent(), "tokens", ".tmp");
+        try {
+            if (!POSIX) {
+                ownerOnly(temporary, false);
+            }
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                tokens.store(out, "Access tokens of GistsAPItests");
+            }
+            Files.move(temporary, FILE, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private static void createDirectory(Path directory) throws IOException {
+        if (directory == null || Files.isDirectory(directory)) {
+            return;
+        }
+        FileAttribute<?>[] attributes = POSIX
+                ? new FileAttribute<?>[]{PosixFilePermissions.asFileAttribute(
+                PosixFilePermissions.fromString("rwx------"))}
+                : new FileAttribute<?>[0];
+        Files.createDirectories(directory, attributes);
+        if (!POSIX) {
+            ownerOnly(directory, true);
+        }
+    }
+
+    private static void ownerOnly(Path path, boolean executable) {
+        File file = path.toFile();
+        file.setReadable(false, false);
+        file.setWritable(false, false);
+        file.setExecutable(false, false);
+        file.setReadable(true, true);
+        file.setWritable(true, true);
+        file.setExecutable(executable, true);
+    }
+
+    /**
+     * Credentials are not written to disk, only hash of them
+     */
+    private static String key() {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest((GistTestConfigurationConstants.GITHUB_API
+                    + " " + GistTestConfigurationConstants.AUTH_ENCODED_CREDENTIALS).getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
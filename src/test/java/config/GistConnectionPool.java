@@ -0,0 +1,192 @@
+package config;
+
+import io.restassured.config.HttpClientConfig;
+import jfr.ConnectionEvents;
+import metrics.EndpointMetrics;
+import metrics.ResponseDecoding;
+import metrics.TimeToFirstByte;
+import org.apache.http.HttpConnection;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.params.ClientPNames;
+import org.apache.http.client.protocol.RequestAcceptEncoding;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SchemeRegistryFactory;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.protocol.ExecutionContext;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One pool of keep-alive HTTP connections shared by all request specifications
+ * Pool is configured with system properties:
+ * gist.http.maxTotal, gist.http.maxPerRoute, gist.http.keepAliveSeconds, gist.http.idleSeconds,
+ * gist.http.connectTimeoutMillis and gist.http.socketTimeoutMillis
+ * Responses are requested with gzip or deflate compression unless gist.http.compression=false
+ */
+@SuppressWarnings("deprecation")
+public final class GistConnectionPool {
+
+    private static final int MAX_TOTAL = Integer.getInteger("gist.http.maxTotal", 200);
+
+    private static final int MAX_PER_ROUTE = Integer.getInteger("gist.http.maxPerRoute", 50);
+
+    /**
+     * How long connection is kept alive when server doesn't send Keep-Alive header
+     */
+    private static final int KEEP_ALIVE_SECONDS = Integer.getInteger("gist.http.keepAliveSeconds", 30);
+
+    /**
+     * How long connection may stay idle in the pool before it is closed
+     */
+    private static final int IDLE_SECONDS = Integer.getInteger("gist.http.idleSeconds", 30);
+
+    private static final int CONNECT_TIMEOUT_MILLIS = Integer.getInteger("gist.http.connectTimeoutMillis", 10_000);
+
+    private static final int SOCKET_TIMEOUT_MILLIS = Integer.getInteger("gist.http.socketTimeoutMillis", 30_000);
+
+    private static final boolean COMPRESSION = Boolean.parseBoolean(
+            System.getProperty("gist.http.compression", "true"));
+
+    private static final AtomicLong OPENED_CONNECTIONS = new AtomicLong();
+
+    private static final AtomicLong REUSED_CONNECTIONS = new AtomicLong();
+
+    private static final PoolingClientConnectionManager CONNECTION_MANAGER = createConnectionManager();
+
+    private static final DefaultHttpClient HTTP_CLIENT = createHttpClient();
+
+    private static final HttpClientConfig HTTP_CLIENT_CONFIG = HttpClientConfig.httpClientConfig().
+            reuseHttpClientInstance().
+            httpClientFactory(() -> HTTP_CLIENT).
+            setParam(CoreConnectionPNames.CONNECTION_TIMEOUT, CONNECT_TIMEOUT_MILLIS).
+            setParam(CoreConnectionPNames.SO_TIMEOUT, SOCKET_TIMEOUT_MILLIS).
+            setParam(ClientPNames.CONN_MANAGER_TIMEOUT, (long) CONNECT_TIMEOUT_MILLIS);
+
+    static {
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gist-connection-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(() -> {
+            CONNECTION_MANAGER.closeExpiredConnections();
+            CONNECTION_MANAGER.closeIdleConnections(IDLE_SECONDS, TimeUnit.SECONDS);
+        }, IDLE_SECONDS, IDLE_SECONDS, TimeUnit.SECONDS);
+
+        EndpointMetrics.addGauge("openedConnections", OPENED_CONNECTIONS::get);
+        EndpointMetrics.addGauge("reusedConnections", REUSED_CONNECTIONS::get);
+    }
+
+    private GistConnectionPool() {
+    }
+
+    /**
+     * Get RestAssured configuration which sends all requests through the shared pool
+     *
+     * @return HTTP client configuration
+     */
+    public static HttpClientConfig httpClientConfig() {
+        return HTTP_CLIENT_CONFIG;
+    }
+
+    /**
+     * Get client of the shared pool for requests which bypass RestAssured, e.g. streamed downloads
+     * which RestAssured would buffer in memory
+     *
+     * @return shared HTTP client
+     */
+    public static HttpClient httpClient() {
+        return HTTP_CLIENT;
+    }
+
+    /**
+     * Get number of requests which were sent over newly opened connection
+     *
+     * @return number of opened connections
+     */
+    public static long openedConnections() {
+        return OPENED_CONNECTIONS.get();
+    }
+
+    /**
+     * Get number of requests which were sent over connection taken from the pool
+     *
+     * @return number of reused connections
+     */
+    public static long reusedConnections() {
+        return REUSED_CONNECTIONS.get();
+    }
+
+    /**
+     * Get number of connections which are taken from the pool and not released yet
+     *
+     * @return number of leased connections
+     */
+    public static long leasedConnections() {
+        return CONNECTION_MANAGER.getTotalStats().getLeased();
+    }
+
+    /**
+     * Get number of idle connections kept in the pool
+     *
+     * @return number of available connections
+     */
+    public static long availableConnections() {
+        return CONNECTION_MANAGER.getTotalStats().getAvailable();
+    }
+
+    private static PoolingClientConnectionManager createConnectionManager() {
+        PoolingClientConnectionManager connectionManager =
+                new PoolingClientConnectionManager(
+                        ConnectionEvents.schemeRegistry(SchemeRegistryFactory.createSystemDefault()),
+                        ConnectionEvents.dnsResolver());
+        connectionManager.setMaxTotal(MAX_TOTAL);
+        connectionManager.setDefaultMaxPerRoute(MAX_PER_ROUTE);
+        return connectionManager;
+    }
+
+    /**
+     * Create client which is shared by all threads
+     * RestAssured re-registers its own decoders on the client before every request, which is not safe
+     * when client is shared, so compression is handled by interceptors registered here once
+     * {@link ResponseDecoding} decodes body while it is read and counts compressed and decoded bytes
+     */
+    private static DefaultHttpClient createHttpClient() {
+        DefaultHttpClient client = new DefaultHttpClient(CONNECTION_MANAGER);
+
+        client.setKeepAliveStrategy((response, context) -> {
+            long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return keepAlive > 0 ? keepAlive : TimeUnit.SECONDS.toMillis(KEEP_ALIVE_SECONDS);
+        });
+        client.addRequestInterceptor(countConnections());
+        if (COMPRESSION) {
+            client.addRequestInterceptor(new RequestAcceptEncoding());
+        }
+        client.addResponseInterceptor(TimeToFirstByte.interceptor());
+        client.addResponseInterceptor(ResponseDecoding.interceptor());
+        return client;
+    }
+
+    /**
+     * Count requests by connection: connection which has already sent requests is reused
+     */
+    private static HttpRequestInterceptor countConnections() {
+        return (request, context) -> {
+            HttpConnection connection = (HttpConnection) context.getAttribute(ExecutionContext.HTTP_CONNECTION);
+            if (connection == null) {
+                return;
+            }
+            if (connection.getMetrics().getRequestCount() == 0) {
+                OPENED_CONNECTIONS.incrementAndGet();
+            } else {
+                REUSED_CONNECTIONS.incrementAndGet();
+            }
+        };
+    }
+}
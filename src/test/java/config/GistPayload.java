@@ -0,0 +1,159 @@
+package config;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * JSON-files used as body in HTTP requests
+ * Every file is read from disk once, requests get bodies from memory
+ * Files may contain placeholders like {@code "${filename}"} inside JSON strings and {@code ${public}} in place
+ * of JSON literals, they are replaced by {@link #render(Map)}
+ */
+public enum GistPayload {
+
+    GET_ACCESS_TOKEN(GistTestConfigurationConstants.FILEPATH_GET_ACCESS_TOKEN),
+
+    CREATE_PUBLIC_GIST(GistTestConfigurationConstants.FILEPATH_CREATE_PUBLIC_GIST),
+
+    CREATE_SECRET_GIST(GistTestConfigurationConstants.FILEPATH_CREATE_SECRET_GIST),
+
+    UPDATE_PUBLIC_GIST(GistTestConfigurationConstants.FILEPATH_UPDATE_PUBLIC_GIST),
+
+    UPDATE_SECRET_GIST(GistTestConfigurationConstants.FILEPATH_UPDATE_SECRET_GIST),
+
+    CREATE_NEW_GIST_FILE(GistTestConfigurationConstants.FILEPATH_CREATE_NEW_GIST_FILE),
+
+    DELETE_GIST_FILE(GistTestConfigurationConstants.FILEPATH_DELETE_GIST_FILE),
+
+    /**
+     * Template of gist with placeholders: description, public, filename and content
+     */
+    CREATE_GIST_TEMPLATE(GistTestConfigurationConstants.FILEPATH_CREATE_GIST_TEMPLATE);
+
+    private static final String PLACEHOLDER_START = "${";
+
+    private static final String PLACEHOLDER_END = "}";
+
+    /**
+     * Values of placeholders outside of JSON strings: true, false, null or number
+     */
+    private static final Pattern LITERAL = Pattern.compile(
+            "true|false|null|-?(0|[1-9]\\d*)(\\.\\d+)?([eE][+-]?\\d+)?");
+
+    /**
+     * Content of file
+     */
+    private final byte[] content;
+
+    /**
+     * Parts of file between placeholders, one more than placeholders
+     */
+    private final byte[][] literals;
+
+    /**
+     * Names of placeholders in order of appearance
+     */
+    private final String[] placeholders;
+
+    /**
+     * Whether placeholder is content of JSON string, otherwise it stands for JSON literal
+     */
+    private final boolean[] quoted;
+
+    GistPayload(String filepath) {
+        try {
+            content = Files.readAllBytes(Paths.get(filepath));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + filepath, e);
+        }
+
+        String text = new String(content, StandardCharsets.UTF_8);
+        List<byte[]> literalList = new ArrayList<>();
+        List<String> placeholderList = new ArrayList<>();
+        int literalStart = 0;
+        int start = text.indexOf(PLACEHOLDER_START);
+        while (start >= 0) {
+            int end = text.indexOf(PLACEHOLDER_END, start + PLACEHOLDER_START.length());
+            if (end < 0) {
+                throw new IllegalStateException("Unclosed placeholder in " + filepath);
+            }
+            literalList.add(text.substring(literalStart, start).getBytes(StandardCharsets.UTF_8));
+            placeholderList.add(text.substring(start + PLACEHOLDER_START.length(), end));
+            literalStart = end + PLACEHOLDER_END.length();
+            start = text.indexOf(PLACEHOLDER_START, literalStart);
+        }
+        literalList.add(text.substring(literalStart).getBytes(StandardCharsets.UTF_8));
+
+        literals = literalList.toArray(new byte[0][]);
+        placeholders = placeholderList.toArray(new String[0]);
+        quoted = new boolean[placeholders.length];
+        for (int i = 0; i < placeholders.length; i++) {
+            byte[] before = literals[i];
+            byte[] after = literals[i + 1];
+            quoted[i] = before.length > 0 && before[before.length - 1] == '"' && after.length > 0 && after[0] == '"';
+        }
+    }
+
+    /**
+     * Get content of file as is
+     *
+     * @return copy of file content
+     */
+    public byte[] bytes() {
+        return content.clone();
+    }
+
+    /**
+     * Get content of file with placeholders replaced by values
+     * Values of placeholders inside JSON strings are escaped as content of JSON string and encoded with UTF-8,
+     * values of other placeholders are written as is and must be JSON literals
+     *
+     * @param values values of placeholders by their names
+     * @return rendered content
+     * @throws IllegalArgumentException if value is missing, has unpaired surrogate or is not a valid literal
+     */
+    public byte[] render(Map<String, String> values) {
+        byte[][] encoded = new byte[placeholders.length][];
+        int length = literals[0].length;
+        for (int i = 0; i < placeholders.length; i++) {
+            String value = values.get(placeholders[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("No value for placeholder " + placeholders[i] + " of " + name());
+            }
+            encoded[i] = quoted[i]
+                    ? JsonStringEncoder.getInstance().quoteAsUTF8(value)
+                    : literal(placeholders[i], value);
+            length += encoded[i].length + literals[i + 1].length;
+        }
+
+        byte[] result = new byte[length];
+        int position = copy(literals[0], result, 0);
+        for (int i = 0; i < encoded.length; i++) {
+            position = copy(encoded[i], result, position);
+            position = copy(literals[i + 1], result, position);
+        }
+        return result;
+    }
+
+    private byte[] literal(String placeholder, String value) {
+        if (!LITERAL.matcher(value).matches()) {
+            throw new IllegalArgumentException("Value of placeholder " + placeholder + " of " + name()
+                    + " is not a JSON literal: " + value);
+        }
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static int copy(byte[] source, byte[] target, int position) {
+        System.arraycopy(source, 0, target, position, source.length);
+        return position + source.length;
+    }
+}
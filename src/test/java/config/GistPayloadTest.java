@@ -0,0 +1,99 @@
+package config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of rendering of gist template, no API is called
+ */
+class GistPayloadTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    @DisplayName("quotes, backslashes and control characters are escaped inside JSON strings")
+    void escapedValues() throws IOException {
+        String content = "say \"hi\"\\\n\r\t\u0000\u001f end";
+        JsonNode gist = render(values("desc \"quoted\"", "true", "dir\\file.txt", content));
+
+        assertThat(gist.get("description").textValue(), equalTo("desc \"quoted\""));
+        assertThat(gist.get("files").get("dir\\file.txt").get("content").textValue(), equalTo(content));
+    }
+
+    @Test
+    @DisplayName("characters outside of BMP are encoded as 4 bytes of valid UTF-8")
+    void supplementaryCharacters() throws IOException {
+        String content = "smile 😀, clef 𝄞, é中";
+        byte[] body = GistPayload.CREATE_GIST_TEMPLATE.render(values("gist", "false", "a.txt", content));
+
+        String decoded = StandardCharsets.UTF_8.newDecoder().
+                onMalformedInput(CodingErrorAction.REPORT).
+                onUnmappableCharacter(CodingErrorAction.REPORT).
+                decode(ByteBuffer.wrap(body)).toString();
+        assertThat(decoded, containsString(content));
+        assertThat(MAPPER.readTree(body).get("files").get("a.txt").get("content").textValue(), equalTo(content));
+    }
+
+    @Test
+    @DisplayName("unpaired surrogate is rejected instead of being written as invalid UTF-8")
+    void unpairedSurrogate() {
+        for (String content : new String[]{"high \uD83D alone", "low \uDE00 alone", "ends with \uD83D"}) {
+            assertThrows(IllegalArgumentException.class, () ->
+                    GistPayload.CREATE_GIST_TEMPLATE.render(values("gist", "true", "a.txt", content)));
+        }
+    }
+
+    @Test
+    @DisplayName("${public} outside of quotes is written as JSON literal, not as string")
+    void rawLiteral() throws IOException {
+        assertThat(render(values("gist", "true", "a.txt", "a")).get("public").isBoolean(), equalTo(true));
+        assertThat(render(values("gist", "false", "a.txt", "a")).get("public").booleanValue(), equalTo(false));
+    }
+
+    @Test
+    @DisplayName("value of ${public} which is not JSON literal is rejected")
+    void invalidLiteral() {
+        for (String isPublic : new String[]{"yes", "\"true\"", "true, \"id\": 1", ""}) {
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () ->
+                    GistPayload.CREATE_GIST_TEMPLATE.render(values("gist", isPublic, "a.txt", "a")));
+            assertThat(error.getMessage(), containsString("public"));
+        }
+    }
+
+    @Test
+    @DisplayName("missing value of placeholder is rejected")
+    void missingValue() {
+        Map<String, String> values = values("gist", "true", "a.txt", "a");
+        values.remove("content");
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () ->
+                GistPayload.CREATE_GIST_TEMPLATE.render(values));
+        assertThat(error.getMessage(), containsString("content"));
+    }
+
+    private static JsonNode render(Map<String, String> values) throws IOException {
+        return MAPPER.readTree(GistPayload.CREATE_GIST_TEMPLATE.render(values));
+    }
+
+    private static Map<String, String> values(String description, String isPublic, String filename, String content) {
+        Map<String, String> values = new HashMap<>();
+        values.put("description", description);
+        values.put("public", isPublic);
+        values.put("filename", filename);
+        values.put("content", content);
+        return values;
+    }
+}
@@ -0,0 +1,78 @@
+package config;
+
+import cache.ConditionalGetFilter;
+import cassette.CassetteFilter;
+import io.restassured.RestAssured;
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.specification.RequestSpecification;
+import metrics.LatencyFilter;
+import ratelimit.RateLimitFilter;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Pre-built request specifications for every auth context, so that tests never mutate global
+ * RestAssured state and can run in parallel
+ * All specifications send requests through {@link GistConnectionPool}, are paced by {@link RateLimitFilter},
+ * record their latency with {@link LatencyFilter}, revalidate cached responses with {@link ConditionalGetFilter}
+ * and can be recorded or replayed by {@link CassetteFilter}
+ */
+public final class GistRequestSpecifications {
+
+    private static final RateLimitFilter RATE_LIMIT_FILTER = new RateLimitFilter();
+
+    private static final LatencyFilter LATENCY_FILTER = new LatencyFilter();
+
+    private static final ConditionalGetFilter CONDITIONAL_GET_FILTER = new ConditionalGetFilter();
+
+    private static final CassetteFilter CASSETTE_FILTER = new CassetteFilter();
+
+    /**
+     * Specification for requests without any credentials
+     */
+    private static final RequestSpecification UNAUTHORIZED = baseBuilder().build();
+
+    /**
+     * Specifications for requests authorized with OAuth2 access token, one per token
+     */
+    private static final ConcurrentMap<String, RequestSpecification> AUTHORIZED = new ConcurrentHashMap<>();
+
+    private GistRequestSpecifications() {
+    }
+
+    /**
+     * Get specification for requests of unauthorized user
+     *
+     * @return specification with gists API base URI and without credentials
+     */
+    public static RequestSpecification unauthorized() {
+        return UNAUTHORIZED;
+    }
+
+    /**
+     * Get specification for requests of user authorized with given access token
+     *
+     * @param accessToken user's access token
+     * @return specification with gists API base URI and OAuth2 authentication
+     */
+    public static RequestSpecification authorized(String accessToken) {
+        return AUTHORIZED.computeIfAbsent(accessToken, token -> baseBuilder().
+                setAuth(RestAssured.oauth2(token)).
+                build());
+    }
+
+    private static RequestSpecBuilder baseBuilder() {
+        return new RequestSpecBuilder().
+                setBaseUri(GistTestConfigurationConstants.GIST_GITHUB_API).
+                setConfig(RestAssuredConfig.config().
+                        httpClient(GistConnectionPool.httpClientConfig()).
+                        decoderConfig(DecoderConfig.decoderConfig().noContentDecoders())).
+                addFilter(RATE_LIMIT_FILTER).
+                addFilter(LATENCY_FILTER).
+                addFilter(CONDITIONAL_GET_FILTER).
+                addFilter(CASSETTE_FILTER);
+    }
+}
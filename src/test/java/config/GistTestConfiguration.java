@@ -1,43 +1,114 @@
 package config;
 
+import cleanup.GistSweeper;
+import cleanup.SweepMarkers;
 import io.restassured.http.ContentType;
 import io.restassured.http.Header;
 import io.restassured.response.Response;
+import jfr.FixturePhaseEvent;
+import org.junit.jupiter.api.extension.ExtensionContext;
 
-import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static io.restassured.RestAssured.given;
 
 /**
  * Contains additional constant data necessary for tests configuration
+ * Gists are created concurrently after access token is received, getters wait only for gist they return
+ * One configuration is shared by all test classes through {@link GistTestConfigurationExtension}
+ * and its gists are deleted when the test session is finished
  */
-public class GistTestConfiguration {
+public class GistTestConfiguration implements ExtensionContext.Store.CloseableResource {
+
+    /**
+     * Number of gists created concurrently: public, secret and fork
+     */
+    private static final int NUMBER_OF_GISTS = 3;
+
+    /**
+     * Gists left by tests of previous sessions are swept when the session is finished
+     * unless gist.sweep.onClose=false
+     */
+    private static final boolean SWEEP_ON_CLOSE = Boolean.parseBoolean(
+            System.getProperty("gist.sweep.onClose", "true"));
+
+    /**
+     * Only gists created at least gist.sweep.minAgeMinutes ago are swept, younger ones may be fixtures
+     * of concurrent runs on the same account
+     */
+    private static final Duration SWEEP_MIN_AGE = Duration.ofMinutes(Long.getLong("gist.sweep.minAgeMinutes", 180));
+
+    /**
+     * Gists not updated for gist.sweep.maxAgeHours are not listed, so sweep reads only recent pages
+     */
+    private static final Duration SWEEP_MAX_AGE = Duration.ofHours(Long.getLong("gist.sweep.maxAgeHours", 72));
+
+    private static final Path SWEEP_REPORT_FILE = Paths.get(
+            System.getProperty("gist.sweep.onCloseFile", "target/gist-sweep-on-close.json"));
 
     /**
      * User's access token from GitHub API to test gists accessibility in authorized context
      */
-    private String accessToken;
+    private final String accessToken;
 
     /**
      * ID of generated public gist
      */
-    private String publicGistId;
+    private final CompletableFuture<String> publicGistId;
 
     /**
      * ID of generated secret gist
      */
-    private String secretGistId;
+    private final CompletableFuture<String> secretGistId;
 
     /**
      * ID of forked gist
      */
-    private String forkedGistId;
+    private final CompletableFuture<String> forkedGistId;
 
+    /**
+     * True for configuration of the whole test session, false for short-lived configuration inside of it
+     */
+    private final boolean session;
+
+    /**
+     * Create configuration of the whole test session
+     */
     public GistTestConfiguration() {
-        accessToken = generateAccessToken();
-        publicGistId = createPublicGist();
-        secretGistId = createSecretTestGist();
-        forkedGistId = forkGist();
+        this(true);
+    }
+
+    /**
+     * @param session true for configuration of the whole test session, which sweeps leftovers and deletes its fork
+     *                when closed, false for short-lived configuration inside of a running session, e.g. fixtures
+     *                of soak iterations: user has only one fork of gist, so its fork is the fork of the session
+     */
+    public GistTestConfiguration(boolean session) {
+        this.session = session;
+        accessToken = FixturePhaseEvent.record("access token",
+                () -> AccessTokenCache.get(this::generateAccessToken));
+
+        ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_GISTS);
+        try {
+            publicGistId = CompletableFuture.supplyAsync(
+                    () -> FixturePhaseEvent.record("public gist", this::createPublicGist), executor);
+            secretGistId = CompletableFuture.supplyAsync(
+                    () -> FixturePhaseEvent.record("secret gist", this::createSecretTestGist), executor);
+            forkedGistId = CompletableFuture.supplyAsync(
+                    () -> FixturePhaseEvent.record("fork", this::forkGist), executor);
+        } finally {
+            executor.shutdown();
+        }
     }
 
     /**
@@ -46,19 +117,18 @@ public class GistTestConfiguration {
      * @return user's access token
      */
     private String generateAccessToken() {
-        File gettingTokenJson = new File("src/test/resources/GetAccessToken.json");
-
         Response response = given().
+                spec(GistRequestSpecifications.unauthorized()).
                 header(new Header("Authorization",
                         "Basic " + GistTestConfigurationConstants.AUTH_ENCODED_CREDENTIALS)).
                 contentType(ContentType.JSON)
-                .body(gettingTokenJson).
+                .body(GistPayload.GET_ACCESS_TOKEN.bytes()).
                         when().
                         post(GistTestConfigurationConstants.AUTH_GITHUB_API).
                         then().
                         extract().response();
 
-        return response.getBody().jsonPath().getString("token");
+        return extract(response, "token", "access token");
     }
 
     /**
@@ -67,18 +137,7 @@ public class GistTestConfiguration {
      * @return ID of created public gist
      */
     private String createPublicGist() {
-        File JSON = new File(GistTestConfigurationConstants.FILEPATH_CREATE_PUBLIC_GIST);
-
-        Response response = given().
-                auth().
-                oauth2(accessToken).
-                contentType(ContentType.JSON).
-                body(JSON).
-                when().
-                post().
-                then().extract().response();
-
-        return response.getBody().jsonPath().getString("id");
+        return createGist(accessToken, GistPayload.CREATE_PUBLIC_GIST.bytes(), "public gist");
     }
 
     /**
@@ -87,37 +146,117 @@ public class GistTestConfiguration {
      * @return ID of created secret gist
      */
     private String createSecretTestGist() {
-        File JSON = new File(GistTestConfigurationConstants.FILEPATH_CREATE_SECRET_GIST);
+        return createGist(accessToken, GistPayload.CREATE_SECRET_GIST.bytes(), "secret gist");
+    }
 
+    /**
+     * Create a gist
+     *
+     * @param accessToken access token of owner
+     * @param body        JSON body of gist
+     * @param name        name of gist for error message
+     * @return ID of created gist
+     */
+    public static String createGist(String accessToken, byte[] body, String name) {
         Response response = given().
-                auth().
-                oauth2(accessToken).
+                spec(GistRequestSpecifications.authorized(accessToken)).
                 contentType(ContentType.JSON).
-                body(JSON).
+                body(body).
                 when().
                 post().
                 then().extract().response();
 
-        return response.getBody().jsonPath().getString("id");
+        return extract(response, "id", name);
     }
 
     private String forkGist() {
         Response response = given().
-                auth().
-                oauth2(accessToken).
+                spec(GistRequestSpecifications.authorized(accessToken)).
                 when().
                 post(GistTestConfigurationConstants.ID_OF_GIST_FOR_FORK + "/forks").
                 then().extract().response();
 
-        return response.getBody().jsonPath().getString("id");
+        return extract(response, "id", "fork of gist " + GistTestConfigurationConstants.ID_OF_GIST_FOR_FORK);
+    }
+
+    /**
+     * Get value from response body or fail with the response status and body
+     *
+     * @param response response of fixture request
+     * @param path     JSON path of value to get
+     * @param fixture  name of fixture for error message
+     * @return value from response body
+     */
+    private static String extract(Response response, String path, String fixture) {
+        String value = response.getBody().jsonPath().getString(path);
+
+        if (value == null) {
+            throw new IllegalStateException("Failed to create " + fixture + ": HTTP "
+                    + response.getStatusCode() + " " + response.getBody().asString());
+        }
+        return value;
+    }
+
+    /**
+     * Wait until fixture is created
+     *
+     * @param fixture future of fixture creation
+     * @param name    name of fixture for error message
+     * @return ID of created fixture
+     */
+    private static String await(CompletableFuture<String> fixture, String name) {
+        try {
+            return fixture.join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException(name + " is not available", e.getCause());
+        }
+    }
+
+    /**
+     * Delete all created gists, gists that failed to be created are skipped, then sweep gists
+     * with fixture markers which were left by tests or by previous sessions
+     * Configuration inside of a session keeps the fork and doesn't sweep
+     */
+    @Override
+    public void close() {
+        FixturePhaseEvent.record("delete", () -> {
+            List<CompletableFuture<String>> gistIds = session
+                    ? Arrays.asList(publicGistId, secretGistId, forkedGistId)
+                    : Arrays.asList(publicGistId, secretGistId);
+            for (CompletableFuture<String> gistId : gistIds) {
+                String id;
+                try {
+                    id = gistId.join();
+                } catch (CompletionException e) {
+                    continue;
+                }
+
+                given().
+                        spec(GistRequestSpecifications.authorized(accessToken)).
+                        when().
+                        delete(id);
+            }
+            return null;
+        });
+
+        if (session && SWEEP_ON_CLOSE) {
+            try {
+                FixturePhaseEvent.record("sweep", () -> new GistSweeper(accessToken, SweepMarkers.fixtures()).
+                        withAge(SWEEP_MIN_AGE, SWEEP_MAX_AGE).
+                        sweep()).
+                        write(SWEEP_REPORT_FILE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to write " + SWEEP_REPORT_FILE, e);
+            }
+        }
     }
 
     public String getSecretGistId() {
-        return secretGistId;
+        return await(secretGistId, "Secret gist");
     }
 
     public String getPublicGistId() {
-        return publicGistId;
+        return await(publicGistId, "Public gist");
     }
 
     public String getAccessToken() {
@@ -125,6 +264,6 @@ public class GistTestConfiguration {
     }
 
     public String getForkedGistId() {
-        return forkedGistId;
+        return await(forkedGistId, "Fork of gist " + GistTestConfigurationConstants.ID_OF_GIST_FOR_FORK);
     }
 }
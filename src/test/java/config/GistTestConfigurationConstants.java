@@ -1,11 +1,19 @@
 package config;
 
+import stub.LocalGistApi;
+
 public class GistTestConfigurationConstants {
 
+    /**
+     * GitHub API URI, can be changed with system property gist.api, -Dgist.api=local starts in-process stand-in
+     */
+    public static final String GITHUB_API =
+        LocalGistApi.resolve(System.getProperty("gist.api", "https://api.github.com"));
+
     /**
      * API GitHub Gists API URI
      */
-    public static final String GIST_GITHUB_API = "https://api.github.com/gists";
+    public static final String GIST_GITHUB_API = GITHUB_API + "/gists";
 
     /**
      * Client secret of OAuth app
@@ -25,7 +33,7 @@ public class GistTestConfigurationConstants {
     /**
      * API GitHub API URI for authorization
      */
-    static final String AUTH_GITHUB_API = "https://api.github.com/authorizations";
+    static final String AUTH_GITHUB_API = GITHUB_API + "/authorizations";
 
     /**
      * Username and password encoded with base64 for login in GitHub
@@ -37,6 +45,18 @@ public class GistTestConfigurationConstants {
      */
     private static final String SRC_TEST_RESOURCES = "src/test/resources/";
 
+    /**
+     * Relative path to the JSON-file for getting of access token
+     */
+    static final String FILEPATH_GET_ACCESS_TOKEN =
+        SRC_TEST_RESOURCES + "GetAccessToken.json";
+
+    /**
+     * Relative path to the JSON-file with template of gist
+     */
+    static final String FILEPATH_CREATE_GIST_TEMPLATE =
+        SRC_TEST_RESOURCES + "CreateGistTemplate.json";
+
     /**
      * Relative path to the JSON-file for deleting of gist file
      */
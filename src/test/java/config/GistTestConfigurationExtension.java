@@ -0,0 +1,28 @@
+package config;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ExtensionContext.Namespace;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+/**
+ * Provides one {@link GistTestConfiguration} for the whole test session
+ * Configuration is created lazily by the first test class which needs it, kept in the root store
+ * and closed once all test classes are finished
+ */
+public class GistTestConfigurationExtension implements ParameterResolver {
+
+    private static final Namespace NAMESPACE = Namespace.create(GistTestConfigurationExtension.class);
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.getParameter().getType() == GistTestConfiguration.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return extensionContext.getRoot().getStore(NAMESPACE).
+                getOrComputeIfAbsent(GistTestConfiguration.class, key -> new GistTestConfiguration(),
+                        GistTestConfiguration.class);
+    }
+}
@@ -0,0 +1,37 @@
+package config;
+
+import io.restassured.authentication.AuthenticationScheme;
+import io.restassured.authentication.PreemptiveOAuth2HeaderScheme;
+import io.restassured.specification.FilterableRequestSpecification;
+
+/**
+ * Identifies auth context of request: OAuth2 token, Authorization header, OAuth app client_id
+ * or unauthenticated client
+ */
+public final class RequestCredential {
+
+    private RequestCredential() {
+    }
+
+    /**
+     * Get key of auth context of request
+     *
+     * @param requestSpec request in filter
+     * @return key which is equal for requests with the same credential
+     */
+    public static String of(FilterableRequestSpecification requestSpec) {
+        AuthenticationScheme scheme = requestSpec.getAuthenticationScheme();
+        if (scheme instanceof PreemptiveOAuth2HeaderScheme) {
+            return "token " + ((PreemptiveOAuth2HeaderScheme) scheme).getAccessToken();
+        }
+        String authorization = requestSpec.getHeaders().getValue("Authorization");
+        if (authorization != null) {
+            return authorization;
+        }
+        String clientId = requestSpec.getRequestParams().get("client_id");
+        if (clientId == null) {
+            clientId = requestSpec.getQueryParams().get("client_id");
+        }
+        return clientId == null ? "unauthenticated" : "client " + clientId;
+    }
+}
@@ -0,0 +1,83 @@
+package contention;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shape of star contention: number of star and unstar requests, threads sending them, gists they are spread over
+ * and how long listing of starred gists may lag behind
+ */
+public final class ContentionProfile {
+
+    private final int requests;
+
+    private final int threads;
+
+    private final int gists;
+
+    private final long settleNanos;
+
+    private final long seed;
+
+    public ContentionProfile(int requests, int threads, int gists, long settleSeconds, long seed) {
+        if (requests < 1 || threads < 1 || gists < 1 || settleSeconds < 0) {
+            throw new IllegalArgumentException("Invalid contention profile: requests=" + requests
+                    + ", threads=" + threads + ", gists=" + gists + ", settleSeconds=" + settleSeconds);
+        }
+        this.requests = requests;
+        this.threads = threads;
+        this.gists = gists;
+        this.settleNanos = TimeUnit.SECONDS.toNanos(settleSeconds);
+        this.seed = seed;
+    }
+
+    /**
+     * Read profile from system properties gist.contention.requests, gist.contention.threads,
+     * gist.contention.gists (number of gists of many-gist scenario), gist.contention.settleSeconds
+     * and gist.contention.seed (seed of random sequence of operations)
+     *
+     * @return profile of contention
+     */
+    public static ContentionProfile fromSystemProperties() {
+        return new ContentionProfile(
+                Integer.getInteger("gist.contention.requests", 2000),
+                Integer.getInteger("gist.contention.threads", 64),
+                Integer.getInteger("gist.contention.gists", 16),
+                Long.getLong("gist.contention.settleSeconds", 5),
+                Long.getLong("gist.contention.seed", 1));
+    }
+
+    /**
+     * Copy of profile with another number of gists
+     *
+     * @param gists number of gists
+     * @return profile for scenario
+     */
+    public ContentionProfile withGists(int gists) {
+        return new ContentionProfile(requests, threads, gists, TimeUnit.NANOSECONDS.toSeconds(settleNanos), seed);
+    }
+
+    public int getRequests() {
+        return requests;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getGists() {
+        return gists;
+    }
+
+    public long getSettleNanos() {
+        return settleNanos;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String toString() {
+        return "requests=" + requests + ", threads=" + threads + ", gists=" + gists;
+    }
+}
@@ -0,0 +1,34 @@
+package contention;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Results of all contention scenarios, e.g. "1 gist" and "16 gists"
+ */
+public class ContentionReport {
+
+    private final Map<String, Object> scenarios = new TreeMap<>();
+
+    public synchronized void add(ContentionResult result) {
+        scenarios.put(result.getScenario(), result.summary());
+    }
+
+    /**
+     * Write results as JSON
+     *
+     * @param file file to write
+     */
+    public synchronized void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().
+                enable(SerializationFeature.INDENT_OUTPUT).
+                writeValue(file.toFile(), scenarios);
+    }
+}
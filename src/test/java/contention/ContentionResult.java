@@ -0,0 +1,106 @@
+package contention;
+
+import load.LoadMetrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of one contention scenario: throughput and latency of star requests and consistency of stars
+ */
+public class ContentionResult {
+
+    private final ContentionProfile profile;
+
+    private final long durationNanos;
+
+    private final Map<String, Object> endpoints;
+
+    private final List<String> violations = new ArrayList<>();
+
+    private final List<String> listingMismatches = new ArrayList<>();
+
+    private int determinedGists;
+
+    private int listingAttempts;
+
+    @SuppressWarnings("unchecked")
+    ContentionResult(ContentionProfile profile, long durationNanos, LoadMetrics metrics) {
+        this.profile = profile;
+        this.durationNanos = durationNanos;
+        this.endpoints = (Map<String, Object>) metrics.summary(durationNanos).get("endpoints");
+    }
+
+    void addViolation(String id, String message) {
+        violations.add(id + ": " + message);
+    }
+
+    void addListingMismatch(String id, String message) {
+        listingMismatches.add(id + ": " + message);
+    }
+
+    void addDeterminedGist() {
+        determinedGists++;
+    }
+
+    void setListingAttempts(int listingAttempts) {
+        this.listingAttempts = listingAttempts;
+    }
+
+    /**
+     * @return gists whose star is not allowed by history of their requests
+     */
+    public List<String> getViolations() {
+        return violations;
+    }
+
+    /**
+     * @return gists whose presence in /gists/starred differs from their star
+     */
+    public List<String> getListingMismatches() {
+        return listingMismatches;
+    }
+
+    /**
+     * @return name of scenario, e.g. "1 gist" or "16 gists"
+     */
+    public String getScenario() {
+        return profile.getGists() + (profile.getGists() == 1 ? " gist" : " gists");
+    }
+
+    /**
+     * @return number of failed star and unstar requests
+     */
+    @SuppressWarnings("unchecked")
+    public long getFailedRequests() {
+        long failed = 0;
+        for (Object endpoint : endpoints.values()) {
+            failed += (Long) ((Map<String, Object>) endpoint).get("errors");
+        }
+        return failed;
+    }
+
+    /**
+     * @return scenario, throughput and latency of requests and results of checks, which can be written as JSON
+     */
+    public Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", profile.getRequests());
+        summary.put("threads", profile.getThreads());
+        summary.put("gists", profile.getGists());
+        double seconds = durationNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        summary.put("durationSeconds", seconds);
+        summary.put("throughputPerSecond", seconds > 0 ? profile.getRequests() / seconds : 0);
+        summary.put("failedRequests", getFailedRequests());
+        summary.put("endpoints", endpoints);
+        // gists whose final star is the only one allowed by history, others had overlapping last requests
+        summary.put("determinedGists", determinedGists);
+        summary.put("violations", violations);
+        summary.put("listingAttempts", listingAttempts);
+        summary.put("listingMismatches", listingMismatches);
+        return summary;
+    }
+}
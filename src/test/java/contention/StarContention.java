@@ -0,0 +1,216 @@
+package contention;
+
+import config.GistPayload;
+import config.GistRequestSpecifications;
+import config.GistTestConfiguration;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import load.LoadMetrics;
+import pagination.GistPages;
+import ratelimit.RateLimitWait;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Fires concurrent star and unstar requests of one user at shared gists and checks that stars are consistent
+ * when requests are finished: GET /gists/{id}/star of every gist must be a state allowed by linearizable history
+ * of its requests, see {@link StarHistory}, and /gists/starred must list exactly the starred gists
+ * Requests are sent from a fixed pool of platform threads, all of them are queued before the pool is released,
+ * so every thread sends next request as soon as previous one is finished
+ */
+public final class StarContention {
+
+    /**
+     * Prefix of description of every gist created for contention, used to find leftovers
+     */
+    public static final String DESCRIPTION_MARKER = "gist-contention";
+
+    /**
+     * How long to wait for requests which are still running
+     */
+    private static final long DRAIN_TIMEOUT_SECONDS = 300;
+
+    private static final long LISTING_POLL_MILLIS = 500;
+
+    private final String accessToken;
+
+    private final RequestSpecification authorized;
+
+    /**
+     * @param accessToken access token of user who stars gists
+     */
+    public StarContention(String accessToken) {
+        this.accessToken = accessToken;
+        this.authorized = GistRequestSpecifications.authorized(accessToken);
+    }
+
+    /**
+     * Create gists, star and unstar them concurrently, check stars and delete gists
+     *
+     * @param profile shape of contention
+     * @return throughput, latency and consistency of stars
+     */
+    public ContentionResult run(ContentionProfile profile) throws InterruptedException {
+        List<String> ids = new ArrayList<>(profile.getGists());
+        try {
+            for (int index = 0; index < profile.getGists(); index++) {
+                ids.add(createGist(index));
+            }
+            Map<String, StarHistory> histories = new HashMap<>();
+            ids.forEach(id -> histories.put(id, new StarHistory()));
+
+            LoadMetrics metrics = new LoadMetrics();
+            long durationNanos = fire(profile, ids, histories, metrics);
+            ContentionResult result = new ContentionResult(profile, durationNanos, metrics);
+            check(profile, ids, histories, result);
+            return result;
+        } finally {
+            ids.forEach(id -> given().spec(authorized).when().delete(id));
+        }
+    }
+
+    /**
+     * Send all requests and wait for them
+     *
+     * @return time from release of the first request to the end of the last one
+     */
+    private long fire(ContentionProfile profile, List<String> ids, Map<String, StarHistory> histories,
+                      LoadMetrics metrics) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(profile.getThreads(), threads());
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong lastEnd = new AtomicLong();
+        SplittableRandom random = new SplittableRandom(profile.getSeed());
+        try {
+            for (int request = 0; request < profile.getRequests(); request++) {
+                String id = ids.get(request % ids.size());
+                boolean star = random.nextBoolean();
+                executor.execute(() -> {
+                    awaitRelease(release);
+                    long start = System.nanoTime();
+                    StarHistory.Outcome outcome = send(id, star, start, metrics);
+                    long end = System.nanoTime();
+                    histories.get(id).add(star, start, end, outcome);
+                    lastEnd.accumulateAndGet(end, Math::max);
+                });
+            }
+            long start = System.nanoTime();
+            release.countDown();
+            executor.shutdown();
+            if (!executor.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Star requests are not finished in " + DRAIN_TIMEOUT_SECONDS + " s");
+            }
+            return lastEnd.get() - start;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Time spent waiting for rate limit budget is not counted as latency of request
+     */
+    private StarHistory.Outcome send(String id, boolean star, long start, LoadMetrics metrics) {
+        String endpoint = star ? "PUT /gists/{id}/star" : "DELETE /gists/{id}/star";
+        RateLimitWait.reset();
+        try {
+            Response response = star
+                    ? given().spec(authorized).when().put(id + "/star")
+                    : given().spec(authorized).when().delete(id + "/star");
+            int status = response.getStatusCode();
+            metrics.recordRequest(endpoint, System.nanoTime() - start, RateLimitWait.nanos(), status == 204);
+            if (status == 204) {
+                return StarHistory.Outcome.ACKNOWLEDGED;
+            }
+            return status >= 400 && status < 500 ? StarHistory.Outcome.REJECTED : StarHistory.Outcome.UNKNOWN;
+        } catch (RuntimeException e) {
+            metrics.recordRequest(endpoint, System.nanoTime() - start, RateLimitWait.nanos(), false);
+            return StarHistory.Outcome.UNKNOWN;
+        }
+    }
+
+    /**
+     * Compare star of every gist with its history and listing of starred gists with stars
+     * Listing is polled until it matches or settle time is over, because it may lag behind
+     */
+    private void check(ContentionProfile profile, List<String> ids, Map<String, StarHistory> histories,
+                       ContentionResult result) throws InterruptedException {
+        Set<String> starred = new TreeSet<>();
+        for (String id : ids) {
+            int status = given().spec(authorized).when().get(id + "/star").getStatusCode();
+            Set<StarHistory.State> possible = histories.get(id).possibleFinalStates(StarHistory.State.UNSTARRED);
+            StarHistory.State state = status == 204 ? StarHistory.State.STARRED
+                    : status == 404 ? StarHistory.State.UNSTARRED : null;
+            if (state == null || !possible.contains(state)) {
+                result.addViolation(id, "GET /star returned " + status + ", possible states are " + possible);
+            }
+            if (possible.size() == 1) {
+                result.addDeterminedGist();
+            }
+            if (state == StarHistory.State.STARRED) {
+                starred.add(id);
+            }
+        }
+
+        long deadline = System.nanoTime() + profile.getSettleNanos();
+        Set<String> listed;
+        int attempts = 0;
+        do {
+            if (attempts++ > 0) {
+                Thread.sleep(LISTING_POLL_MILLIS);
+            }
+            listed = new TreeSet<>(GistPages.of(authorized, "starred").ids());
+            listed.retainAll(ids);
+        } while (!listed.equals(starred) && System.nanoTime() < deadline);
+        result.setListingAttempts(attempts);
+
+        Set<String> difference = new HashSet<>(starred);
+        difference.removeAll(listed);
+        difference.forEach(id -> result.addListingMismatch(id, "starred but not listed"));
+        difference = new HashSet<>(listed);
+        difference.removeAll(starred);
+        difference.forEach(id -> result.addListingMismatch(id, "listed but not starred"));
+    }
+
+    private String createGist(int index) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("description", DESCRIPTION_MARKER + " " + index);
+        values.put("public", "true");
+        values.put("filename", "contention-" + index + ".txt");
+        values.put("content", "gist starred and unstarred concurrently");
+        return GistTestConfiguration.createGist(accessToken, GistPayload.CREATE_GIST_TEMPLATE.render(values),
+                "contention gist " + index);
+    }
+
+    private static void awaitRelease(CountDownLatch release) {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ThreadFactory threads() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "gist-contention-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package contention;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Star and unstar operations of one gist with their real-time intervals
+ * Star of a gist is a register which is only written, so the state after all operations is the one written by
+ * the operation linearized last. Acknowledged operation can be linearized last unless another acknowledged
+ * operation was sent after its response was received. Operations without response may or may not have been
+ * applied, so they may be the last ones too, and rejected operations were not applied at all
+ */
+final class StarHistory {
+
+    /**
+     * State of star after operation
+     */
+    enum State {
+        STARRED, UNSTARRED
+    }
+
+    /**
+     * What is known about operation from its response
+     */
+    enum Outcome {
+        /**
+         * 204, operation was applied
+         */
+        ACKNOWLEDGED,
+        /**
+         * 4xx, operation was not applied
+         */
+        REJECTED,
+        /**
+         * 5xx or no response, operation may be applied or not
+         */
+        UNKNOWN
+    }
+
+    private final List<Operation> operations = new ArrayList<>();
+
+    synchronized void add(boolean star, long startNanos, long endNanos, Outcome outcome) {
+        operations.add(new Operation(star ? State.STARRED : State.UNSTARRED, startNanos, endNanos, outcome));
+    }
+
+    /**
+     * Get states which the gist may have when all operations are finished
+     *
+     * @param initial state before the first operation
+     * @return one state if history determines it, both states otherwise
+     */
+    synchronized Set<State> possibleFinalStates(State initial) {
+        long lastAcknowledgedStart = Long.MIN_VALUE;
+        for (Operation operation : operations) {
+            if (operation.outcome == Outcome.ACKNOWLEDGED) {
+                lastAcknowledgedStart = Math.max(lastAcknowledgedStart, operation.startNanos);
+            }
+        }
+        Set<State> states = EnumSet.noneOf(State.class);
+        if (lastAcknowledgedStart == Long.MIN_VALUE) {
+            states.add(initial);
+        }
+        for (Operation operation : operations) {
+            // no acknowledged operation was sent after this one was finished, so this one may be the last
+            if (operation.outcome == Outcome.UNKNOWN
+                    || operation.outcome == Outcome.ACKNOWLEDGED && operation.endNanos >= lastAcknowledgedStart) {
+                states.add(operation.state);
+            }
+        }
+        return states;
+    }
+
+    private static final class Operation {
+
+        private final State state;
+
+        private final long startNanos;
+
+        private final long endNanos;
+
+        private final Outcome outcome;
+
+        Operation(State state, long startNanos, long endNanos, Outcome outcome) {
+            this.state = state;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+            this.outcome = outcome;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package contention;
+
+import contention.StarHistory.Outcome;
+import contention.StarHistory.State;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests of final states allowed by histories of star operations built in memory, no API is called
+ */
+class StarHistoryTest {
+
+    private static final boolean STAR = true;
+
+    private static final boolean UNSTAR = false;
+
+    @Test
+    @DisplayName("without operations the gist keeps initial state")
+    void noOperations() {
+        assertThat(new StarHistory().possibleFinalStates(State.STARRED), equalTo(EnumSet.of(State.STARRED)));
+    }
+
+    @Test
+    @DisplayName("of non-overlapping acknowledged operations only the last one decides")
+    void sequentialAcknowledged() {
+        StarHistory history = new StarHistory();
+        history.add(STAR, 0, 10, Outcome.ACKNOWLEDGED);
+        history.add(UNSTAR, 20, 30, Outcome.ACKNOWLEDGED);
+        assertThat(history.possibleFinalStates(State.STARRED), equalTo(EnumSet.of(State.UNSTARRED)));
+    }
+
+    @Test
+    @DisplayName("overlapping acknowledged operations may be linearized in either order")
+    void overlappingAcknowledged() {
+        StarHistory history = new StarHistory();
+        history.add(STAR, 0, 20, Outcome.ACKNOWLEDGED);
+        history.add(UNSTAR, 10, 30, Outcome.ACKNOWLEDGED);
+        assertThat(history.possibleFinalStates(State.UNSTARRED),
+                equalTo(EnumSet.of(State.STARRED, State.UNSTARRED)));
+    }
+
+    @Test
+    @DisplayName("operation finished before the last acknowledged one was sent can't be the last")
+    void earlierOperationIsOverwritten() {
+        StarHistory history = new StarHistory();
+        history.add(STAR, 0, 10, Outcome.ACKNOWLEDGED);
+        history.add(UNSTAR, 1, 5, Outcome.ACKNOWLEDGED);
+        history.add(STAR, 20, 30, Outcome.ACKNOWLEDGED);
+        assertThat(history.possibleFinalStates(State.UNSTARRED), equalTo(EnumSet.of(State.STARRED)));
+    }
+
+    @Test
+    @DisplayName("rejected operations are not applied")
+    void rejectedOperations() {
+        StarHistory history = new StarHistory();
+        history.add(STAR, 0, 10, Outcome.ACKNOWLEDGED);
+        history.add(UNSTAR, 20, 30, Outcome.REJECTED);
+        assertThat(history.possibleFinalStates(State.UNSTARRED), equalTo(EnumSet.of(State.STARRED)));
+
+        StarHistory onlyRejected = new StarHistory();
+        onlyRejected.add(UNSTAR, 0, 10, Outcome.REJECTED);
+        assertThat(onlyRejected.possibleFinalStates(State.STARRED), equalTo(EnumSet.of(State.STARRED)));
+    }
+
+    @Test
+    @DisplayName("operation with unknown outcome may or may not be applied")
+    void unknownOutcome() {
+        StarHistory history = new StarHistory();
+        history.add(STAR, 0, 10, Outcome.ACKNOWLEDGED);
+        history.add(UNSTAR, 20, 30, Outcome.UNKNOWN);
+        assertThat(history.possibleFinalStates(State.UNSTARRED),
+                equalTo(EnumSet.of(State.STARRED, State.UNSTARRED)));
+
+        StarHistory onlyUnknown = new StarHistory();
+        onlyUnknown.add(STAR, 0, 10, Outcome.UNKNOWN);
+        assertThat(onlyUnknown.possibleFinalStates(State.UNSTARRED),
+                equalTo(EnumSet.of(State.STARRED, State.UNSTARRED)));
+    }
+}
@@ -0,0 +1,94 @@
+package dependency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+import org.junit.jupiter.api.extension.TestWatcher;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Starts every test when states it {@link Requires} are reached and marks states it {@link Produces}
+ * reached or unreachable by its result, tests of the class must be ordered by {@link DependencyOrderer}
+ * Wall time, total time of tests and critical path of every class are written to the file from
+ * system property gist.dependency.file, target/gist-dependencies.json by default
+ */
+public class DependencyExtension implements BeforeEachCallback, InvocationInterceptor, AfterEachCallback, TestWatcher,
+        AfterAllCallback {
+
+    private static final Path REPORT_FILE = Paths.get(
+            System.getProperty("gist.dependency.file", "target/gist-dependencies.json"));
+
+    private static final Map<String, Object> SUMMARIES = new TreeMap<>();
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        DependencyGraph.of(context.getRequiredTestClass()).started(context.getRequiredTestMethod());
+    }
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+                                    ExtensionContext extensionContext) throws Throwable {
+        DependencyGraph graph = DependencyGraph.of(extensionContext.getRequiredTestClass());
+        Method test = invocationContext.getExecutable();
+        graph.awaitRequirements(test);
+        long start = System.nanoTime();
+        try {
+            invocation.proceed();
+        } catch (Throwable e) {
+            graph.failed(test, "failed: " + e);
+            throw e;
+        }
+        graph.passed(test, start, System.nanoTime());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        DependencyGraph.of(context.getRequiredTestClass()).finished(context.getRequiredTestMethod());
+    }
+
+    @Override
+    public void testDisabled(ExtensionContext context, Optional<String> reason) {
+        context.getTestMethod().ifPresent(test ->
+                DependencyGraph.of(context.getRequiredTestClass()).failed(test, "is disabled"));
+    }
+
+    /**
+     * Test may fail outside of its method, e.g. in @BeforeEach
+     */
+    @Override
+    public void testFailed(ExtensionContext context, Throwable cause) {
+        context.getTestMethod().ifPresent(test ->
+                DependencyGraph.of(context.getRequiredTestClass()).failed(test, "failed: " + cause));
+    }
+
+    @Override
+    public void testAborted(ExtensionContext context, Throwable cause) {
+        context.getTestMethod().ifPresent(test ->
+                DependencyGraph.of(context.getRequiredTestClass()).failed(test, "is aborted: " + cause));
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) throws IOException {
+        DependencyGraph graph = DependencyGraph.of(context.getRequiredTestClass());
+        synchronized (SUMMARIES) {
+            SUMMARIES.put(graph.getTestClass().getName(), graph.summary());
+            Files.createDirectories(REPORT_FILE.toAbsolutePath().getParent());
+            new ObjectMapper().
+                    enable(SerializationFeature.INDENT_OUTPUT).
+                    writeValue(REPORT_FILE.toFile(), SUMMARIES);
+        }
+    }
+}
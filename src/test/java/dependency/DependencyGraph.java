@@ -0,0 +1,365 @@
+package dependency;
+
+import org.junit.jupiter.api.Test;
+import org.opentest4j.TestAbortedException;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests of one class connected by states they produce and require
+ * Graph is built when tests are discovered, see {@link DependencyOrderer}, and keeps states of the run:
+ * state is reached when its test passes and can't be reached when its test fails, is aborted, disabled
+ * or not selected to run
+ * Tests filtered out after discovery, e.g. by -Dtest=Class#method, are still in the graph, so a state is also
+ * unreachable when its test hasn't started while no test of the class was running for gist.dependency.stallMillis
+ */
+final class DependencyGraph {
+
+    private static final ConcurrentMap<Class<?>, DependencyGraph> GRAPHS = new ConcurrentHashMap<>();
+
+    private static final long STALL_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Long.getLong("gist.dependency.stallMillis", 2000));
+
+    private final Class<?> testClass;
+
+    /**
+     * Tests of the run in order which satisfies all dependencies
+     */
+    private final List<Method> order;
+
+    /**
+     * Tests which produce states required by test
+     */
+    private final Map<Method, List<Method>> predecessors = new HashMap<>();
+
+    private final Map<String, Method> producers = new HashMap<>();
+
+    private final Map<String, CompletableFuture<Void>> states = new HashMap<>();
+
+    private final ConcurrentMap<Method, long[]> intervals = new ConcurrentHashMap<>();
+
+    private final Set<Method> started = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Number of started tests which are not finished and are not waiting for states
+     */
+    private final AtomicInteger running = new AtomicInteger();
+
+    private volatile long lastActivityNanos = System.nanoTime();
+
+    private DependencyGraph(Class<?> testClass, List<Method> tests) {
+        this.testClass = testClass;
+
+        List<Method> declared = declaredMethods(testClass);
+        for (Method method : declared) {
+            for (String state : produces(method)) {
+                Method other = producers.put(state, method);
+                if (other != null) {
+                    throw new IllegalStateException("State '" + state + "' of " + testClass.getName()
+                            + " is produced by both " + other.getName() + " and " + method.getName());
+                }
+            }
+        }
+        for (Method method : declared) {
+            if ((method.isAnnotationPresent(Produces.class) || method.isAnnotationPresent(Requires.class))
+                    && !method.isAnnotationPresent(Test.class)) {
+                throw new IllegalStateException("Only @Test methods can have dependencies, "
+                        + testClass.getName() + "." + method.getName() + " is not one");
+            }
+            for (String state : requires(method)) {
+                if (!producers.containsKey(state)) {
+                    throw new IllegalStateException(testClass.getName() + "." + method.getName()
+                            + " requires '" + state + "' which no test produces");
+                }
+            }
+        }
+
+        producers.forEach((state, producer) -> {
+            CompletableFuture<Void> reached = new CompletableFuture<>();
+            if (!tests.contains(producer)) {
+                reached.completeExceptionally(new IllegalStateException(producer.getName() + " is not run"));
+            }
+            states.put(state, reached);
+        });
+        for (Method test : tests) {
+            List<Method> before = new ArrayList<>();
+            for (String state : requires(test)) {
+                Method producer = producers.get(state);
+                if (tests.contains(producer) && !before.contains(producer)) {
+                    before.add(producer);
+                }
+            }
+            predecessors.put(test, before);
+        }
+        this.order = sort(tests);
+    }
+
+    /**
+     * Build graph of tests selected to run and keep it for execution
+     *
+     * @param testClass class of tests
+     * @param tests     tests of the class selected to run in discovery order
+     * @return graph of tests
+     * @throws IllegalStateException if a state is produced twice, isn't produced at all or tests form a cycle
+     */
+    static DependencyGraph build(Class<?> testClass, List<Method> tests) {
+        DependencyGraph graph = new DependencyGraph(testClass, tests);
+        GRAPHS.put(testClass, graph);
+        return graph;
+    }
+
+    /**
+     * @param testClass class of tests
+     * @return graph of tests of the class
+     * @throws IllegalStateException if tests of the class aren't ordered by {@link DependencyOrderer}
+     */
+    static DependencyGraph of(Class<?> testClass) {
+        DependencyGraph graph = GRAPHS.get(testClass);
+        if (graph == null) {
+            throw new IllegalStateException(testClass.getName() + " must be annotated with "
+                    + "@TestMethodOrder(DependencyOrderer.class)");
+        }
+        return graph;
+    }
+
+    /**
+     * @return tests in order which satisfies all dependencies, so sequential run needs no waiting
+     */
+    List<Method> order() {
+        return order;
+    }
+
+    /**
+     * Mark test started, called before its @BeforeEach methods
+     */
+    void started(Method test) {
+        started.add(test);
+        running.incrementAndGet();
+        lastActivityNanos = System.nanoTime();
+    }
+
+    /**
+     * Mark test finished, called after its @AfterEach methods
+     */
+    void finished(Method test) {
+        running.decrementAndGet();
+        lastActivityNanos = System.nanoTime();
+    }
+
+    /**
+     * Wait until all states required by test are reached
+     * Waiting thread is reported to ForkJoinPool of JUnit as blocked, so the pool starts another thread
+     * and tests which produce required states are not starved
+     *
+     * @param test test to start
+     * @throws TestAbortedException if a required state can't be reached
+     */
+    void awaitRequirements(Method test) throws InterruptedException {
+        for (String state : requires(test)) {
+            CompletableFuture<Void> reached = states.get(state);
+            running.decrementAndGet();
+            try {
+                ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                    @Override
+                    public boolean block() throws InterruptedException {
+                        try {
+                            reached.get(STALL_NANOS, TimeUnit.NANOSECONDS);
+                        } catch (ExecutionException ignored) {
+                            // checked below
+                        } catch (TimeoutException e) {
+                            failIfNotStarted(state);
+                        }
+                        return reached.isDone();
+                    }
+
+                    @Override
+                    public boolean isReleasable() {
+                        return reached.isDone();
+                    }
+                });
+            } finally {
+                running.incrementAndGet();
+                lastActivityNanos = System.nanoTime();
+            }
+            if (reached.isCompletedExceptionally()) {
+                String reason = "requires '" + state + "' which is not reached: " + cause(reached);
+                failed(test, reason);
+                throw new TestAbortedException(test.getName() + " " + reason);
+            }
+        }
+    }
+
+    /**
+     * State can't be reached if its test hasn't started while nothing was running for stall time:
+     * queued tests are started by JUnit as soon as running tests wait, so it won't be started at all
+     */
+    private void failIfNotStarted(String state) {
+        Method producer = producers.get(state);
+        if (!started.contains(producer) && running.get() == 0
+                && System.nanoTime() - lastActivityNanos > STALL_NANOS) {
+            states.get(state).completeExceptionally(new IllegalStateException(producer.getName() + " is not run"));
+        }
+    }
+
+    /**
+     * Mark states of passed test reached
+     */
+    void passed(Method test, long startNanos, long endNanos) {
+        intervals.put(test, new long[]{startNanos, endNanos});
+        for (String state : produces(test)) {
+            states.get(state).complete(null);
+        }
+    }
+
+    /**
+     * Mark states of test which didn't pass unreachable, states of passed test are kept
+     */
+    void failed(Method test, String reason) {
+        for (String state : produces(test)) {
+            states.get(state).completeExceptionally(new IllegalStateException(test.getName() + " " + reason));
+        }
+    }
+
+    /**
+     * Get durations of the run: wall time of all tests, sum of their durations and duration of the longest chain
+     * of dependent tests, which is the shortest possible wall time with enough threads
+     *
+     * @return summary which can be written as JSON
+     */
+    Map<String, Object> summary() {
+        Map<Method, Long> finish = new HashMap<>();
+        Map<Method, Method> previous = new HashMap<>();
+        long total = 0;
+        long firstStart = Long.MAX_VALUE;
+        long lastEnd = Long.MIN_VALUE;
+        Method last = null;
+        for (Method test : order) {
+            long[] interval = intervals.get(test);
+            if (interval == null) {
+                continue;
+            }
+            long duration = interval[1] - interval[0];
+            total += duration;
+            firstStart = Math.min(firstStart, interval[0]);
+            lastEnd = Math.max(lastEnd, interval[1]);
+
+            long start = 0;
+            for (Method predecessor : predecessors.get(test)) {
+                Long predecessorFinish = finish.get(predecessor);
+                if (predecessorFinish != null && predecessorFinish > start) {
+                    start = predecessorFinish;
+                    previous.put(test, predecessor);
+                }
+            }
+            finish.put(test, start + duration);
+            if (last == null || finish.get(test) > finish.get(last)) {
+                last = test;
+            }
+        }
+
+        Deque<String> criticalPath = new ArrayDeque<>();
+        for (Method test = last; test != null; test = previous.get(test)) {
+            criticalPath.addFirst(test.getName());
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("tests", intervals.size());
+        summary.put("wallMillis", last == null ? 0 : millis(lastEnd - firstStart));
+        summary.put("totalMillis", millis(total));
+        summary.put("criticalPathMillis", last == null ? 0 : millis(finish.get(last)));
+        summary.put("criticalPath", criticalPath);
+        return summary;
+    }
+
+    Class<?> getTestClass() {
+        return testClass;
+    }
+
+    /**
+     * Kahn's algorithm, tests which are ready at the same time keep discovery order
+     */
+    private List<Method> sort(List<Method> tests) {
+        Map<Method, Integer> waiting = new HashMap<>();
+        for (Method test : tests) {
+            waiting.put(test, predecessors.get(test).size());
+        }
+        List<Method> sorted = new ArrayList<>(tests.size());
+        while (sorted.size() < tests.size()) {
+            Method next = null;
+            for (Method test : tests) {
+                if (waiting.get(test) == 0) {
+                    next = test;
+                    break;
+                }
+            }
+            if (next == null) {
+                List<Method> cycle = new ArrayList<>(tests);
+                cycle.removeAll(sorted);
+                throw new IllegalStateException("Tests of " + testClass.getName() + " depend on each other: "
+                        + names(cycle));
+            }
+            sorted.add(next);
+            waiting.put(next, -1);
+            for (Method test : tests) {
+                if (predecessors.get(test).contains(next)) {
+                    waiting.merge(test, -1, Integer::sum);
+                }
+            }
+        }
+        return sorted;
+    }
+
+    private static List<Method> declaredMethods(Class<?> testClass) {
+        List<Method> methods = new ArrayList<>();
+        for (Class<?> type = testClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Method method : type.getDeclaredMethods()) {
+                methods.add(method);
+            }
+        }
+        return methods;
+    }
+
+    private static String[] produces(Method method) {
+        Produces produces = method.getAnnotation(Produces.class);
+        return produces == null ? new String[0] : produces.value();
+    }
+
+    private static String[] requires(Method method) {
+        Requires requires = method.getAnnotation(Requires.class);
+        return requires == null ? new String[0] : requires.value();
+    }
+
+    private static String cause(CompletableFuture<Void> reached) {
+        try {
+            reached.join();
+            return "";
+        } catch (RuntimeException e) {
+            return e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+        }
+    }
+
+    private static List<String> names(List<Method> methods) {
+        List<String> names = new ArrayList<>();
+        methods.forEach(method -> names.add(method.getName()));
+        return names;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
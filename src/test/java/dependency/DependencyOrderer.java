@@ -0,0 +1,40 @@
+package dependency;
+
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Orders tests by states they {@link Produces} and {@link Requires} instead of fixed numbers
+ * Tests run in dependency order when parallel execution is disabled. When it is enabled, tests of the class
+ * run concurrently and {@link DependencyExtension} holds every test until its required states are reached,
+ * so independent chains overlap and the class takes as long as its longest chain
+ */
+public class DependencyOrderer implements MethodOrderer {
+
+    @Override
+    public void orderMethods(MethodOrdererContext context) {
+        List<Method> tests = new ArrayList<>();
+        for (MethodDescriptor descriptor : context.getMethodDescriptors()) {
+            tests.add(descriptor.getMethod());
+        }
+        List<Method> order = DependencyGraph.build(context.getTestClass(), tests).order();
+        context.getMethodDescriptors().sort(Comparator.comparingInt(descriptor ->
+                order.indexOf(descriptor.getMethod())));
+    }
+
+    /**
+     * Unlike other orderers, order doesn't require sequential execution
+     */
+    @Override
+    public Optional<ExecutionMode> getDefaultExecutionMode() {
+        return Optional.of(ExecutionMode.CONCURRENT);
+    }
+}
@@ -0,0 +1,19 @@
+package dependency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * States which are reached when the test passes, e.g. "public gist created"
+ * Every state is produced by one test of the class, tests which {@link Requires} it wait for it
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Produces {
+
+    String[] value();
+}
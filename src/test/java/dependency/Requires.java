@@ -0,0 +1,19 @@
+package dependency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * States which must be reached before the test starts, see {@link Produces}
+ * Test is aborted if a required state can't be reached because its test failed, was disabled or isn't run
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Requires {
+
+    String[] value();
+}
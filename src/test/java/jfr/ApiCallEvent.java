@@ -0,0 +1,57 @@
+package jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * One request to gists API sent through request specifications, duration is latency of the call
+ */
+@Name("gists.ApiCall")
+@Label("Gist API Call")
+@Category({"Gists API Tests", "HTTP"})
+@Description("Request to gists API with its endpoint, status, sizes and auth context")
+public class ApiCallEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Endpoint")
+    @Description("Normalized endpoint, e.g. GET /gists/{id}")
+    public String endpoint;
+
+    @Label("URI")
+    @Description("URI without query, which may carry client secret")
+    public String uri;
+
+    @Label("Status Code")
+    public int status;
+
+    @Label("Request Size")
+    @DataAmount
+    public long requestBytes;
+
+    @Label("Response Size")
+    @DataAmount
+    @Description("Size of response body after decoding")
+    public long responseBytes;
+
+    @Label("Response Size on Wire")
+    @DataAmount
+    public long wireBytes;
+
+    @Label("Time to First Byte")
+    @Timespan
+    public long firstByte;
+
+    @Label("Auth Context")
+    @Description("Authorization of request: oauth2, token, bearer, basic, client or none")
+    public String auth;
+
+    @Label("Test")
+    @Description("Test or fixture phase which sent the request")
+    public String test;
+}
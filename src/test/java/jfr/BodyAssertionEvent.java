@@ -0,0 +1,36 @@
+package jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One assertion on response body or extraction of value from it, duration is time of path evaluation and matching
+ */
+@Name("gists.BodyAssertion")
+@Label("Body Assertion")
+@Category({"Gists API Tests", "Assertions"})
+@Description("Assertion on response body or extraction of value by path")
+public class BodyAssertionEvent extends jdk.jfr.Event {
+
+    @Label("Kind")
+    @Description("assertion, extraction or streaming assertion")
+    public String kind;
+
+    @Label("Endpoint")
+    public String endpoint;
+
+    @Label("Path")
+    @Description("GPath expression or JSON pointers")
+    public String path;
+
+    @Label("Matcher")
+    public String matcher;
+
+    @Label("Passed")
+    public boolean passed;
+
+    @Label("Test")
+    public String test;
+}
@@ -0,0 +1,181 @@
+package jfr;
+
+import io.restassured.response.ExtractableResponse;
+import io.restassured.response.Response;
+import io.restassured.response.ValidatableResponse;
+import io.restassured.response.ValidatableResponseLogSpec;
+import org.hamcrest.Matcher;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Records {@link BodyAssertionEvent} for body assertions and path extractions of RestAssured responses
+ * RestAssured has no hook around then().body(...) and extract().path(...), so response is wrapped by proxy
+ * which times these calls and wraps validatable and extractable responses returned by it
+ * Responses are wrapped only while the event is recorded, otherwise they are returned as is
+ */
+public final class BodyAssertions {
+
+    /**
+     * Results of these types are wrapped, so their body and path calls are recorded too
+     * Return types of fluent methods are erased generics, so type is chosen by result
+     */
+    private static final List<Class<?>> WRAPPED = Arrays.asList(
+            Response.class, ValidatableResponse.class, ValidatableResponseLogSpec.class, ExtractableResponse.class);
+
+    private BodyAssertions() {
+    }
+
+    /**
+     * Wrap response if body assertions are recorded
+     *
+     * @param response response of request
+     * @param endpoint normalized endpoint of request
+     * @return response which records body assertions or the same response
+     */
+    public static Response wrap(Response response, String endpoint) {
+        if (!new BodyAssertionEvent().isEnabled()) {
+            return response;
+        }
+        return (Response) proxy(response, endpoint);
+    }
+
+    /**
+     * Record assertion which isn't made by RestAssured, e.g. streaming assertion of JSON body
+     *
+     * @param kind      kind of assertion
+     * @param path      checked paths
+     * @param matcher   description of expectations
+     * @param assertion assertion which throws AssertionError if it fails
+     */
+    public static void record(String kind, String path, String matcher, Runnable assertion) {
+        BodyAssertionEvent event = new BodyAssertionEvent();
+        event.begin();
+        boolean passed = false;
+        try {
+            assertion.run();
+            passed = true;
+        } finally {
+            commit(event, kind, null, path, matcher, passed);
+        }
+    }
+
+    /**
+     * Proxy implements all wrapped interfaces of target, e.g. RestAssured response is extractable response too
+     */
+    private static Object proxy(Object target, String endpoint) {
+        List<Class<?>> interfaces = new ArrayList<>();
+        for (Class<?> type : WRAPPED) {
+            if (type.isInstance(target)) {
+                interfaces.add(type);
+            }
+        }
+        return Proxy.newProxyInstance(BodyAssertions.class.getClassLoader(), interfaces.toArray(new Class<?>[0]),
+                new Recorder(target, endpoint));
+    }
+
+    private static void commit(BodyAssertionEvent event, String kind, String endpoint, String path, String matcher,
+                               boolean passed) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.kind = kind;
+            event.endpoint = endpoint;
+            event.path = path;
+            event.matcher = matcher;
+            event.passed = passed;
+            event.test = CurrentTest.get();
+            event.commit();
+        }
+    }
+
+    /**
+     * Delegates every call to wrapped object and records body and path calls
+     */
+    private static class Recorder implements InvocationHandler {
+
+        private final Object target;
+
+        private final String endpoint;
+
+        Recorder(Object target, String endpoint) {
+            this.target = target;
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String kind = kind(method);
+            BodyAssertionEvent event = kind == null ? null : new BodyAssertionEvent();
+            if (event != null) {
+                event.begin();
+            }
+            boolean passed = false;
+            Object result;
+            try {
+                result = method.invoke(target, args);
+                passed = true;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            } finally {
+                if (event != null) {
+                    commit(event, kind, endpoint, path(args), matcher(args), passed);
+                }
+            }
+
+            if (result == target) {
+                return proxy;
+            }
+            if (result != null && !Proxy.isProxyClass(result.getClass())) {
+                for (Class<?> type : WRAPPED) {
+                    if (type.isInstance(result) && method.getReturnType().isAssignableFrom(type)) {
+                        return proxy(result, endpoint);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private String kind(Method method) {
+            if (target instanceof ValidatableResponse && method.getName().equals("body")) {
+                return "assertion";
+            }
+            if (method.getName().equals("path")) {
+                return "extraction";
+            }
+            return null;
+        }
+
+        private static String path(Object[] args) {
+            return args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+        }
+
+        /**
+         * Describe matchers of assertion, arguments of path are skipped
+         */
+        private static String matcher(Object[] args) {
+            if (args == null) {
+                return null;
+            }
+            StringBuilder matcher = new StringBuilder();
+            for (Object arg : args) {
+                if (arg instanceof Matcher) {
+                    matcher.append(matcher.length() > 0 ? ", " : "").append(arg);
+                } else if (arg instanceof Object[] || arg instanceof Collection) {
+                    for (Object item : arg instanceof Collection ? ((Collection<?>) arg).toArray() : (Object[]) arg) {
+                        if (item instanceof Matcher) {
+                            matcher.append(matcher.length() > 0 ? ", " : "").append(item);
+                        }
+                    }
+                }
+            }
+            return matcher.length() > 0 ? matcher.toString() : null;
+        }
+    }
+}
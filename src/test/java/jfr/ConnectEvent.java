@@ -0,0 +1,31 @@
+package jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Opening of connection by the shared pool, duration includes TLS handshake of secure connections
+ */
+@Name("gists.Connect")
+@Label("Connect")
+@Category({"Gists API Tests", "HTTP"})
+@Description("TCP connect and TLS handshake of new pooled connection")
+public class ConnectEvent extends jdk.jfr.Event {
+
+    @Label("Host")
+    public String host;
+
+    @Label("Address")
+    public String address;
+
+    @Label("Port")
+    public int port;
+
+    @Label("Secure")
+    public boolean secure;
+
+    @Label("Success")
+    public boolean success;
+}
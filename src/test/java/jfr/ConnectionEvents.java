@@ -0,0 +1,134 @@
+package jfr;
+
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeLayeredSocketFactory;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.scheme.SchemeSocketFactory;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.params.HttpParams;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+
+/**
+ * Records {@link DnsLookupEvent} and {@link ConnectEvent} of connections opened by the shared pool
+ */
+@SuppressWarnings("deprecation")
+public final class ConnectionEvents {
+
+    private ConnectionEvents() {
+    }
+
+    /**
+     * Get resolver of host names which records every lookup
+     *
+     * @return system default resolver with events
+     */
+    public static DnsResolver dnsResolver() {
+        return host -> {
+            DnsLookupEvent event = new DnsLookupEvent();
+            event.begin();
+            InetAddress[] addresses = null;
+            try {
+                addresses = SystemDefaultDnsResolver.INSTANCE.resolve(host);
+                return addresses;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.host = host;
+                    event.success = addresses != null;
+                    event.addresses = addresses == null ? null : Arrays.toString(addresses);
+                    event.commit();
+                }
+            }
+        };
+    }
+
+    /**
+     * Wrap socket factories of all schemes, so every connect is recorded
+     *
+     * @param registry schemes of HTTP client
+     * @return the same registry with wrapped factories
+     */
+    public static SchemeRegistry schemeRegistry(SchemeRegistry registry) {
+        for (String name : registry.getSchemeNames()) {
+            Scheme scheme = registry.getScheme(name);
+            SchemeSocketFactory factory = scheme.getSchemeSocketFactory();
+            registry.register(new Scheme(name, scheme.getDefaultPort(), factory instanceof SchemeLayeredSocketFactory
+                    ? new LayeredRecordingFactory((SchemeLayeredSocketFactory) factory)
+                    : new RecordingFactory(factory)));
+        }
+        return registry;
+    }
+
+    /**
+     * Socket factory which records connect of every socket
+     */
+    private static class RecordingFactory implements SchemeSocketFactory {
+
+        private final SchemeSocketFactory factory;
+
+        RecordingFactory(SchemeSocketFactory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public Socket createSocket(HttpParams params) throws IOException {
+            return factory.createSocket(params);
+        }
+
+        @Override
+        public Socket connectSocket(Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                    HttpParams params)
+                throws IOException, UnknownHostException, ConnectTimeoutException {
+            ConnectEvent event = new ConnectEvent();
+            event.begin();
+            Socket connected = null;
+            try {
+                connected = factory.connectSocket(socket, remoteAddress, localAddress, params);
+                return connected;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.host = remoteAddress.getHostName();
+                    event.address = remoteAddress.getAddress() == null ? null
+                            : remoteAddress.getAddress().getHostAddress();
+                    event.port = remoteAddress.getPort();
+                    event.secure = connected != null && factory.isSecure(connected);
+                    event.success = connected != null;
+                    event.commit();
+                }
+            }
+        }
+
+        @Override
+        public boolean isSecure(Socket socket) {
+            return factory.isSecure(socket);
+        }
+    }
+
+    /**
+     * Factory of secure sockets, layering over tunnel is left as is
+     */
+    private static class LayeredRecordingFactory extends RecordingFactory implements SchemeLayeredSocketFactory {
+
+        private final SchemeLayeredSocketFactory factory;
+
+        LayeredRecordingFactory(SchemeLayeredSocketFactory factory) {
+            super(factory);
+            this.factory = factory;
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpParams params)
+                throws IOException, UnknownHostException {
+            return factory.createLayeredSocket(socket, target, port, params);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package jfr;
+
+/**
+ * Name of test or fixture phase run by the current thread, recorded with events
+ */
+public final class CurrentTest {
+
+    private static final ThreadLocal<String> NAME = new ThreadLocal<>();
+
+    private CurrentTest() {
+    }
+
+    /**
+     * @return name of test, e.g. AuthorizedGistTest.createPublicGist, or null outside of tests
+     */
+    public static String get() {
+        return NAME.get();
+    }
+
+    /**
+     * Set name of test run by the current thread
+     *
+     * @param name name of test or null when test is finished
+     * @return previous name
+     */
+    static String set(String name) {
+        String previous = NAME.get();
+        if (name == null) {
+            NAME.remove();
+        } else {
+            NAME.set(name);
+        }
+        return previous;
+    }
+}
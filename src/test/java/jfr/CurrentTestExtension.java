@@ -0,0 +1,36 @@
+package jfr;
+
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Sets {@link CurrentTest} for every test class and method, registered for all tests by
+ * META-INF/services/org.junit.jupiter.api.extension.Extension
+ */
+public class CurrentTestExtension implements BeforeAllCallback, AfterAllCallback, BeforeEachCallback,
+        AfterEachCallback {
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        CurrentTest.set(context.getRequiredTestClass().getSimpleName());
+    }
+
+    @Override
+    public void afterAll(ExtensionContext context) {
+        CurrentTest.set(null);
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        CurrentTest.set(context.getRequiredTestClass().getSimpleName() + "."
+                + context.getRequiredTestMethod().getName());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        CurrentTest.set(context.getRequiredTestClass().getSimpleName());
+    }
+}
@@ -0,0 +1,23 @@
+package jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Resolution of host name before the shared pool opens connection
+ */
+@Name("gists.DnsLookup")
+@Label("DNS Lookup")
+@Category({"Gists API Tests", "HTTP"})
+public class DnsLookupEvent extends jdk.jfr.Event {
+
+    @Label("Host")
+    public String host;
+
+    @Label("Addresses")
+    public String addresses;
+
+    @Label("Success")
+    public boolean success;
+}
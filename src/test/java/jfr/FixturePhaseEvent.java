@@ -0,0 +1,51 @@
+package jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.function.Supplier;
+
+/**
+ * One phase of creation or deletion of shared test fixtures, e.g. access token or public gist
+ */
+@Name("gists.FixturePhase")
+@Label("Fixture Phase")
+@Category({"Gists API Tests", "Fixtures"})
+@Description("Phase of creation or deletion of test fixtures")
+public class FixturePhaseEvent extends jdk.jfr.Event {
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Success")
+    public boolean success;
+
+    /**
+     * Run phase as test "fixture {phase}", so calls of the phase are attributed to it, and record its duration
+     *
+     * @param phase  name of phase
+     * @param action action of phase
+     * @return result of action
+     */
+    public static <T> T record(String phase, Supplier<T> action) {
+        FixturePhaseEvent event = new FixturePhaseEvent();
+        event.begin();
+        String test = CurrentTest.set("fixture " + phase);
+        boolean success = false;
+        try {
+            T result = action.get();
+            success = true;
+            return result;
+        } finally {
+            CurrentTest.set(test);
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = phase;
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jfr.BodyAssertions;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.StringDescription;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Assertions on JSON body which are checked in one pass of Jackson streaming parser without building
+ * object graph of the whole body
+ * Paths are JSON pointers, e.g. /0/files/newSecretGistFile.txt/filename, missing values are null
+ * like in RestAssured JsonPath. Paths added after {@link #element(String, Object)} are relative to the element
+ * of root array which has given field value, like JsonPath root("find { it.id == '...' }")
+ * Subtrees which don't contain any path are skipped and parsing stops as soon as all values are found
+ * Body of RestAssured response is read from the connection unless a filter has read it, e.g. the response cache
+ */
+public final class StreamingJsonAssertion {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, Expectation> absolute = new LinkedHashMap<>();
+
+    private final Map<String, Expectation> scoped = new LinkedHashMap<>();
+
+    private String selectorField;
+
+    private Object selectorValue;
+
+    private StreamingJsonAssertion() {
+    }
+
+    /**
+     * Start assertion of JSON body
+     *
+     * @return empty assertion
+     */
+    public static StreamingJsonAssertion assertThatJson() {
+        return new StreamingJsonAssertion();
+    }
+
+    /**
+     * Select element of root array, following paths are relative to this element
+     *
+     * @param field name of field of element
+     * @param value value of the field
+     * @return this assertion
+     */
+    public StreamingJsonAssertion element(String field, Object value) {
+        selectorField = field;
+        selectorValue = value;
+        return this;
+    }
+
+    /**
+     * Expect value at the path to match
+     *
+     * @param pointer JSON pointer to value
+     * @param matcher matcher of value
+     * @return this assertion
+     */
+    public StreamingJsonAssertion path(String pointer, Matcher<?> matcher) {
+        Map<String, Expectation> expectations = selectorField == null ? absolute : scoped;
+        expectations.put(pointer, new Expectation(pointer, matcher));
+        return this;
+    }
+
+    /**
+     * Parse body and check all expectations
+     *
+     * @param body JSON body
+     * @throws AssertionError with description of all mismatches
+     */
+    public void verify(InputStream body) {
+        List<String> pointers = new ArrayList<>();
+        List<String> matchers = new ArrayList<>();
+        for (Expectation expectation : absolute.values()) {
+            pointers.add(expectation.pointer);
+            matchers.add(String.valueOf(expectation.matcher));
+        }
+        for (Expectation expectation : scoped.values()) {
+            pointers.add("[" + selectorField + " = " + selectorValue + "]" + expectation.pointer);
+            matchers.add(String.valueOf(expectation.matcher));
+        }
+        BodyAssertions.record("streaming assertion", String.join(", ", pointers), String.join(", ", matchers),
+                () -> check(body));
+    }
+
+    private void check(InputStream body) {
+        Walk walk = new Walk();
+        try (JsonParser parser = MAPPER.getFactory().createParser(body)) {
+            if (parser.nextToken() != null) {
+                walk.value(parser, new ArrayList<>());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to parse JSON body", e);
+        }
+
+        StringBuilder errors = new StringBuilder();
+        absolute.values().forEach(expectation ->
+                expectation.check(walk.values.get(expectation.pointer), "", errors));
+        if (selectorField != null) {
+            if (walk.selected == null) {
+                errors.append("No element of root array with ").append(selectorField).append(" = ")
+                        .append(selectorValue).append('\n');
+            } else {
+                String scope = "[" + selectorField + " = " + selectorValue + "]";
+                scoped.values().forEach(expectation ->
+                        expectation.check(walk.selected.get(expectation.pointer), scope, errors));
+            }
+        }
+        if (errors.length() > 0) {
+            throw new AssertionError(errors.toString());
+        }
+    }
+
+    private static String pointer(List<String> path, int from) {
+        StringBuilder pointer = new StringBuilder();
+        for (int i = from; i < path.size(); i++) {
+            pointer.append('/').append(path.get(i).replace("~", "~0").replace("/", "~1"));
+        }
+        return pointer.toString();
+    }
+
+    private static boolean isPrefix(String prefix, String pointer) {
+        return pointer.startsWith(prefix) && (pointer.length() == prefix.length()
+                || pointer.charAt(prefix.length()) == '/');
+    }
+
+    /**
+     * State of one pass over body
+     */
+    private class Walk {
+
+        private final Map<String, Object> values = new HashMap<>();
+
+        /**
+         * Values of the current element of root array and of the selected element
+         */
+        private Map<String, Object> element;
+
+        private Map<String, Object> selected;
+
+        /**
+         * True when selector field of the current element has different value
+         */
+        private boolean rejected;
+
+        /**
+         * Parser is at the first token of value which has given path
+         */
+        void value(JsonParser parser, List<String> path) throws IOException {
+            JsonToken token = parser.currentToken();
+            String pointer = pointer(path, 0);
+            boolean inElement = selectorField != null && path.size() >= 1 && element != null;
+            String relative = inElement ? pointer(path, 1) : null;
+
+            if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+                if (absolute.containsKey(pointer) || inElement && scoped.containsKey(relative)) {
+                    store(pointer, relative, MAPPER.readValue(parser, Object.class));
+                } else if (!needs(pointer, relative)) {
+                    parser.skipChildren();
+                } else if (token == JsonToken.START_OBJECT) {
+                    while (!isDone() && parser.nextToken() == JsonToken.FIELD_NAME) {
+                        path.add(parser.getCurrentName());
+                        parser.nextToken();
+                        value(parser, path);
+                        path.remove(path.size() - 1);
+                    }
+                } else {
+                    for (int index = 0; !isDone() && parser.nextToken() != JsonToken.END_ARRAY; index++) {
+                        boolean rootElement = path.isEmpty() && selectorField != null;
+                        if (rootElement) {
+                            element = new HashMap<>();
+                            rejected = false;
+                        }
+                        path.add(String.valueOf(index));
+                        value(parser, path);
+                        path.remove(path.size() - 1);
+                        if (rootElement) {
+                            if (!rejected && Objects.equals(element.get("/" + selectorField), selectorValue)) {
+                                selected = element;
+                            }
+                            element = null;
+                        }
+                    }
+                }
+                decideMissing(pointer);
+                return;
+            }
+
+            Object scalar = token == JsonToken.VALUE_NULL ? null : MAPPER.readValue(parser, Object.class);
+            if (inElement && relative.equals("/" + selectorField) && !Objects.equals(scalar, selectorValue)) {
+                rejected = true;
+            }
+            store(pointer, relative, scalar);
+        }
+
+        private void store(String pointer, String relative, Object value) {
+            if (absolute.containsKey(pointer)) {
+                values.put(pointer, value);
+            }
+            if (relative != null && (scoped.containsKey(relative) || relative.equals("/" + selectorField))) {
+                element.put(relative, value);
+            }
+        }
+
+        /**
+         * Container with given path is finished, so expected values inside it which were not found are null
+         */
+        private void decideMissing(String pointer) {
+            for (String expected : absolute.keySet()) {
+                if (isPrefix(pointer, expected)) {
+                    values.putIfAbsent(expected, null);
+                }
+            }
+        }
+
+        /**
+         * Check whether subtree with given path contains any expected value
+         */
+        private boolean needs(String pointer, String relative) {
+            for (String expected : absolute.keySet()) {
+                if (isPrefix(pointer, expected)) {
+                    return true;
+                }
+            }
+            if (selectorField == null || selected != null) {
+                return false;
+            }
+            if (relative == null) {
+                // root array contains the selected element
+                return pointer.isEmpty();
+            }
+            if (rejected) {
+                return false;
+            }
+            if (isPrefix(relative, "/" + selectorField)) {
+                return true;
+            }
+            for (String expected : scoped.keySet()) {
+                if (isPrefix(relative, expected)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isDone() {
+            return values.size() == absolute.size() && (selectorField == null || selected != null);
+        }
+    }
+
+    /**
+     * Expected value at one path
+     */
+    private static class Expectation {
+
+        private final String pointer;
+
+        private final Matcher<?> matcher;
+
+        Expectation(String pointer, Matcher<?> matcher) {
+            JsonPointer.compile(pointer);
+            this.pointer = pointer;
+            this.matcher = matcher;
+        }
+
+        void check(Object actual, String scope, StringBuilder errors) {
+            if (matcher.matches(actual)) {
+                return;
+            }
+            Description description = new StringDescription();
+            description.appendText("JSON path ").appendText(scope + pointer).appendText(" doesn't match.")
+                    .appendText("\nExpected: ").appendDescriptionOf(matcher)
+                    .appendText("\n  Actual: ");
+            matcher.describeMismatch(actual, description);
+            errors.append(description).append('\n');
+        }
+    }
+}
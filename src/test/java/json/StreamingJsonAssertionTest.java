@@ -0,0 +1,109 @@
+package json;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static json.StreamingJsonAssertion.assertThatJson;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of the streaming assertion engine on bodies built in memory, no API is called
+ */
+class StreamingJsonAssertionTest {
+
+    private static final String GISTS = "["
+            + "{\"id\":\"aaa\",\"public\":true,\"files\":{\"a.txt\":{\"filename\":\"a.txt\"}}},"
+            + "{\"id\":\"bbb\",\"public\":false,\"files\":{\"b.txt\":{\"filename\":\"b.txt\"}}}"
+            + "]";
+
+    @Test
+    @DisplayName("~0 and ~1 in pointer stand for ~ and / in field names")
+    void escapedPointer() {
+        assertThatJson().
+                path("/files/dir~1a~0b.txt/size", equalTo(3)).
+                path("/files/dir~1a~0b.txt/filename", equalTo("dir/a~b.txt")).
+                verify(body("{\"files\":{\"dir/a~b.txt\":{\"filename\":\"dir/a~b.txt\",\"size\":3}}}"));
+    }
+
+    @Test
+    @DisplayName("unescaped / in pointer doesn't match field name with /")
+    void unescapedPointer() {
+        assertThatJson().
+                path("/files/dir/a.txt", nullValue()).
+                verify(body("{\"files\":{\"dir/a.txt\":{\"size\":3}}}"));
+    }
+
+    @Test
+    @DisplayName("paths after element() are relative to the element of root array with given field value")
+    void selectedElement() {
+        assertThatJson().
+                path("/0/id", equalTo("aaa")).
+                element("id", "bbb").
+                path("/public", equalTo(false)).
+                path("/files/b.txt/filename", equalTo("b.txt")).
+                verify(body(GISTS));
+    }
+
+    @Test
+    @DisplayName("element() reports root array without element with given field value")
+    void noSelectedElement() {
+        AssertionError error = assertThrows(AssertionError.class, () -> assertThatJson().
+                element("id", "ccc").
+                path("/public", equalTo(false)).
+                verify(body(GISTS)));
+        assertThat(error.getMessage(), containsString("No element of root array with id = ccc"));
+    }
+
+    @Test
+    @DisplayName("element() doesn't mix values of other elements")
+    void otherElementIsNotSelected() {
+        AssertionError error = assertThrows(AssertionError.class, () -> assertThatJson().
+                element("id", "bbb").
+                path("/files/a.txt/filename", equalTo("a.txt")).
+                verify(body(GISTS)));
+        assertThat(error.getMessage(), containsString("[id = bbb]/files/a.txt/filename"));
+    }
+
+    @Test
+    @DisplayName("parsing stops when all expected values are found")
+    void earlyStop() {
+        // rest of body is malformed, it fails the assertion only if it is parsed
+        assertThatJson().
+                path("/0/id", equalTo("aaa")).
+                verify(body("[{\"id\":\"aaa\"}, {\"id\": oops"));
+        assertThatJson().
+                element("id", "aaa").
+                path("/public", equalTo(true)).
+                verify(body("[{\"id\":\"aaa\",\"public\":true}, {\"id\": oops"));
+    }
+
+    @Test
+    @DisplayName("missing path is null")
+    void missingPath() {
+        assertThatJson().
+                path("/1/id", nullValue()).
+                path("/0/files/c.txt", nullValue()).
+                verify(body("[{\"id\":\"aaa\",\"files\":{}}]"));
+    }
+
+    @Test
+    @DisplayName("missing path fails matcher of non-null value with its pointer in the message")
+    void missingPathMismatch() {
+        AssertionError error = assertThrows(AssertionError.class, () -> assertThatJson().
+                path("/0/description", equalTo("gist")).
+                verify(body(GISTS)));
+        assertThat(error.getMessage(), containsString("JSON path /0/description doesn't match."));
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,121 @@
+package largefile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Escapes UTF-8 bytes of source stream as content of JSON string while they are read:
+ * quotes, backslashes and control characters, other bytes are passed as they are
+ * Only buffers of constant size are used, so content of any size is never kept in memory
+ */
+class JsonStringInputStream extends InputStream {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+
+    private final InputStream source;
+
+    private final byte[] in = new byte[BUFFER_SIZE];
+
+    /**
+     * Escaped bytes, every source byte takes at most 6 bytes: \\u00XX
+     */
+    private final byte[] out = new byte[BUFFER_SIZE * 6];
+
+    private int position;
+
+    private int limit;
+
+    private boolean finished;
+
+    JsonStringInputStream(InputStream source) {
+        this.source = source;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return out[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int count = Math.min(length, limit - position);
+        System.arraycopy(out, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    /**
+     * Escape next chunk of source if the current one is consumed
+     *
+     * @return false at the end of source
+     */
+    private boolean fill() throws IOException {
+        while (position == limit) {
+            if (finished) {
+                return false;
+            }
+            int read = source.read(in);
+            if (read < 0) {
+                finished = true;
+                return false;
+            }
+            position = 0;
+            limit = escape(read);
+        }
+        return true;
+    }
+
+    private int escape(int length) {
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            byte b = in[i];
+            switch (b) {
+                case '"':
+                case '\\':
+                    out[size++] = '\\';
+                    out[size++] = b;
+                    break;
+                case '\n':
+                    out[size++] = '\\';
+                    out[size++] = 'n';
+                    break;
+                case '\r':
+                    out[size++] = '\\';
+                    out[size++] = 'r';
+                    break;
+                case '\t':
+                    out[size++] = '\\';
+                    out[size++] = 't';
+                    break;
+                default:
+                    if (b >= 0 && b < 0x20) {
+                        out[size++] = '\\';
+                        out[size++] = 'u';
+                        out[size++] = '0';
+                        out[size++] = '0';
+                        out[size++] = HEX[b >> 4];
+                        out[size++] = HEX[b & 0xF];
+                    } else {
+                        out[size++] = b;
+                    }
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,120 @@
+package largefile;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+/**
+ * Tests of streaming escaper of file content on streams built in memory, no API is called
+ */
+class JsonStringInputStreamTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @Test
+    @DisplayName("quotes, backslashes and control characters are escaped, JSON string decodes to source")
+    void escapedCharacters() throws IOException {
+        String content = "say \"hi\" \\ path\n\r\t\u0000\u0008\u000c\u001f end";
+        assertThat(new String(escape(content.getBytes(StandardCharsets.UTF_8)), StandardCharsets.US_ASCII),
+                equalTo("say \\\"hi\\\" \\\\ path\\n\\r\\t\\u0000\\u0008\\u000c\\u001f end"));
+        assertThat(decode(content), equalTo(content));
+    }
+
+    @Test
+    @DisplayName("multi-byte UTF-8 characters are passed as they are")
+    void multiByteCharacters() throws IOException {
+        String content = "é 中 😀 𝄞";
+        byte[] source = content.getBytes(StandardCharsets.UTF_8);
+        assertThat(escape(source), equalTo(source));
+        assertThat(decode(content), equalTo(content));
+    }
+
+    @Test
+    @DisplayName("content larger than buffer which doubles when escaped is read whole, also byte by byte")
+    void largeContent() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            content.append("\"😀\n");
+        }
+        byte[] source = content.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] escaped = escape(source);
+
+        ByteArrayOutputStream byByte = new ByteArrayOutputStream();
+        try (InputStream in = new JsonStringInputStream(new ByteArrayInputStream(source))) {
+            for (int b = in.read(); b >= 0; b = in.read()) {
+                byByte.write(b);
+            }
+        }
+        assertThat(byByte.toByteArray(), equalTo(escaped));
+        assertThat(decode(content.toString()), equalTo(content.toString()));
+    }
+
+    @Test
+    @DisplayName("source which returns one byte per read gives the same result")
+    void tricklingSource() throws IOException {
+        String content = "a\"b\\c\nd 中";
+        byte[] source = content.getBytes(StandardCharsets.UTF_8);
+        InputStream trickle = new FilterInputStream(new ByteArrayInputStream(source)) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, 1));
+            }
+        };
+        assertThat(readAll(new JsonStringInputStream(trickle)), equalTo(escape(source)));
+    }
+
+    @Test
+    @DisplayName("empty read doesn't consume source and close closes source")
+    void emptyReadAndClose() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream source = new ByteArrayInputStream("ab".getBytes(StandardCharsets.US_ASCII)) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        InputStream in = new JsonStringInputStream(source);
+        assertThat(in.read(new byte[4], 0, 0), equalTo(0));
+        assertThat(in.read(), equalTo((int) 'a'));
+        in.close();
+        assertThat(closed.get(), equalTo(true));
+    }
+
+    private static byte[] escape(byte[] source) throws IOException {
+        return readAll(new JsonStringInputStream(new ByteArrayInputStream(source)));
+    }
+
+    /**
+     * Put escaped content between quotes and read it back by Jackson
+     */
+    private static String decode(String content) throws IOException {
+        byte[] escaped = escape(content.getBytes(StandardCharsets.UTF_8));
+        byte[] json = new byte[escaped.length + 2];
+        json[0] = '"';
+        System.arraycopy(escaped, 0, json, 1, escaped.length);
+        json[json.length - 1] = '"';
+        return MAPPER.readValue(json, String.class);
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream source = in) {
+            byte[] buffer = new byte[1000];
+            for (int read = source.read(buffer); read >= 0; read = source.read(buffer)) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,117 @@
+package largefile;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * File of given size on disk with known SHA-256 digest, used as content of large gist file
+ * Content is deterministic text with characters which are escaped in JSON, so file of the same size
+ * is generated once and reused by later runs
+ */
+public final class LargeFile {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+
+    private final long size;
+
+    private final String sha256;
+
+    private LargeFile(Path path, long size, String sha256) {
+        this.path = path;
+        this.size = size;
+        this.sha256 = sha256;
+    }
+
+    /**
+     * Get file of given size from directory, file is generated if it doesn't exist
+     *
+     * @param directory directory of generated files
+     * @param size      size of file in bytes
+     * @return file with its digest
+     */
+    public static LargeFile of(Path directory, long size) {
+        Path path = directory.resolve("gist-" + size + ".txt");
+        try {
+            if (!Files.exists(path) || Files.size(path) != size) {
+                Files.createDirectories(directory);
+                Path temporary = Files.createTempFile(directory, "gist-" + size, ".tmp");
+                generate(temporary, size);
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            try (DigestInputStream in = new DigestInputStream(Files.newInputStream(path), sha256Digest())) {
+                return new LargeFile(path, size, digest(in));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create large file " + path, e);
+        }
+    }
+
+    /**
+     * Read stream to the end with buffer of constant size
+     *
+     * @param in stream which computes digest
+     * @return hex SHA-256 of read content
+     */
+    static String digest(DigestInputStream in) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        while (in.read(buffer) >= 0) {
+            // digest is updated by stream
+        }
+        return hex(in.getMessageDigest().digest());
+    }
+
+    static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void generate(Path path, long size) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE)) {
+            long written = 0;
+            for (long line = 0; written < size; line++) {
+                byte[] bytes = String.format("\"%010d\"\tline of large gist file\\n\n", line).
+                        getBytes(StandardCharsets.US_ASCII);
+                int length = (int) Math.min(bytes.length, size - written);
+                out.write(bytes, 0, length);
+                written += length;
+            }
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return hex SHA-256 of content
+     */
+    public String getSha256() {
+        return sha256;
+    }
+}
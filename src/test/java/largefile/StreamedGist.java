@@ -0,0 +1,168 @@
+package largefile;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import config.GistConnectionPool;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.RequestSpecification;
+import metrics.CountingInputStream;
+import metrics.EndpointMetrics;
+import metrics.ResponseDecoding;
+import metrics.TransferMetrics;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.DigestInputStream;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Uploads content of large file to a gist and downloads it back by raw_url in constant memory
+ * Request body is streamed from disk with content escaped on the fly and raw content is read
+ * from the connection with incremental digest, throughput of both is recorded to {@link TransferMetrics}
+ * Request body is a {@link CountingInputStream}, so latency filter records the number of bytes sent
+ */
+public final class StreamedGist {
+
+    /**
+     * Prefix of description of every gist with large file, used to find leftovers
+     */
+    public static final String DESCRIPTION_MARKER = "gist-large-file";
+
+    /**
+     * Raw content isn't served by gists API, so all downloads are counted as one endpoint
+     */
+    private static final String RAW_ENDPOINT = "GET raw_url";
+
+    private StreamedGist() {
+    }
+
+    /**
+     * Create gist with one file which has content of large file
+     *
+     * @param spec     specification of owner
+     * @param file     large file
+     * @param filename name of file in gist
+     * @return response of POST /gists, its body has only the first megabyte of content
+     */
+    public static Response create(RequestSpecification spec, LargeFile file, String filename) {
+        try {
+            String prefix = "{\"description\":\"" + DESCRIPTION_MARKER + " " + file.getSize()
+                    + "\",\"public\":false,\"files\":{\"" + escape(filename) + "\":{\"content\":\"";
+            CountingInputStream body = new CountingInputStream(new SequenceInputStream(Collections.enumeration(
+                    Arrays.asList(
+                            new ByteArrayInputStream(prefix.getBytes(StandardCharsets.UTF_8)),
+                            new JsonStringInputStream(Files.newInputStream(file.getPath())),
+                            new ByteArrayInputStream("\"}}}".getBytes(StandardCharsets.UTF_8))))));
+            try {
+                FilterableRequestSpecification request = (FilterableRequestSpecification) given().spec(spec);
+                long start = System.nanoTime();
+                Response response = request.
+                        config(streamed(request.getConfig())).
+                        contentType(ContentType.JSON).
+                        body(body).
+                        when().
+                        post();
+                TransferMetrics.record("upload", file.getSize(), System.nanoTime() - start);
+                return response;
+            } finally {
+                body.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + file.getPath(), e);
+        }
+    }
+
+    /**
+     * Download raw content through the shared connection pool and compute its digest without keeping it in memory
+     *
+     * @param rawUrl raw_url of file
+     * @return size and digest of content
+     */
+    public static Download download(String rawUrl) {
+        HttpGet request = new HttpGet(rawUrl);
+        long start = System.nanoTime();
+        try {
+            HttpResponse response = GistConnectionPool.httpClient().execute(request);
+            long firstByte = System.nanoTime() - start;
+            int status = response.getStatusLine().getStatusCode();
+            HttpEntity entity = response.getEntity();
+            if (status != 200 || entity == null) {
+                EntityUtils.consumeQuietly(entity);
+                EndpointMetrics.record(RAW_ENDPOINT, System.nanoTime() - start, firstByte, 0, 0, 0, -1, status);
+                throw new IllegalStateException("GET " + rawUrl + " returned " + status);
+            }
+            try (CountingInputStream counting = new CountingInputStream(entity.getContent());
+                 DigestInputStream content = new DigestInputStream(counting, LargeFile.sha256Digest())) {
+                String sha256 = LargeFile.digest(content);
+                long elapsed = System.nanoTime() - start;
+                ResponseDecoding.Decoding decoding = ResponseDecoding.last();
+                EndpointMetrics.record(RAW_ENDPOINT, elapsed, firstByte, 0, counting.getCount(),
+                        decoding == null ? counting.getCount() : decoding.getWireBytes(),
+                        decoding == null ? -1 : decoding.getDecompressionNanos(), status);
+                return new Download(counting.getCount(), sha256, TransferMetrics.record("download", counting.getCount(), elapsed));
+            }
+        } catch (IOException e) {
+            request.abort();
+            throw new UncheckedIOException("Failed to download " + rawUrl, e);
+        }
+    }
+
+    /**
+     * RestAssured reads InputStream body into memory when it is encoded as JSON,
+     * so JSON body is sent as binary which is streamed with chunked transfer encoding
+     */
+    private static RestAssuredConfig streamed(RestAssuredConfig config) {
+        return config.encoderConfig(config.getEncoderConfig().
+                encodeContentTypeAs(ContentType.JSON.toString(), ContentType.BINARY));
+    }
+
+    private static String escape(String value) {
+        return new String(JsonStringEncoder.getInstance().quoteAsString(value));
+    }
+
+    /**
+     * Downloaded content
+     */
+    public static class Download {
+
+        private final long size;
+
+        private final String sha256;
+
+        private final double megabytesPerSecond;
+
+        Download(long size, String sha256, double megabytesPerSecond) {
+            this.size = size;
+            this.sha256 = sha256;
+            this.megabytesPerSecond = megabytesPerSecond;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * @return hex SHA-256 of content
+         */
+        public String getSha256() {
+            return sha256;
+        }
+
+        public double getMegabytesPerSecond() {
+            return megabytesPerSecond;
+        }
+    }
+}
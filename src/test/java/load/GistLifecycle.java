@@ -0,0 +1,128 @@
+package load;
+
+import config.GistPayload;
+import config.GistTestConfigurationConstants;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import ratelimit.RateLimitWait;
+
+import java.util.function.Supplier;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Session of one user which repeats gist workflow of AuthorizedGistTest:
+ * create, read, star, check star, unstar, check unstar, update, add file, delete file, delete and fork
+ * User has only one fork of gist, so all sessions of the user get the same fork which is not deleted by sessions,
+ * it is the fork of test configuration and is deleted once when test session is finished
+ */
+public class GistLifecycle {
+
+    private final RequestSpecification authorized;
+
+    /**
+     * @param authorized specification of user who runs the session
+     */
+    public GistLifecycle(RequestSpecification authorized) {
+        this.authorized = authorized;
+    }
+
+    /**
+     * Run session, every request is sent right after the previous one is finished
+     * Session is stopped at the first request with unexpected response
+     *
+     * @param metrics            metrics of current load phase
+     * @param intendedStartNanos time when session was intended to be started
+     * @return true if all requests of session were successful
+     */
+    public boolean run(LoadMetrics metrics, long intendedStartNanos) {
+        Session session = new Session(metrics, intendedStartNanos);
+        boolean success = false;
+        try {
+            String id = session.step("POST /gists", 201, () -> given().
+                    spec(authorized).
+                    contentType(ContentType.JSON).
+                    body(GistPayload.CREATE_PUBLIC_GIST.bytes()).
+                    post()).
+                    path("id");
+
+            session.step("GET /gists/{id}", 200, () -> given().spec(authorized).get(id));
+            session.step("PUT /gists/{id}/star", 204, () -> given().spec(authorized).put(id + "/star"));
+            session.step("GET /gists/{id}/star", 204, () -> given().spec(authorized).get(id + "/star"));
+            session.step("DELETE /gists/{id}/star", 204, () -> given().spec(authorized).delete(id + "/star"));
+            session.step("GET /gists/{id}/star", 404, () -> given().spec(authorized).get(id + "/star"));
+            session.step("PATCH /gists/{id}", 200, () -> patch(id, GistPayload.UPDATE_PUBLIC_GIST));
+            session.step("PATCH /gists/{id}", 200, () -> patch(id, GistPayload.CREATE_NEW_GIST_FILE));
+            session.step("PATCH /gists/{id}", 200, () -> patch(id, GistPayload.DELETE_GIST_FILE));
+            session.step("DELETE /gists/{id}", 204, () -> given().spec(authorized).delete(id));
+            session.step("POST /gists/{id}/forks", 201, () -> given().
+                    spec(authorized).
+                    post(GistTestConfigurationConstants.ID_OF_GIST_FOR_FORK + "/forks"));
+            success = true;
+        } catch (StepFailedException e) {
+            // already recorded as error of the step
+        }
+        metrics.recordSession(System.nanoTime() - intendedStartNanos - session.pacingNanos, success);
+        return success;
+    }
+
+    private Response patch(String id, GistPayload payload) {
+        return given().
+                spec(authorized).
+                contentType(ContentType.JSON).
+                body(payload.bytes()).
+                patch(id);
+    }
+
+    /**
+     * Steps of one session, latency of each step is measured from the end of previous one
+     * without time the step waited for rate limit budget
+     */
+    private static class Session {
+
+        private final LoadMetrics metrics;
+
+        private long intendedNanos;
+
+        /**
+         * Time all steps waited for rate limit budget
+         */
+        private long pacingNanos;
+
+        Session(LoadMetrics metrics, long intendedStartNanos) {
+            this.metrics = metrics;
+            this.intendedNanos = intendedStartNanos;
+        }
+
+        Response step(String endpoint, int expectedStatus, Supplier<Response> request) {
+            Response response = null;
+            RateLimitWait.reset();
+            try {
+                response = request.get();
+            } catch (RuntimeException e) {
+                // network error is recorded as failed request
+            }
+            long end = System.nanoTime();
+            long pacing = RateLimitWait.nanos();
+            boolean success = response != null && response.getStatusCode() == expectedStatus;
+
+            metrics.recordRequest(endpoint, end - intendedNanos, pacing, success);
+            pacingNanos += pacing;
+            intendedNanos = end;
+            if (!success) {
+                throw new StepFailedException();
+            }
+            return response;
+        }
+    }
+
+    private static class StepFailedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        StepFailedException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package load;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs gist lifecycle sessions according to load profile
+ */
+public final class LoadGenerator {
+
+    /**
+     * How long to wait for sessions which are still running when load is finished
+     */
+    private static final long DRAIN_TIMEOUT_SECONDS = 60;
+
+    private LoadGenerator() {
+    }
+
+    /**
+     * Run load and collect metrics of ramp-up and steady state phases
+     *
+     * @param lifecycle session to run
+     * @param profile   shape of load
+     * @return metrics of both phases
+     */
+    public static LoadReport run(GistLifecycle lifecycle, LoadProfile profile) throws InterruptedException {
+        LoadReport report = new LoadReport(profile);
+        if (profile.getMode() == LoadProfile.Mode.OPEN) {
+            runOpen(lifecycle, profile, report);
+        } else {
+            runClosed(lifecycle, profile, report);
+        }
+        return report;
+    }
+
+    /**
+     * Start sessions at their intended times without waiting for previous sessions, every session
+     * has its own thread, so slow responses don't delay arrivals
+     */
+    private static void runOpen(GistLifecycle lifecycle, LoadProfile profile, LoadReport report)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newCachedThreadPool(threads("gist-load-session"));
+        long durationNanos = profile.getRampUpNanos() + profile.getSteadyNanos();
+        long start = System.nanoTime();
+
+        for (long session = 0; ; session++) {
+            long offset = profile.arrivalOffsetNanos(session);
+            if (offset >= durationNanos) {
+                break;
+            }
+            long intendedStart = start + offset;
+            LoadMetrics metrics = report.metricsAt(offset);
+
+            parkUntil(intendedStart);
+            executor.execute(() -> lifecycle.run(metrics, intendedStart));
+        }
+        drain(executor);
+    }
+
+    /**
+     * Start virtual users evenly during ramp-up, every user runs sessions one after another until the end
+     * Closed model measures latency from the actual start of session, so stalls reduce the load instead of
+     * being reported
+     */
+    private static void runClosed(GistLifecycle lifecycle, LoadProfile profile, LoadReport report)
+            throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(profile.getUsers(), threads("gist-load-user"));
+        long durationNanos = profile.getRampUpNanos() + profile.getSteadyNanos();
+        long start = System.nanoTime();
+
+        for (int user = 0; user < profile.getUsers(); user++) {
+            long userStart = start + profile.userStartOffsetNanos(user);
+            executor.execute(() -> {
+                parkUntil(userStart);
+                for (long now = System.nanoTime(); now - start < durationNanos; now = System.nanoTime()) {
+                    lifecycle.run(report.metricsAt(now - start), now);
+                }
+            });
+        }
+        drain(executor);
+    }
+
+    private static void parkUntil(long nanoTime) {
+        for (long delay = nanoTime - System.nanoTime(); delay > 0; delay = nanoTime - System.nanoTime()) {
+            LockSupport.parkNanos(delay);
+        }
+    }
+
+    private static void drain(ExecutorService executor) throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ThreadFactory threads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
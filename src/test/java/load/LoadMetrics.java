@@ -0,0 +1,144 @@
+package load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors of one load phase, grouped by endpoint
+ * Latency is measured from the time when request was intended to be sent, so stalls of load generator
+ * are not hidden by coordinated omission, time spent waiting for rate limit budget is subtracted from latency
+ * and recorded separately as pacing
+ */
+public class LoadMetrics {
+
+    /**
+     * Highest latency which can be recorded, in microseconds
+     */
+    private static final long HIGHEST_LATENCY_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final ConcurrentMap<String, Histogram> latencies = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Histogram> pacing = new ConcurrentHashMap<>();
+
+    private final Histogram sessionLatency = newHistogram();
+
+    private final LongAdder failedSessions = new LongAdder();
+
+    /**
+     * Record finished request
+     *
+     * @param endpoint     normalized endpoint, e.g. {@code GET /gists/{id}}
+     * @param latencyNanos time from intended start of request to received response
+     * @param success      whether response has expected status
+     */
+    public void recordRequest(String endpoint, long latencyNanos, boolean success) {
+        recordRequest(endpoint, latencyNanos, 0, success);
+    }
+
+    /**
+     * Record finished request which waited for rate limit budget
+     *
+     * @param endpoint     normalized endpoint, e.g. {@code GET /gists/{id}}
+     * @param latencyNanos time from intended start of request to received response including pacing
+     * @param pacingNanos  time spent waiting for rate limit budget, see {@link ratelimit.RateLimitWait}
+     * @param success      whether response has expected status
+     */
+    public void recordRequest(String endpoint, long latencyNanos, long pacingNanos, boolean success) {
+        latencies.computeIfAbsent(endpoint, key -> newHistogram()).
+                recordValue(micros(latencyNanos - pacingNanos));
+        if (pacingNanos > 0) {
+            pacing.computeIfAbsent(endpoint, key -> newHistogram()).recordValue(micros(pacingNanos));
+        }
+        if (!success) {
+            errors.computeIfAbsent(endpoint, key -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Record finished session
+     *
+     * @param latencyNanos time from intended start of session to its end without pacing of its requests
+     * @param success      whether all requests of session were successful
+     */
+    public void recordSession(long latencyNanos, boolean success) {
+        sessionLatency.recordValue(micros(latencyNanos));
+        if (!success) {
+            failedSessions.increment();
+        }
+    }
+
+    public long getSessions() {
+        return sessionLatency.getTotalCount();
+    }
+
+    public long getFailedSessions() {
+        return failedSessions.sum();
+    }
+
+    /**
+     * Get summary of phase which can be written as JSON
+     *
+     * @param durationNanos duration of phase
+     * @return throughput and latency percentiles of sessions and every endpoint
+     */
+    public Map<String, Object> summary(long durationNanos) {
+        double seconds = durationNanos / (double) TimeUnit.SECONDS.toNanos(1);
+
+        Map<String, Object> endpoints = new TreeMap<>();
+        latencies.forEach((endpoint, histogram) -> {
+            LongAdder endpointErrors = errors.get(endpoint);
+            Map<String, Object> endpointSummary = summary(histogram,
+                    endpointErrors == null ? 0 : endpointErrors.sum(), seconds);
+            Histogram endpointPacing = pacing.get(endpoint);
+            if (endpointPacing != null) {
+                endpointSummary.put("pacedRequests", endpointPacing.getTotalCount());
+                endpointSummary.put("pacingP50Millis", millis(endpointPacing.getValueAtPercentile(50)));
+                endpointSummary.put("pacingMaxMillis", millis(endpointPacing.getMaxValue()));
+            }
+            endpoints.put(endpoint, endpointSummary);
+        });
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("durationSeconds", seconds);
+        summary.put("sessions", summary(sessionLatency, getFailedSessions(), seconds));
+        summary.put("endpoints", endpoints);
+        return summary;
+    }
+
+    private static Map<String, Object> summary(Histogram histogram, long errors, double seconds) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("errors", errors);
+        summary.put("throughputPerSecond", seconds > 0 ? histogram.getTotalCount() / seconds : 0);
+        summary.put("p50Millis", millis(histogram.getValueAtPercentile(50)));
+        summary.put("p90Millis", millis(histogram.getValueAtPercentile(90)));
+        summary.put("p99Millis", millis(histogram.getValueAtPercentile(99)));
+        summary.put("p999Millis", millis(histogram.getValueAtPercentile(99.9)));
+        summary.put("maxMillis", millis(histogram.getMaxValue()));
+        return summary;
+    }
+
+    private static long micros(long nanos) {
+        return Math.max(0, Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_LATENCY_MICROS));
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(HIGHEST_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+    }
+}
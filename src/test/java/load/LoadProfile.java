@@ -0,0 +1,121 @@
+package load;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shape of load: workload model, target rate or number of virtual users and duration of phases
+ * Profile is configured with system properties:
+ * gist.load.mode (open or closed), gist.load.rate (sessions per second for open model),
+ * gist.load.users (virtual users for closed model), gist.load.rampUpSeconds and gist.load.steadySeconds
+ */
+public final class LoadProfile {
+
+    /**
+     * Workload model
+     */
+    public enum Mode {
+
+        /**
+         * Sessions arrive at fixed rate independently of how fast previous sessions finish
+         */
+        OPEN,
+
+        /**
+         * Every virtual user starts next session as soon as previous one is finished
+         */
+        CLOSED
+    }
+
+    private final Mode mode;
+
+    /**
+     * Target number of started sessions per second in steady state
+     */
+    private final double rate;
+
+    private final int users;
+
+    private final long rampUpNanos;
+
+    private final long steadyNanos;
+
+    public LoadProfile(Mode mode, double rate, int users, long rampUpSeconds, long steadySeconds) {
+        if (rate <= 0 || users <= 0 || rampUpSeconds < 0 || steadySeconds <= 0) {
+            throw new IllegalArgumentException("Rate, users and steady state duration must be positive");
+        }
+        this.mode = mode;
+        this.rate = rate;
+        this.users = users;
+        this.rampUpNanos = TimeUnit.SECONDS.toNanos(rampUpSeconds);
+        this.steadyNanos = TimeUnit.SECONDS.toNanos(steadySeconds);
+    }
+
+    /**
+     * Create profile from system properties
+     *
+     * @return load profile
+     */
+    public static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Mode.valueOf(System.getProperty("gist.load.mode", "open").toUpperCase(Locale.ROOT)),
+                Double.parseDouble(System.getProperty("gist.load.rate", "1")),
+                Integer.getInteger("gist.load.users", 10),
+                Long.getLong("gist.load.rampUpSeconds", 10),
+                Long.getLong("gist.load.steadySeconds", 60));
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public long getRampUpNanos() {
+        return rampUpNanos;
+    }
+
+    public long getSteadyNanos() {
+        return steadyNanos;
+    }
+
+    /**
+     * Get intended start of session in open model
+     * Rate grows linearly from zero during ramp-up and stays constant in steady state
+     *
+     * @param session number of session starting from zero
+     * @return offset of session start from the beginning of load
+     */
+    long arrivalOffsetNanos(long session) {
+        double ratePerNano = rate / TimeUnit.SECONDS.toNanos(1);
+        double rampUpSessions = ratePerNano * rampUpNanos / 2;
+
+        if (session < rampUpSessions) {
+            return (long) Math.sqrt(2 * rampUpNanos * session / ratePerNano);
+        }
+        return rampUpNanos + (long) ((session - rampUpSessions) / ratePerNano);
+    }
+
+    /**
+     * Get start of virtual user in closed model, users are started evenly during ramp-up
+     *
+     * @param user number of user starting from zero
+     * @return offset of user start from the beginning of load
+     */
+    long userStartOffsetNanos(int user) {
+        return rampUpNanos * user / users;
+    }
+
+    @Override
+    public String toString() {
+        return mode == Mode.OPEN
+                ? String.format(Locale.ROOT, "open model, %.2f sessions/s", rate)
+                : String.format(Locale.ROOT, "closed model, %d users", users);
+    }
+}
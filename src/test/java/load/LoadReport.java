@@ -0,0 +1,60 @@
+package load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Metrics of ramp-up and steady state phases of one load run
+ */
+public class LoadReport {
+
+    private final LoadProfile profile;
+
+    private final LoadMetrics rampUp = new LoadMetrics();
+
+    private final LoadMetrics steadyState = new LoadMetrics();
+
+    LoadReport(LoadProfile profile) {
+        this.profile = profile;
+    }
+
+    /**
+     * Get metrics of phase which contains given moment of load
+     *
+     * @param offsetNanos time from the beginning of load
+     * @return metrics of ramp-up or steady state
+     */
+    LoadMetrics metricsAt(long offsetNanos) {
+        return offsetNanos < profile.getRampUpNanos() ? rampUp : steadyState;
+    }
+
+    public LoadMetrics getSteadyState() {
+        return steadyState;
+    }
+
+    /**
+     * Write report as JSON
+     *
+     * @param file file to write
+     */
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().
+                enable(SerializationFeature.INDENT_OUTPUT).
+                writeValue(file.toFile(), summary());
+    }
+
+    private Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("profile", profile.toString());
+        summary.put("rampUp", rampUp.summary(profile.getRampUpNanos()));
+        summary.put("steadyState", steadyState.summary(profile.getSteadyNanos()));
+        return summary;
+    }
+}
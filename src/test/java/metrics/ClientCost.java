@@ -0,0 +1,40 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * CPU time and allocated memory of the current thread, used to measure client-side cost of one request
+ * Values are -1 when JVM doesn't measure them
+ */
+final class ClientCost {
+
+    private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+    private static final boolean CPU_TIME = THREADS != null && THREADS.isCurrentThreadCpuTimeSupported()
+            && THREADS.isThreadCpuTimeEnabled();
+
+    private static final boolean ALLOCATION = THREADS != null && THREADS.isThreadAllocatedMemorySupported()
+            && THREADS.isThreadAllocatedMemoryEnabled();
+
+    private ClientCost() {
+    }
+
+    /**
+     * @return CPU time of the current thread in nanoseconds
+     */
+    static long cpuNanos() {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * @return bytes allocated by the current thread since its start
+     */
+    static long allocatedBytes() {
+        return ALLOCATION ? THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean threads() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return threads instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) threads : null;
+    }
+}
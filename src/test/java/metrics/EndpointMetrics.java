@@ -0,0 +1,237 @@
+package metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Latency, time to first byte, sizes and status codes of all requests of the test run, grouped by endpoint
+ * Size of response is counted both as received from the connection and after decoding of gzip or deflate,
+ * so the report shows how much compression saves and how much CPU time decompression costs
+ * Client-side CPU time and memory allocated by the thread which sent request are counted per request too
+ * Summary is written when JVM exits to the file from system property gist.metrics.file,
+ * target/gist-latency.json by default, histograms of latency and client cost are written to
+ * gist.metrics.histogramsFile, target/gist-latency-histograms.json by default, see {@link HistogramFile}
+ */
+public final class EndpointMetrics {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private static final Path REPORT_FILE = Paths.get(
+            System.getProperty("gist.metrics.file", "target/gist-latency.json"));
+
+    private static final Path HISTOGRAMS_FILE = Paths.get(
+            System.getProperty("gist.metrics.histogramsFile", "target/gist-latency-histograms.json"));
+
+    private static final ConcurrentMap<String, Endpoint> ENDPOINTS = new ConcurrentHashMap<>();
+
+    /**
+     * Additional counters included into the report, e.g. number of opened connections
+     */
+    private static final ConcurrentMap<String, LongSupplier> GAUGES = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(EndpointMetrics::writeReport, "gist-metrics-report"));
+    }
+
+    private EndpointMetrics() {
+    }
+
+    /**
+     * Record finished request
+     *
+     * @param endpoint           normalized endpoint, see {@link EndpointNames}
+     * @param latencyNanos       time from sending request to receiving the whole response
+     * @param firstByteNanos     time from sending request to receiving response headers, negative if unknown
+     * @param requestBytes       size of request body
+     * @param responseBytes      size of response body after decoding
+     * @param wireBytes          size of response body received from the connection
+     * @param decompressionNanos CPU time of decompression, negative if response was not compressed
+     * @param statusCode         status code of response
+     */
+    public static void record(String endpoint, long latencyNanos, long firstByteNanos,
+                              long requestBytes, long responseBytes, long wireBytes, long decompressionNanos,
+                              int statusCode) {
+        Endpoint metrics = ENDPOINTS.computeIfAbsent(endpoint, key -> new Endpoint());
+
+        metrics.latencyMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        if (firstByteNanos >= 0) {
+            metrics.firstByteMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(firstByteNanos));
+        }
+        metrics.requestBytes.recordValue(requestBytes);
+        metrics.responseBytes.recordValue(responseBytes);
+        metrics.wireBytes.recordValue(wireBytes);
+        if (decompressionNanos >= 0) {
+            metrics.decompressionMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(decompressionNanos));
+            metrics.compressedWireBytes.add(wireBytes);
+            metrics.compressedDecodedBytes.add(responseBytes);
+        }
+        metrics.statusCodes.computeIfAbsent(statusCode, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Record client-side cost of finished request
+     *
+     * @param endpoint       normalized endpoint, see {@link EndpointNames}
+     * @param cpuNanos       CPU time of the thread which sent request and read response, negative if unknown
+     * @param allocatedBytes memory allocated by the thread meanwhile, negative if unknown
+     */
+    public static void recordClientCost(String endpoint, long cpuNanos, long allocatedBytes) {
+        Endpoint metrics = ENDPOINTS.computeIfAbsent(endpoint, key -> new Endpoint());
+        if (cpuNanos >= 0) {
+            metrics.clientCpuMicros.recordValue(TimeUnit.NANOSECONDS.toMicros(cpuNanos));
+        }
+        if (allocatedBytes >= 0) {
+            metrics.allocatedBytes.recordValue(allocatedBytes);
+        }
+    }
+
+    /**
+     * Get copies of histograms of latency and client cost of every endpoint
+     *
+     * @return histograms by endpoint and metric: latencyMicros, clientCpuMicros and allocatedBytes
+     */
+    public static Map<String, Map<String, Histogram>> histograms() {
+        Map<String, Map<String, Histogram>> histograms = new TreeMap<>();
+        ENDPOINTS.forEach((name, endpoint) -> {
+            Map<String, Histogram> metrics = new TreeMap<>();
+            metrics.put("latencyMicros", endpoint.latencyMicros.copy());
+            if (endpoint.clientCpuMicros.getTotalCount() > 0) {
+                metrics.put("clientCpuMicros", endpoint.clientCpuMicros.copy());
+            }
+            if (endpoint.allocatedBytes.getTotalCount() > 0) {
+                metrics.put("allocatedBytes", endpoint.allocatedBytes.copy());
+            }
+            histograms.put(name, metrics);
+        });
+        return histograms;
+    }
+
+    /**
+     * Add counter to the report
+     *
+     * @param name  name of counter
+     * @param gauge supplier of current value
+     */
+    public static void addGauge(String name, LongSupplier gauge) {
+        GAUGES.put(name, gauge);
+    }
+
+    /**
+     * Get summary of all endpoints which can be written as JSON
+     *
+     * @return percentiles of latency, time to first byte and sizes of every endpoint
+     */
+    public static Map<String, Object> summary() {
+        Map<String, Object> endpoints = new TreeMap<>();
+        ENDPOINTS.forEach((name, endpoint) -> endpoints.put(name, endpoint.summary()));
+
+        Map<String, Object> gauges = new TreeMap<>();
+        GAUGES.forEach((name, gauge) -> gauges.put(name, gauge.getAsLong()));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("endpoints", endpoints);
+        summary.put("gauges", gauges);
+        return summary;
+    }
+
+    private static void writeReport() {
+        LatencyFilter.recordUnread();
+        if (ENDPOINTS.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(REPORT_FILE.toAbsolutePath().getParent());
+            new ObjectMapper().
+                    enable(SerializationFeature.INDENT_OUTPUT).
+                    writeValue(REPORT_FILE.toFile(), summary());
+            new HistogramFile(System.getProperty("gist.api", "https://api.github.com"), histograms()).
+                    write(HISTOGRAMS_FILE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + REPORT_FILE + " or " + HISTOGRAMS_FILE, e);
+        }
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram, double scale) {
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        percentiles.put("p50", histogram.getValueAtPercentile(50) / scale);
+        percentiles.put("p90", histogram.getValueAtPercentile(90) / scale);
+        percentiles.put("p99", histogram.getValueAtPercentile(99) / scale);
+        percentiles.put("p999", histogram.getValueAtPercentile(99.9) / scale);
+        percentiles.put("max", histogram.getMaxValue() / scale);
+        return percentiles;
+    }
+
+    /**
+     * Metrics of one endpoint
+     */
+    private static class Endpoint {
+
+        private final Histogram latencyMicros = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+        private final Histogram firstByteMicros = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+        private final Histogram requestBytes = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+        private final Histogram responseBytes = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+        private final Histogram wireBytes = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+        private final Histogram clientCpuMicros = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+        private final Histogram allocatedBytes = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+        private final Histogram decompressionMicros = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+        private final LongAdder compressedWireBytes = new LongAdder();
+
+        private final LongAdder compressedDecodedBytes = new LongAdder();
+
+        private final ConcurrentMap<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+
+        Map<String, Object> summary() {
+            Map<String, Object> codes = new TreeMap<>();
+            statusCodes.forEach((code, count) -> codes.put(String.valueOf(code), count.sum()));
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", latencyMicros.getTotalCount());
+            summary.put("statusCodes", codes);
+            summary.put("latencyMillis", percentiles(latencyMicros, 1000.0));
+            summary.put("timeToFirstByteMillis", percentiles(firstByteMicros, 1000.0));
+            summary.put("requestBytes", percentiles(requestBytes, 1));
+            summary.put("responseBytes", percentiles(responseBytes, 1));
+            summary.put("wireResponseBytes", percentiles(wireBytes, 1));
+            if (clientCpuMicros.getTotalCount() > 0) {
+                summary.put("clientCpuMillis", percentiles(clientCpuMicros, 1000.0));
+            }
+            if (allocatedBytes.getTotalCount() > 0) {
+                summary.put("allocatedBytes", percentiles(allocatedBytes, 1));
+            }
+            if (decompressionMicros.getTotalCount() > 0) {
+                Map<String, Object> compression = new LinkedHashMap<>();
+                compression.put("count", decompressionMicros.getTotalCount());
+                compression.put("wireBytes", compressedWireBytes.sum());
+                compression.put("decodedBytes", compressedDecodedBytes.sum());
+                compression.put("ratio", (double) compressedDecodedBytes.sum() / Math.max(compressedWireBytes.sum(), 1));
+                compression.put("decompressionMillis", percentiles(decompressionMicros, 1000.0));
+                summary.put("compression", compression);
+            }
+            return summary;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package metrics;
+
+import java.net.URI;
+
+/**
+ * Normalizes requests to endpoint names, so that requests to different gists are counted together,
+ * e.g. {@code PUT https://api.github.com/gists/aa5a315d/star} becomes {@code PUT /gists/{id}/star}
+ */
+public final class EndpointNames {
+
+    private EndpointNames() {
+    }
+
+    /**
+     * Get name of endpoint
+     *
+     * @param method HTTP method
+     * @param uri    full URI of request
+     * @return method and path where gist ID is replaced by placeholder
+     */
+    public static String normalize(String method, String uri) {
+        String path = URI.create(uri).getRawPath();
+        if (path == null || path.isEmpty()) {
+            path = "/";
+        }
+
+        String[] segments = path.split("/");
+        StringBuilder name = new StringBuilder(method).append(' ');
+        for (int i = 1; i < segments.length; i++) {
+            name.append('/').append(isGistId(segments, i) ? "{id}" : segments[i]);
+        }
+        if (segments.length <= 1) {
+            name.append('/');
+        }
+        return name.toString();
+    }
+
+    /**
+     * Segment after "gists" is gist ID unless it's one of listings
+     */
+    private static boolean isGistId(String[] segments, int index) {
+        return index > 1
+                && "gists".equals(segments[index - 1])
+                && !"starred".equals(segments[index])
+                && !"public".equals(segments[index]);
+    }
+}
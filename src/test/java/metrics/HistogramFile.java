@@ -0,0 +1,148 @@
+package metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.DataFormatException;
+
+/**
+ * Histograms of all endpoints of one or more runs kept in JSON, so they can be compared by another JVM
+ * Every histogram is stored in compressed HdrHistogram encoding as Base64
+ */
+public class HistogramFile {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private String api;
+
+    private int runs;
+
+    /**
+     * Encoded histograms by endpoint and metric, e.g. "GET /gists/{id}" and "latencyMicros"
+     */
+    private Map<String, Map<String, String>> endpoints = new TreeMap<>();
+
+    public HistogramFile() {
+    }
+
+    /**
+     * @param api        value of gist.api the histograms were recorded against
+     * @param histograms histograms by endpoint and metric
+     */
+    public HistogramFile(String api, Map<String, Map<String, Histogram>> histograms) {
+        this.api = api;
+        this.runs = 1;
+        histograms.forEach((endpoint, metrics) -> {
+            Map<String, String> encoded = new TreeMap<>();
+            metrics.forEach((metric, histogram) -> encoded.put(metric, encode(histogram)));
+            endpoints.put(endpoint, encoded);
+        });
+    }
+
+    /**
+     * Read file
+     *
+     * @param file file to read
+     * @return histograms of file
+     */
+    public static HistogramFile read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), HistogramFile.class);
+    }
+
+    /**
+     * Write file
+     *
+     * @param file file to write
+     */
+    public void write(Path file) throws IOException {
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        MAPPER.writeValue(file.toFile(), this);
+    }
+
+    /**
+     * Add histograms of another run against the same API
+     *
+     * @param other histograms of another run
+     */
+    public void add(HistogramFile other) {
+        if (api == null ? other.api != null : !api.equals(other.api)) {
+            throw new IllegalArgumentException("Histograms of " + other.api + " can't be added to " + api);
+        }
+        other.endpoints.forEach((endpoint, metrics) -> metrics.forEach((metric, encoded) -> {
+            Map<String, String> merged = endpoints.computeIfAbsent(endpoint, key -> new TreeMap<>());
+            Histogram histogram = decode(encoded);
+            if (merged.containsKey(metric)) {
+                histogram.add(decode(merged.get(metric)));
+            }
+            merged.put(metric, encode(histogram));
+        }));
+        runs += other.runs;
+    }
+
+    /**
+     * Get decoded histogram
+     *
+     * @param endpoint normalized endpoint
+     * @param metric   name of metric
+     * @return histogram or null if it wasn't recorded
+     */
+    public Histogram histogram(String endpoint, String metric) {
+        Map<String, String> metrics = endpoints.get(endpoint);
+        String encoded = metrics == null ? null : metrics.get(metric);
+        return encoded == null ? null : decode(encoded);
+    }
+
+    public String getApi() {
+        return api;
+    }
+
+    public void setApi(String api) {
+        this.api = api;
+    }
+
+    /**
+     * @return number of runs merged into the file
+     */
+    public int getRuns() {
+        return runs;
+    }
+
+    public void setRuns(int runs) {
+        this.runs = runs;
+    }
+
+    public Map<String, Map<String, String>> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Map<String, String>> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    private static String encode(Histogram histogram) {
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        byte[] bytes = new byte[length];
+        buffer.flip();
+        buffer.get(bytes);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private static Histogram decode(String encoded) {
+        try {
+            return Histogram.decodeFromCompressedByteBuffer(ByteBuffer.wrap(Base64.getDecoder().decode(encoded)), 0);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Invalid histogram", e);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package metrics;
+
+import io.restassured.authentication.AuthenticationScheme;
+import io.restassured.authentication.NoAuthScheme;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import jfr.ApiCallEvent;
+import jfr.BodyAssertions;
+import jfr.CurrentTest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records latency, time to first byte, sizes, decompression time, status code and client-side CPU time
+ * and allocation of every request to {@link EndpointMetrics} and as {@link ApiCallEvent} of Java Flight Recorder
+ * Filter runs right after rate limit scheduling, so latency includes time spent in other filters
+ * but not time spent waiting for rate limit
+ * Response body is not buffered: body which is still on the connection is recorded when the caller reads it
+ * to the end or closes it, with sizes from {@link ResponseDecoding} counters and latency which includes time spent
+ * in reads from the connection but not the caller's work between them. Body which the caller left unread is drained
+ * when the thread sends the next request, so its connection goes back to the pool
+ */
+public class LatencyFilter implements OrderedFilter {
+
+    private static final ThreadLocal<ApiCall> UNREAD = new ThreadLocal<>();
+
+    private static final Set<ApiCall> UNREAD_CALLS = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        ApiCall previous = UNREAD.get();
+        if (previous != null) {
+            previous.drain();
+        }
+        TimeToFirstByte.reset();
+        ResponseDecoding.reset();
+        ApiCall call = new ApiCall();
+        call.event.begin();
+        long startCpu = ClientCost.cpuNanos();
+        long startAllocated = ClientCost.allocatedBytes();
+        call.start = System.nanoTime();
+
+        Response response = ctx.next(requestSpec, responseSpec);
+
+        call.returned = System.nanoTime();
+        long cpu = ClientCost.cpuNanos() - startCpu;
+        long allocated = ClientCost.allocatedBytes() - startAllocated;
+        call.firstByte = TimeToFirstByte.receivedNanos();
+        call.decoding = ResponseDecoding.last();
+        call.endpoint = EndpointNames.normalize(requestSpec.getMethod(), requestSpec.getURI());
+        call.requestBytes = bodySize(requestSpec.getBody());
+        call.status = response.getStatusCode();
+        call.response = response;
+        if (call.decoding == null) {
+            // body of replayed response and of 304 replaced by cached response is in memory, not on the connection
+            call.memoryBytes = response.asByteArray().length;
+        } else {
+            call.waitedBeforeReturn = call.decoding.getWireWaitNanos();
+        }
+        call.method = requestSpec.getMethod();
+        call.uri = withoutQuery(requestSpec.getURI());
+        call.auth = authContext(requestSpec);
+        call.test = CurrentTest.get();
+        EndpointMetrics.recordClientCost(call.endpoint, startCpu < 0 ? -1 : cpu, startAllocated < 0 ? -1 : allocated);
+
+        if (call.decoding == null) {
+            call.record();
+        } else {
+            UNREAD.set(call);
+            UNREAD_CALLS.add(call);
+            call.decoding.whenRead(call::record);
+        }
+        return BodyAssertions.wrap(response, call.endpoint);
+    }
+
+    /**
+     * Record calls whose body was not read yet with bytes read so far, before the report is written
+     */
+    static void recordUnread() {
+        UNREAD_CALLS.forEach(ApiCall::record);
+    }
+
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE + 1;
+    }
+
+    /**
+     * Describe how request is authorized without exposing credentials
+     */
+    private static String authContext(FilterableRequestSpecification requestSpec) {
+        String authorization = requestSpec.getHeaders().getValue("Authorization");
+        if (authorization != null) {
+            int space = authorization.indexOf(' ');
+            return (space > 0 ? authorization.substring(0, space) : "unknown").toLowerCase(Locale.ROOT);
+        }
+        AuthenticationScheme scheme = requestSpec.getAuthenticationScheme();
+        if (scheme != null && !(scheme instanceof NoAuthScheme)) {
+            return scheme.getClass().getSimpleName().replaceAll("^Preemptive|Scheme$|HeaderScheme$", "")
+                    .toLowerCase(Locale.ROOT);
+        }
+        return requestSpec.getQueryParams().containsKey("client_id") ? "client" : "none";
+    }
+
+    /**
+     * Query may carry client_secret or access_token, so only scheme, host and path are recorded
+     */
+    private static String withoutQuery(String uri) {
+        int end = uri.length();
+        int query = uri.indexOf('?');
+        int fragment = uri.indexOf('#');
+        if (query >= 0) {
+            end = query;
+        }
+        if (fragment >= 0 && fragment < end) {
+            end = fragment;
+        }
+        return uri.substring(0, end);
+    }
+
+    /**
+     * Request whose response is recorded once its body is read
+     */
+    private static final class ApiCall {
+
+        private final ApiCallEvent event = new ApiCallEvent();
+
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        private long start;
+
+        private long returned;
+
+        private Long firstByte;
+
+        private ResponseDecoding.Decoding decoding;
+
+        private Response response;
+
+        private long waitedBeforeReturn;
+
+        private long memoryBytes;
+
+        private String endpoint;
+
+        private long requestBytes;
+
+        private int status;
+
+        private String method;
+
+        private String uri;
+
+        private String auth;
+
+        private String test;
+
+        /**
+         * Body is read through the stream of response, which releases the connection at its end
+         */
+        void drain() {
+            Response unread = response;
+            if (unread == null) {
+                return;
+            }
+            try (InputStream body = unread.asInputStream()) {
+                byte[] buffer = new byte[8192];
+                while (body.read(buffer) >= 0) {
+                    // bytes are counted by ResponseDecoding
+                }
+            } catch (IOException e) {
+                // broken connection is not returned to the pool, response is recorded with bytes read before
+            } finally {
+                record();
+            }
+        }
+
+        void record() {
+            if (!recorded.compareAndSet(false, true)) {
+                return;
+            }
+            UNREAD_CALLS.remove(this);
+            response = null;
+            if (UNREAD.get() == this) {
+                UNREAD.remove();
+            }
+            long latency = returned - start
+                    + (decoding == null ? 0 : decoding.getWireWaitNanos() - waitedBeforeReturn);
+            long responseBytes = decoding == null ? memoryBytes : decoding.getDecodedBytes();
+            long wireBytes = decoding == null ? 0 : decoding.getWireBytes();
+
+            EndpointMetrics.record(endpoint,
+                    latency,
+                    firstByte == null ? -1 : firstByte - start,
+                    requestBytes,
+                    responseBytes,
+                    wireBytes,
+                    decoding == null ? -1 : decoding.getDecompressionNanos(),
+                    status);
+
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = method;
+                event.endpoint = endpoint;
+                event.uri = uri;
+                event.status = status;
+                event.requestBytes = requestBytes;
+                event.responseBytes = responseBytes;
+                event.wireBytes = wireBytes;
+                event.firstByte = firstByte == null ? 0 : firstByte - start;
+                event.auth = auth;
+                event.test = test;
+                event.commit();
+            }
+        }
+    }
+
+    private static long bodySize(Object body) {
+        if (body instanceof byte[]) {
+            return ((byte[]) body).length;
+        }
+        if (body instanceof String) {
+            return ((String) body).getBytes(StandardCharsets.UTF_8).length;
+        }
+        if (body instanceof CountingInputStream) {
+            // streamed body is fully read when response is received
+            return ((CountingInputStream) body).getCount();
+        }
+        return 0;
+    }
+}
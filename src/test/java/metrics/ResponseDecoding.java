@@ -0,0 +1,296 @@
+package metrics;
+
+import org.apache.http.Header;
+import org.apache.http.HeaderElement;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.entity.DeflateDecompressingEntity;
+import org.apache.http.client.entity.GzipDecompressingEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Locale;
+
+/**
+ * Decodes gzip and deflate responses while their body is read and counts bytes received from the connection,
+ * bytes after decoding and CPU time spent by decompression of the last response of the current thread
+ * Replaces ResponseContentEncoding of HTTP client: like it, interceptor removes Content-Encoding,
+ * Content-Length and Content-MD5 headers of decoded response, so callers see plain body
+ * Decompression time is CPU time of the thread spent in reads of decoded body minus reads from the connection,
+ * wall time when JVM doesn't measure CPU time of threads
+ * Body is not buffered: counters grow while the caller reads it, {@link Decoding#whenRead(Runnable)} is notified
+ * when the body is read to the end or closed
+ */
+public final class ResponseDecoding {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private static final boolean CPU_TIME = THREADS.isCurrentThreadCpuTimeSupported()
+            && THREADS.isThreadCpuTimeEnabled();
+
+    private static final ThreadLocal<Decoding> LAST = new ThreadLocal<>();
+
+    private static final HttpResponseInterceptor INTERCEPTOR = (response, context) -> {
+        HttpEntity entity = response.getEntity();
+        if (entity == null || entity.getContentLength() == 0) {
+            LAST.remove();
+            return;
+        }
+        Decoding decoding = new Decoding(encoding(entity.getContentEncoding()));
+        LAST.set(decoding);
+
+        boolean decoded = decoding.encoding.equals("gzip") || decoding.encoding.equals("x-gzip")
+                || decoding.encoding.equals("deflate");
+        HttpEntity wire = new CountingEntity(entity, decoding, false, !decoded);
+        if (!decoded) {
+            // identity and unknown encodings are left to the caller
+            response.setEntity(wire);
+            return;
+        }
+        response.setEntity(new CountingEntity(decoding.encoding.equals("deflate")
+                ? new DeflateDecompressingEntity(wire) : new GzipDecompressingEntity(wire), decoding, true, true));
+        response.removeHeaders("Content-Length");
+        response.removeHeaders("Content-Encoding");
+        response.removeHeaders("Content-MD5");
+    };
+
+    private ResponseDecoding() {
+    }
+
+    /**
+     * Get interceptor which should be registered on HTTP client instead of ResponseContentEncoding
+     *
+     * @return response interceptor
+     */
+    public static HttpResponseInterceptor interceptor() {
+        return INTERCEPTOR;
+    }
+
+    /**
+     * Forget decoding of previous response before sending new request
+     */
+    static void reset() {
+        LAST.remove();
+    }
+
+    /**
+     * Get decoding of the last response received by the current thread, values grow while its body is read
+     *
+     * @return decoding or null if the last response had no body or no response was received since reset
+     */
+    public static Decoding last() {
+        return LAST.get();
+    }
+
+    private static String encoding(Header contentEncoding) {
+        if (contentEncoding == null) {
+            return "identity";
+        }
+        HeaderElement[] elements = contentEncoding.getElements();
+        return elements.length == 0 ? "identity" : elements[0].getName().toLowerCase(Locale.ROOT);
+    }
+
+    private static long cpuNanos() {
+        return CPU_TIME ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * Sizes and decompression time of one response
+     * Body is read by one thread, so fields are not synchronized
+     */
+    public static final class Decoding {
+
+        private final String encoding;
+
+        private long wireBytes;
+
+        private long decodedBytes;
+
+        private long decodedReadNanos;
+
+        private long wireReadNanos;
+
+        private long wireWaitNanos;
+
+        private boolean read;
+
+        private Runnable onRead;
+
+        private Decoding(String encoding) {
+            this.encoding = encoding;
+        }
+
+        /**
+         * @return value of Content-Encoding header, "identity" if response was not encoded
+         */
+        public String getEncoding() {
+            return encoding;
+        }
+
+        /**
+         * @return true if body was compressed and decoded by the interceptor
+         */
+        public boolean isCompressed() {
+            return !encoding.equals("identity") && decodedBytes > 0;
+        }
+
+        /**
+         * @return number of body bytes read from the connection
+         */
+        public long getWireBytes() {
+            return wireBytes;
+        }
+
+        /**
+         * @return number of body bytes after decoding
+         */
+        public long getDecodedBytes() {
+            return isCompressed() ? decodedBytes : wireBytes;
+        }
+
+        /**
+         * @return CPU time spent by decompression, -1 if body was not compressed
+         */
+        public long getDecompressionNanos() {
+            return isCompressed() ? Math.max(0, decodedReadNanos - wireReadNanos) : -1;
+        }
+
+        /**
+         * @return wall time spent in reads from the connection
+         */
+        public long getWireWaitNanos() {
+            return wireWaitNanos;
+        }
+
+        /**
+         * @return true if body was read to the end or closed
+         */
+        public boolean isRead() {
+            return read;
+        }
+
+        /**
+         * Run action when body is read to the end or closed, at once if it already is
+         *
+         * @param action action which is run by the thread which reads body
+         */
+        void whenRead(Runnable action) {
+            if (read) {
+                action.run();
+            } else {
+                onRead = action;
+            }
+        }
+
+        private void finish() {
+            if (read) {
+                return;
+            }
+            read = true;
+            Runnable action = onRead;
+            onRead = null;
+            if (action != null) {
+                action.run();
+            }
+        }
+    }
+
+    /**
+     * Entity which counts bytes and read time of its content in decoding
+     * Entity given to the caller finishes decoding when its content is read to the end or closed
+     */
+    private static class CountingEntity extends HttpEntityWrapper {
+
+        private final Decoding decoding;
+
+        private final boolean decoded;
+
+        private final boolean outermost;
+
+        CountingEntity(HttpEntity entity, Decoding decoding, boolean decoded, boolean outermost) {
+            super(entity);
+            this.decoding = decoding;
+            this.decoded = decoded;
+            this.outermost = outermost;
+        }
+
+        @Override
+        public long getContentLength() {
+            return decoded ? -1 : super.getContentLength();
+        }
+
+        @Override
+        public Header getContentEncoding() {
+            return decoded ? null : super.getContentEncoding();
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new FilterInputStream(super.getContent()) {
+
+                @Override
+                public int read() throws IOException {
+                    long start = cpuNanos();
+                    long wallStart = System.nanoTime();
+                    int read = super.read();
+                    count(read < 0 ? -1 : 1, cpuNanos() - start, System.nanoTime() - wallStart);
+                    return read;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    long start = cpuNanos();
+                    long wallStart = System.nanoTime();
+                    int read = super.read(buffer, offset, length);
+                    count(read, cpuNanos() - start, System.nanoTime() - wallStart);
+                    return read;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        if (outermost) {
+                            decoding.finish();
+                        }
+                    }
+                }
+            };
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            try (InputStream in = getContent()) {
+                byte[] buffer = new byte[8192];
+                for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                    out.write(buffer, 0, read);
+                }
+            }
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return decoded || super.isStreaming();
+        }
+
+        private void count(int read, long nanos, long wallNanos) {
+            if (decoded) {
+                decoding.decodedReadNanos += nanos;
+                decoding.decodedBytes += Math.max(read, 0);
+            } else {
+                decoding.wireReadNanos += nanos;
+                decoding.wireWaitNanos += wallNanos;
+                decoding.wireBytes += Math.max(read, 0);
+            }
+            if (read < 0 && outermost) {
+                decoding.finish();
+            }
+        }
+    }
+}
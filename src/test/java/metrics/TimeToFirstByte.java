@@ -0,0 +1,43 @@
+package metrics;
+
+import org.apache.http.HttpResponseInterceptor;
+
+/**
+ * Remembers when headers of the last response were received by the current thread
+ * Interceptor is called by HTTP client before response body is read
+ */
+public final class TimeToFirstByte {
+
+    private static final ThreadLocal<Long> RECEIVED_NANOS = new ThreadLocal<>();
+
+    private static final HttpResponseInterceptor INTERCEPTOR =
+            (response, context) -> RECEIVED_NANOS.set(System.nanoTime());
+
+    private TimeToFirstByte() {
+    }
+
+    /**
+     * Get interceptor which should be registered on HTTP client
+     *
+     * @return response interceptor
+     */
+    public static HttpResponseInterceptor interceptor() {
+        return INTERCEPTOR;
+    }
+
+    /**
+     * Forget time of previous response before sending new request
+     */
+    static void reset() {
+        RECEIVED_NANOS.remove();
+    }
+
+    /**
+     * Get time when headers of the last response were received
+     *
+     * @return value of {@link System#nanoTime()} or null if no response was received since reset
+     */
+    public static Long receivedNanos() {
+        return RECEIVED_NANOS.get();
+    }
+}
@@ -0,0 +1,89 @@
+package metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of uploads and downloads of large files grouped by transfer and size, e.g. "upload 8 MiB"
+ * Summary is written when JVM exits to the file from system property gist.transfer.file,
+ * target/gist-transfer.json by default
+ */
+public final class TransferMetrics {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    private static final Path REPORT_FILE = Paths.get(
+            System.getProperty("gist.transfer.file", "target/gist-transfer.json"));
+
+    private static final ConcurrentMap<String, Histogram> TRANSFERS = new ConcurrentHashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(TransferMetrics::writeReport, "gist-transfer-report"));
+    }
+
+    private TransferMetrics() {
+    }
+
+    /**
+     * Record finished transfer
+     *
+     * @param direction    "upload" or "download"
+     * @param bytes        number of transferred bytes
+     * @param elapsedNanos duration of transfer
+     * @return throughput in megabytes per second
+     */
+    public static double record(String direction, long bytes, long elapsedNanos) {
+        double megabytesPerSecond = bytes / BYTES_PER_MEGABYTE / Math.max(elapsedNanos, 1) * TimeUnit.SECONDS.toNanos(1);
+        String transfer = String.format("%s %.0f MiB", direction, bytes / BYTES_PER_MEGABYTE);
+        // kilobytes per second keep three significant digits of megabytes per second
+        TRANSFERS.computeIfAbsent(transfer, key -> new ConcurrentHistogram(SIGNIFICANT_DIGITS)).
+                recordValue(Math.round(megabytesPerSecond * 1024));
+        return megabytesPerSecond;
+    }
+
+    /**
+     * @return count and percentiles of throughput in megabytes per second of every transfer
+     */
+    public static Map<String, Object> summary() {
+        Map<String, Object> transfers = new TreeMap<>();
+        TRANSFERS.forEach((name, histogram) -> {
+            Map<String, Object> transfer = new LinkedHashMap<>();
+            transfer.put("count", histogram.getTotalCount());
+            transfer.put("minMegabytesPerSecond", histogram.getMinValue() / 1024.0);
+            transfer.put("p50MegabytesPerSecond", histogram.getValueAtPercentile(50) / 1024.0);
+            transfer.put("maxMegabytesPerSecond", histogram.getMaxValue() / 1024.0);
+            transfers.put(name, transfer);
+        });
+        return transfers;
+    }
+
+    private static void writeReport() {
+        if (TRANSFERS.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(REPORT_FILE.toAbsolutePath().getParent());
+            new ObjectMapper().
+                    enable(SerializationFeature.INDENT_OUTPUT).
+                    writeValue(REPORT_FILE.toFile(), summary());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write " + REPORT_FILE, e);
+        }
+    }
+}
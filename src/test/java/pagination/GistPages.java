@@ -0,0 +1,190 @@
+package pagination;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Lazy iterator over all pages of a gist list: GET /gists, /gists/starred, /gists/{id}/forks
+ * Pages are requested with per_page=100 and followed by rel="next" of Link header, the next page
+ * is requested in background as soon as the current one is received, so it is usually ready
+ * when the current one is consumed
+ * Only one or two pages are kept in memory at a time
+ */
+public final class GistPages implements Iterable<JsonNode> {
+
+    private static final int PER_PAGE = 100;
+
+    private static final Pattern NEXT_LINK = Pattern.compile("<([^>]+)>\\s*;\\s*rel=\"next\"");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final ExecutorService PREFETCH = createPrefetchExecutor();
+
+    private final RequestSpecification spec;
+
+    private final String path;
+
+    private int maxPages = Integer.MAX_VALUE;
+
+    private GistPages(RequestSpecification spec, String path) {
+        this.spec = spec;
+        this.path = path;
+    }
+
+    /**
+     * Create iterable over list of gists
+     *
+     * @param spec specification of user
+     * @param path path relative to gists API: "" for user's or public gists, "starred" or "{id}/forks"
+     * @return iterable which sends requests when it is iterated
+     */
+    public static GistPages of(RequestSpecification spec, String path) {
+        return new GistPages(spec, path);
+    }
+
+    /**
+     * Limit number of requested pages, e.g. for list of all public gists
+     *
+     * @param maxPages maximal number of pages
+     * @return this iterable
+     */
+    public GistPages maxPages(int maxPages) {
+        this.maxPages = maxPages;
+        return this;
+    }
+
+    @Override
+    public Iterator<JsonNode> iterator() {
+        return new PageIterator();
+    }
+
+    /**
+     * Collect IDs of all gists of the list
+     *
+     * @return set of IDs for constant time lookup
+     */
+    public Set<String> ids() {
+        Set<String> ids = new HashSet<>();
+        for (JsonNode gist : this) {
+            ids.add(gist.path("id").asText());
+        }
+        return ids;
+    }
+
+    private static ExecutorService createPrefetchExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "gist-page-prefetch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private CompletableFuture<Page> fetch(String url, boolean first) {
+        return CompletableFuture.supplyAsync(() -> {
+            Response response = first
+                    ? given().spec(spec).queryParam("per_page", PER_PAGE).get(url)
+                    : given().spec(spec).get(url);
+            if (response.getStatusCode() != 200) {
+                throw new IllegalStateException("GET " + url + " returned " + response.getStatusCode()
+                        + ": " + response.asString());
+            }
+            String nextUrl = null;
+            String link = response.getHeader("Link");
+            if (link != null) {
+                Matcher matcher = NEXT_LINK.matcher(link);
+                nextUrl = matcher.find() ? matcher.group(1) : null;
+            }
+            return new Page(parse(response), nextUrl);
+        }, PREFETCH);
+    }
+
+    /**
+     * Read elements of root array one by one
+     */
+    private static List<JsonNode> parse(Response response) {
+        List<JsonNode> items = new ArrayList<>(PER_PAGE);
+        try (JsonParser parser = MAPPER.getFactory().createParser(response.asInputStream())) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalStateException("List of gists is expected: " + response.asString());
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                items.add(MAPPER.readTree(parser));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to parse list of gists", e);
+        }
+        return items;
+    }
+
+    /**
+     * One page of list and URL of the next one
+     */
+    private static class Page {
+
+        private final List<JsonNode> items;
+
+        private final String nextUrl;
+
+        Page(List<JsonNode> items, String nextUrl) {
+            this.items = items;
+            this.nextUrl = nextUrl;
+        }
+    }
+
+    private class PageIterator implements Iterator<JsonNode> {
+
+        private Iterator<JsonNode> current = Collections.emptyIterator();
+
+        private CompletableFuture<Page> next = fetch(path, true);
+
+        private int pages;
+
+        @Override
+        public boolean hasNext() {
+            while (!current.hasNext() && next != null) {
+                Page page;
+                try {
+                    page = next.join();
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+                }
+                pages++;
+                next = page.nextUrl != null && pages < maxPages ? fetch(page.nextUrl, false) : null;
+                current = page.items.iterator();
+            }
+            return current.hasNext();
+        }
+
+        @Override
+        public JsonNode next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return current.next();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit budget of one credential, built from X-RateLimit headers of its responses
+ * Budget is a token bucket: it is refilled at rate of remaining calls per time until the reset, so calls are
+ * spread evenly over the rest of the window, and holds at most gist.rateLimit.burstRatio of the limit (0.9 by
+ * default), so that many requests can be sent at once. Bucket is full at the start of every window and requests
+ * wait for the reset when no calls remain
+ */
+class RateLimitBudget {
+
+    /**
+     * Calls which are never used, so that concurrent requests can't exceed the limit
+     */
+    private static final long RESERVED_CALLS = 1;
+
+    /**
+     * Capacity of bucket as share of limit
+     */
+    private static final double BURST_RATIO = Double.parseDouble(
+            System.getProperty("gist.rateLimit.burstRatio", "0.9"));
+
+    private long limit = -1;
+
+    private long remaining = -1;
+
+    private long resetMillis;
+
+    /**
+     * Requests which were allowed but didn't get response yet
+     */
+    private long inFlight;
+
+    /**
+     * Calls which may be sent at once, negative when requests wait for refill
+     */
+    private double tokens;
+
+    private long refilledMillis;
+
+    /**
+     * True when window has changed and bucket should be filled by the next request
+     */
+    private boolean fill = true;
+
+    /**
+     * Earliest time of the next request after the reset when no calls remain
+     */
+    private long nextSlotMillis;
+
+    /**
+     * Wait until request may be sent and reserve a call for it
+     *
+     * @param now current time in milliseconds
+     * @return time in milliseconds to wait before sending request
+     */
+    synchronized long reserve(long now) {
+        if (remaining < 0 || now >= resetMillis) {
+            inFlight++;
+            return 0;
+        }
+
+        long available = remaining - inFlight - RESERVED_CALLS;
+        if (available <= 0) {
+            long slot = Math.max(resetMillis + TimeUnit.SECONDS.toMillis(1), nextSlotMillis);
+            nextSlotMillis = slot;
+            inFlight++;
+            return slot - now;
+        }
+
+        double capacity = Math.min(available, Math.max(1, limit * BURST_RATIO));
+        double ratePerMilli = (double) available / Math.max(1, resetMillis - now);
+        if (fill) {
+            tokens = capacity;
+            fill = false;
+        } else {
+            tokens = Math.min(capacity, tokens + ratePerMilli * (now - refilledMillis));
+        }
+        refilledMillis = now;
+
+        tokens--;
+        inFlight++;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / ratePerMilli);
+    }
+
+    /**
+     * Release reserved call and update budget from response headers
+     *
+     * @param limit       value of X-RateLimit-Limit or -1 if absent
+     * @param remaining   value of X-RateLimit-Remaining or -1 if absent
+     * @param resetMillis value of X-RateLimit-Reset in milliseconds or -1 if absent
+     */
+    synchronized void release(long limit, long remaining, long resetMillis) {
+        inFlight--;
+        if (limit < 0 || remaining < 0 || resetMillis < 0) {
+            return;
+        }
+
+        if (resetMillis > this.resetMillis) {
+            // new window, responses of the previous one are outdated
+            this.remaining = remaining;
+            this.resetMillis = resetMillis;
+            nextSlotMillis = 0;
+            fill = true;
+        } else if (resetMillis == this.resetMillis) {
+            // responses may arrive out of order, the lowest value is the most recent one
+            this.remaining = Math.min(this.remaining, remaining);
+        }
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,87 @@
+package ratelimit;
+
+import config.RequestCredential;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delays requests so that no credential exceeds its GitHub rate limit
+ * Budgets are kept per credential: OAuth2 token, Authorization header, OAuth app client_id or unauthenticated
+ * client, and are shared by all threads
+ * Scheduling can be disabled with system property gist.rateLimit.enabled=false
+ * Time spent waiting is added to {@link RateLimitWait} of the current thread
+ */
+public class RateLimitFilter implements OrderedFilter {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(
+            System.getProperty("gist.rateLimit.enabled", "true"));
+
+    private static final ConcurrentMap<String, RateLimitBudget> BUDGETS = new ConcurrentHashMap<>();
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                           FilterContext ctx) {
+        if (!ENABLED) {
+            return ctx.next(requestSpec, responseSpec);
+        }
+
+        RateLimitBudget budget = BUDGETS.computeIfAbsent(RequestCredential.of(requestSpec),
+                key -> new RateLimitBudget());
+        Response response = null;
+        try {
+            long waitStart = System.nanoTime();
+            sleep(budget.reserve(System.currentTimeMillis()));
+            RateLimitWait.add(System.nanoTime() - waitStart);
+            response = ctx.next(requestSpec, responseSpec);
+        } finally {
+            if (response == null) {
+                budget.release(-1, -1, -1);
+            } else {
+                long reset = header(response, "X-RateLimit-Reset");
+                budget.release(header(response, "X-RateLimit-Limit"),
+                        header(response, "X-RateLimit-Remaining"),
+                        reset < 0 ? -1 : TimeUnit.SECONDS.toMillis(reset));
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Filter runs before all other filters, so time spent waiting for rate limit is not counted as latency
+     */
+    @Override
+    public int getOrder() {
+        return HIGHEST_PRECEDENCE;
+    }
+
+    private static long header(Response response, String name) {
+        String value = response.getHeader(name);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for rate limit", e);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package ratelimit;
+
+/**
+ * Time which requests of the current thread spent waiting for rate limit budget in {@link RateLimitFilter}
+ * Callers which measure latency from outside of RestAssured reset it before request and subtract it after,
+ * so client-side pacing is not reported as latency of API
+ */
+public final class RateLimitWait {
+
+    private static final ThreadLocal<long[]> WAITED_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private RateLimitWait() {
+    }
+
+    /**
+     * Forget waits of previous requests before sending new request
+     */
+    public static void reset() {
+        WAITED_NANOS.get()[0] = 0;
+    }
+
+    /**
+     * @return nanoseconds spent waiting since the last reset
+     */
+    public static long nanos() {
+        return WAITED_NANOS.get()[0];
+    }
+
+    static void add(long nanos) {
+        WAITED_NANOS.get()[0] += nanos;
+    }
+}
@@ -0,0 +1,106 @@
+package regression;
+
+/**
+ * Comparison of one percentile of one metric of endpoint between baseline and current run
+ * Values are in units of the metric, change and bounds of its confidence interval are shares of baseline value
+ */
+public class Comparison {
+
+    /**
+     * Verdict of comparison
+     */
+    public enum Verdict {
+        REGRESSION, IMPROVEMENT, UNCHANGED, INSUFFICIENT, NEW, MISSING
+    }
+
+    private final String endpoint;
+
+    private final String metric;
+
+    private final String unit;
+
+    private final long baselineCount;
+
+    private final long currentCount;
+
+    private final Double baseline;
+
+    private final Double current;
+
+    private final Double change;
+
+    private final Double lower;
+
+    private final Double upper;
+
+    private final double threshold;
+
+    private final Verdict verdict;
+
+    Comparison(String endpoint, String metric, String unit, long baselineCount, long currentCount, Double baseline,
+               Double current, Double change, Double lower, Double upper, double threshold, Verdict verdict) {
+        this.endpoint = endpoint;
+        this.metric = metric;
+        this.unit = unit;
+        this.baselineCount = baselineCount;
+        this.currentCount = currentCount;
+        this.baseline = baseline;
+        this.current = current;
+        this.change = change;
+        this.lower = lower;
+        this.upper = upper;
+        this.threshold = threshold;
+        this.verdict = verdict;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return metric and percentile, e.g. "latency p99"
+     */
+    public String getMetric() {
+        return metric;
+    }
+
+    public String getUnit() {
+        return unit;
+    }
+
+    public long getBaselineCount() {
+        return baselineCount;
+    }
+
+    public long getCurrentCount() {
+        return currentCount;
+    }
+
+    public Double getBaseline() {
+        return baseline;
+    }
+
+    public Double getCurrent() {
+        return current;
+    }
+
+    public Double getChange() {
+        return change;
+    }
+
+    public Double getLower() {
+        return lower;
+    }
+
+    public Double getUpper() {
+        return upper;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public Verdict getVerdict() {
+        return verdict;
+    }
+}
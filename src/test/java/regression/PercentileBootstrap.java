@@ -0,0 +1,112 @@
+package regression;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Confidence interval of ratio of percentiles of two histograms by percentile bootstrap
+ * Both histograms are resampled with replacement, ratio of percentiles of resamples is computed many times
+ * and the interval is cut from distribution of ratios
+ * Resample is drawn from counts of histogram buckets, so its cost doesn't depend on number of recorded values,
+ * large histograms are resampled m out of n with at most maxResampleSize values
+ */
+final class PercentileBootstrap {
+
+    private final int resamples;
+
+    private final int maxResampleSize;
+
+    private final double confidence;
+
+    private final long seed;
+
+    PercentileBootstrap(int resamples, int maxResampleSize, double confidence, long seed) {
+        this.resamples = resamples;
+        this.maxResampleSize = maxResampleSize;
+        this.confidence = confidence;
+        this.seed = seed;
+    }
+
+    /**
+     * Get confidence interval of current percentile divided by baseline percentile
+     *
+     * @param baseline   histogram of baseline run
+     * @param current    histogram of current run
+     * @param percentile percentile from 0 to 100
+     * @return lower and upper bound of ratio
+     */
+    double[] ratioInterval(Histogram baseline, Histogram current, double percentile) {
+        Buckets baselineBuckets = new Buckets(baseline);
+        Buckets currentBuckets = new Buckets(current);
+        // the same seed for every comparison keeps the gate reproducible
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] ratios = new double[resamples];
+        for (int i = 0; i < resamples; i++) {
+            ratios[i] = (double) Math.max(currentBuckets.resamplePercentile(random, percentile), 1)
+                    / Math.max(baselineBuckets.resamplePercentile(random, percentile), 1);
+        }
+        Arrays.sort(ratios);
+        double tail = (1 - confidence) / 2;
+        return new double[]{
+                ratios[(int) Math.floor(tail * (resamples - 1))],
+                ratios[(int) Math.ceil((1 - tail) * (resamples - 1))]};
+    }
+
+    /**
+     * Recorded values of histogram with cumulative counts
+     */
+    private final class Buckets {
+
+        private final long[] values;
+
+        private final long[] cumulative;
+
+        private final long total;
+
+        private final int size;
+
+        private final int[] counts;
+
+        Buckets(Histogram histogram) {
+            int buckets = 0;
+            for (HistogramIterationValue ignored : histogram.recordedValues()) {
+                buckets++;
+            }
+            values = new long[buckets];
+            cumulative = new long[buckets];
+            int bucket = 0;
+            long sum = 0;
+            for (HistogramIterationValue value : histogram.recordedValues()) {
+                values[bucket] = value.getValueIteratedTo();
+                sum += value.getCountAtValueIteratedTo();
+                cumulative[bucket++] = sum;
+            }
+            total = sum;
+            size = (int) Math.min(total, maxResampleSize);
+            counts = new int[buckets];
+        }
+
+        /**
+         * Draw resample and get its percentile by nearest rank
+         */
+        long resamplePercentile(SplittableRandom random, double percentile) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < size; i++) {
+                int bucket = Arrays.binarySearch(cumulative, random.nextLong(total) + 1);
+                counts[bucket < 0 ? -bucket - 1 : bucket]++;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * size));
+            long seen = 0;
+            for (int bucket = 0; bucket < counts.length; bucket++) {
+                seen += counts[bucket];
+                if (seen >= rank) {
+                    return values[bucket];
+                }
+            }
+            return values[values.length - 1];
+        }
+    }
+}
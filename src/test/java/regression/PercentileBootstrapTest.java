@@ -0,0 +1,71 @@
+package regression;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Tests of bootstrap intervals on histograms built in memory, no API is called
+ */
+class PercentileBootstrapTest {
+
+    private static final PercentileBootstrap BOOTSTRAP = new PercentileBootstrap(1000, 2000, 0.99, 42);
+
+    @Test
+    @DisplayName("latency 1.5 times higher is a regression: whole interval is above 1")
+    void regression() {
+        Histogram baseline = latencies(1, 5000, 1.0);
+        Histogram current = latencies(2, 5000, 1.5);
+
+        double[] interval = BOOTSTRAP.ratioInterval(baseline, current, 90);
+        assertThat(interval[0], greaterThan(1.3));
+        assertThat(interval[1], lessThan(1.7));
+    }
+
+    @Test
+    @DisplayName("another run of the same distribution is not a regression: interval contains 1")
+    void noRegression() {
+        Histogram baseline = latencies(1, 5000, 1.0);
+        Histogram current = latencies(2, 5000, 1.0);
+
+        for (double percentile : new double[]{50, 90, 99}) {
+            double[] interval = BOOTSTRAP.ratioInterval(baseline, current, percentile);
+            assertThat(interval[0], lessThan(1.0));
+            assertThat(interval[1], greaterThan(1.0));
+        }
+    }
+
+    @Test
+    @DisplayName("interval is reproducible with the same seed and narrow for large histograms")
+    void reproducible() {
+        Histogram baseline = latencies(1, 100_000, 1.0);
+        Histogram current = latencies(2, 100_000, 1.0);
+
+        double[] interval = BOOTSTRAP.ratioInterval(baseline, current, 50);
+        assertThat(BOOTSTRAP.ratioInterval(baseline, current, 50), equalTo(interval));
+        assertThat(interval[0], both(greaterThan(0.9)).and(lessThan(1.0)));
+        assertThat(interval[1], both(greaterThan(1.0)).and(lessThan(1.1)));
+    }
+
+    /**
+     * Log-normal latencies around 20 ms in microseconds, like latency of API request
+     */
+    private static Histogram latencies(long seed, int count, double scale) {
+        SplittableRandom random = new SplittableRandom(seed);
+        Histogram histogram = new Histogram(3);
+        for (int i = 0; i < count; i++) {
+            double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble()))
+                    * Math.cos(2 * Math.PI * random.nextDouble());
+            histogram.recordValue(Math.round(20_000 * scale * Math.exp(0.3 * gaussian)));
+        }
+        return histogram;
+    }
+}
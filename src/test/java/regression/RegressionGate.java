@@ -0,0 +1,135 @@
+package regression;
+
+import metrics.HistogramFile;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Compares histograms of current run with stored baseline
+ * For every endpoint median and p99 of latency and median of client CPU time and allocation are compared.
+ * Change is a regression when the whole confidence interval of ratio current / baseline is above 1 + threshold
+ * and the median change is larger than absolute floor of metric, so noise of short runs and fast endpoints
+ * doesn't fail the build
+ */
+public final class RegressionGate {
+
+    private final RegressionProfile profile;
+
+    private final List<Check> checks;
+
+    private final PercentileBootstrap bootstrap;
+
+    public RegressionGate(RegressionProfile profile) {
+        this.profile = profile;
+        this.checks = Arrays.asList(
+                new Check("latencyMicros", "latency", 50, "ms", 1000, profile.getP50Threshold(),
+                        profile.getLatencyFloorMicros()),
+                new Check("latencyMicros", "latency", 99, "ms", 1000, profile.getP99Threshold(),
+                        profile.getLatencyFloorMicros()),
+                new Check("clientCpuMicros", "client CPU", 50, "ms", 1000, profile.getClientThreshold(),
+                        profile.getClientCpuFloorMicros()),
+                new Check("allocatedBytes", "allocated", 50, "KiB", 1024, profile.getClientThreshold(),
+                        profile.getAllocationFloorBytes()));
+        this.bootstrap = new PercentileBootstrap(profile.getResamples(), profile.getMaxResampleSize(),
+                profile.getConfidence(), profile.getSeed());
+    }
+
+    /**
+     * Compare current run with baseline
+     *
+     * @param baseline histograms of baseline runs
+     * @param current  histograms of current run
+     * @return comparisons of every endpoint present in any of runs
+     * @throws IllegalArgumentException if runs were made against different APIs
+     */
+    public RegressionReport compare(HistogramFile baseline, HistogramFile current) {
+        if (baseline.getApi() == null || !baseline.getApi().equals(current.getApi())) {
+            throw new IllegalArgumentException("Baseline was recorded against " + baseline.getApi()
+                    + ", current run is against " + current.getApi());
+        }
+        TreeSet<String> endpoints = new TreeSet<>(baseline.getEndpoints().keySet());
+        endpoints.addAll(current.getEndpoints().keySet());
+        List<Comparison> comparisons = new ArrayList<>();
+        for (String endpoint : endpoints) {
+            for (Check check : checks) {
+                Comparison comparison = compare(endpoint, check, baseline.histogram(endpoint, check.histogram),
+                        current.histogram(endpoint, check.histogram));
+                if (comparison != null) {
+                    comparisons.add(comparison);
+                }
+            }
+        }
+        return new RegressionReport(current.getApi(), baseline.getRuns(), profile.getConfidence(),
+                profile.getResamples(), comparisons);
+    }
+
+    private Comparison compare(String endpoint, Check check, Histogram baseline, Histogram current) {
+        String metric = check.name + " p" + (int) check.percentile;
+        if (baseline == null && current == null) {
+            return null;
+        }
+        if (baseline == null || current == null) {
+            Histogram recorded = baseline == null ? current : baseline;
+            Double value = recorded.getValueAtPercentile(check.percentile) / check.scale;
+            return new Comparison(endpoint, metric, check.unit,
+                    baseline == null ? 0 : baseline.getTotalCount(), current == null ? 0 : current.getTotalCount(),
+                    baseline == null ? null : value, current == null ? null : value, null, null, null,
+                    check.threshold, baseline == null ? Comparison.Verdict.NEW : Comparison.Verdict.MISSING);
+        }
+
+        long baselineValue = baseline.getValueAtPercentile(check.percentile);
+        long currentValue = current.getValueAtPercentile(check.percentile);
+        double change = (double) Math.max(currentValue, 1) / Math.max(baselineValue, 1) - 1;
+        if (baseline.getTotalCount() < profile.getMinSamples() || current.getTotalCount() < profile.getMinSamples()) {
+            return new Comparison(endpoint, metric, check.unit, baseline.getTotalCount(), current.getTotalCount(),
+                    baselineValue / check.scale, currentValue / check.scale, change, null, null, check.threshold,
+                    Comparison.Verdict.INSUFFICIENT);
+        }
+
+        double[] interval = bootstrap.ratioInterval(baseline, current, check.percentile);
+        Comparison.Verdict verdict = Comparison.Verdict.UNCHANGED;
+        if (interval[0] > 1 + check.threshold && currentValue - baselineValue > check.floor) {
+            verdict = Comparison.Verdict.REGRESSION;
+        } else if (interval[1] < 1 / (1 + check.threshold) && baselineValue - currentValue > check.floor) {
+            verdict = Comparison.Verdict.IMPROVEMENT;
+        }
+        return new Comparison(endpoint, metric, check.unit, baseline.getTotalCount(), current.getTotalCount(),
+                baselineValue / check.scale, currentValue / check.scale, change, interval[0] - 1, interval[1] - 1,
+                check.threshold, verdict);
+    }
+
+    /**
+     * Compared percentile of metric
+     */
+    private static final class Check {
+
+        private final String histogram;
+
+        private final String name;
+
+        private final double percentile;
+
+        private final String unit;
+
+        private final double scale;
+
+        private final double threshold;
+
+        private final long floor;
+
+        Check(String histogram, String name, double percentile, String unit, double scale, double threshold,
+              long floor) {
+            this.histogram = histogram;
+            this.name = name;
+            this.percentile = percentile;
+            this.unit = unit;
+            this.scale = scale;
+            this.threshold = threshold;
+            this.floor = floor;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package regression;
+
+/**
+ * Thresholds and statistics of regression gate
+ * Profile is configured with system properties:
+ * gist.regression.p50Threshold and gist.regression.p99Threshold (share of latency growth which fails the gate),
+ * gist.regression.clientThreshold (share of growth of median client CPU time and allocation),
+ * gist.regression.latencyFloorMillis, gist.regression.clientCpuFloorMillis and gist.regression.allocationFloorBytes
+ * (smaller absolute changes are never regressions), gist.regression.confidence (of intervals),
+ * gist.regression.resamples (bootstrap resamples), gist.regression.maxResampleSize (size of one resample),
+ * gist.regression.minSamples (requests of endpoint required for comparison) and gist.regression.seed
+ */
+public final class RegressionProfile {
+
+    private final double p50Threshold;
+
+    private final double p99Threshold;
+
+    private final double clientThreshold;
+
+    private final long latencyFloorMicros;
+
+    private final long clientCpuFloorMicros;
+
+    private final long allocationFloorBytes;
+
+    private final double confidence;
+
+    private final int resamples;
+
+    private final int maxResampleSize;
+
+    private final int minSamples;
+
+    private final long seed;
+
+    public RegressionProfile(double p50Threshold, double p99Threshold, double clientThreshold, double latencyFloorMillis,
+                             double clientCpuFloorMillis, long allocationFloorBytes, double confidence, int resamples,
+                             int maxResampleSize, int minSamples, long seed) {
+        if (p50Threshold < 0 || p99Threshold < 0 || clientThreshold < 0 || latencyFloorMillis < 0
+                || clientCpuFloorMillis < 0 || allocationFloorBytes < 0 || confidence <= 0 || confidence >= 1
+                || resamples < 100 || maxResampleSize < 1 || minSamples < 1) {
+            throw new IllegalArgumentException("Invalid regression profile: p50Threshold=" + p50Threshold
+                    + ", p99Threshold=" + p99Threshold + ", clientThreshold=" + clientThreshold
+                    + ", latencyFloorMillis=" + latencyFloorMillis + ", clientCpuFloorMillis=" + clientCpuFloorMillis
+                    + ", allocationFloorBytes=" + allocationFloorBytes + ", confidence=" + confidence
+                    + ", resamples=" + resamples + ", maxResampleSize=" + maxResampleSize
+                    + ", minSamples=" + minSamples);
+        }
+        this.p50Threshold = p50Threshold;
+        this.p99Threshold = p99Threshold;
+        this.clientThreshold = clientThreshold;
+        this.latencyFloorMicros = Math.round(latencyFloorMillis * 1000);
+        this.clientCpuFloorMicros = Math.round(clientCpuFloorMillis * 1000);
+        this.allocationFloorBytes = allocationFloorBytes;
+        this.confidence = confidence;
+        this.resamples = resamples;
+        this.maxResampleSize = maxResampleSize;
+        this.minSamples = minSamples;
+        this.seed = seed;
+    }
+
+    /**
+     * Create profile from system properties
+     *
+     * @return regression profile
+     */
+    public static RegressionProfile fromSystemProperties() {
+        return new RegressionProfile(
+                Double.parseDouble(System.getProperty("gist.regression.p50Threshold", "0.10")),
+                Double.parseDouble(System.getProperty("gist.regression.p99Threshold", "0.25")),
+                Double.parseDouble(System.getProperty("gist.regression.clientThreshold", "0.20")),
+                Double.parseDouble(System.getProperty("gist.regression.latencyFloorMillis", "2")),
+                Double.parseDouble(System.getProperty("gist.regression.clientCpuFloorMillis", "1")),
+                Long.getLong("gist.regression.allocationFloorBytes", 64 * 1024),
+                Double.parseDouble(System.getProperty("gist.regression.confidence", "0.95")),
+                Integer.getInteger("gist.regression.resamples", 2000),
+                Integer.getInteger("gist.regression.maxResampleSize", 10000),
+                Integer.getInteger("gist.regression.minSamples", 5),
+                Long.getLong("gist.regression.seed", 1));
+    }
+
+    public double getP50Threshold() {
+        return p50Threshold;
+    }
+
+    public double getP99Threshold() {
+        return p99Threshold;
+    }
+
+    public double getClientThreshold() {
+        return clientThreshold;
+    }
+
+    public long getLatencyFloorMicros() {
+        return latencyFloorMicros;
+    }
+
+    public long getClientCpuFloorMicros() {
+        return clientCpuFloorMicros;
+    }
+
+    public long getAllocationFloorBytes() {
+        return allocationFloorBytes;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public int getResamples() {
+        return resamples;
+    }
+
+    public int getMaxResampleSize() {
+        return maxResampleSize;
+    }
+
+    public int getMinSamples() {
+        return minSamples;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+}
@@ -0,0 +1,125 @@
+package regression;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Result of regression gate: comparisons of every endpoint with baseline
+ */
+public class RegressionReport {
+
+    private final String api;
+
+    private final int baselineRuns;
+
+    private final double confidence;
+
+    private final int resamples;
+
+    private final List<Comparison> comparisons;
+
+    RegressionReport(String api, int baselineRuns, double confidence, int resamples, List<Comparison> comparisons) {
+        this.api = api;
+        this.baselineRuns = baselineRuns;
+        this.confidence = confidence;
+        this.resamples = resamples;
+        this.comparisons = comparisons;
+    }
+
+    public String getApi() {
+        return api;
+    }
+
+    public int getBaselineRuns() {
+        return baselineRuns;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public int getResamples() {
+        return resamples;
+    }
+
+    public List<Comparison> getComparisons() {
+        return comparisons;
+    }
+
+    /**
+     * @return comparisons whose confidence interval is above threshold
+     */
+    public List<Comparison> getRegressions() {
+        List<Comparison> regressions = new ArrayList<>();
+        for (Comparison comparison : comparisons) {
+            if (comparison.getVerdict() == Comparison.Verdict.REGRESSION) {
+                regressions.add(comparison);
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Format comparisons as table, one row per endpoint and metric
+     *
+     * @return table with header
+     */
+    public String table() {
+        int width = "endpoint".length();
+        for (Comparison comparison : comparisons) {
+            width = Math.max(width, comparison.getEndpoint().length());
+        }
+        String row = "%-" + width + "s  %-22s %10s %10s %8s  %-19s %s%n";
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT,
+                "Latency regression gate against %s: %d baseline run(s), %.0f%% confidence, %d resamples%n",
+                api, baselineRuns, confidence * 100, resamples));
+        table.append(String.format(Locale.ROOT, row, "endpoint", "metric", "baseline", "current", "change",
+                "CI of change", "verdict"));
+        for (Comparison comparison : comparisons) {
+            table.append(String.format(Locale.ROOT, row,
+                    comparison.getEndpoint(),
+                    comparison.getMetric() + " " + comparison.getUnit(),
+                    value(comparison.getBaseline()),
+                    value(comparison.getCurrent()),
+                    share(comparison.getChange()),
+                    comparison.getLower() == null ? "" : "[" + share(comparison.getLower()) + ", "
+                            + share(comparison.getUpper()) + "]",
+                    verdict(comparison)));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Write report as JSON
+     *
+     * @param file file to write
+     */
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().
+                enable(SerializationFeature.INDENT_OUTPUT).
+                writeValue(file.toFile(), this);
+    }
+
+    private static String value(Double value) {
+        return value == null ? "-" : String.format(Locale.ROOT, "%.2f", value);
+    }
+
+    private static String share(Double share) {
+        return share == null ? "-" : String.format(Locale.ROOT, "%+.1f%%", share * 100);
+    }
+
+    private static String verdict(Comparison comparison) {
+        String verdict = comparison.getVerdict().name().toLowerCase(Locale.ROOT);
+        return comparison.getVerdict() == Comparison.Verdict.REGRESSION
+                ? verdict + " (threshold " + share(comparison.getThreshold()) + ")"
+                : verdict;
+    }
+}
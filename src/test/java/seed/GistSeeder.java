@@ -0,0 +1,322 @@
+package seed;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import config.GistPayload;
+import config.GistRequestSpecifications;
+import config.GistTestConfiguration;
+import config.GistTestConfigurationConstants;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Creates many gists for data-size scaling tests with the same request as test fixtures
+ * Gists are created concurrently by a bounded number of threads and their IDs are written to a file,
+ * so the next run against the same API with the same shape of data reuses them and creates only missing ones
+ * Every seeded gist has {@link #DESCRIPTION_MARKER} in description and files named seed-{index}-{file}.txt
+ */
+public final class GistSeeder {
+
+    /**
+     * Prefix of description of every seeded gist, used to find leftovers
+     */
+    public static final String DESCRIPTION_MARKER = "gist-seed";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final String accessToken;
+
+    private final SeedProfile profile;
+
+    private final Path file;
+
+    /**
+     * @param accessToken access token of owner of gists
+     * @param profile     shape of seeded data
+     * @param file        file with IDs of seeded gists
+     */
+    public GistSeeder(String accessToken, SeedProfile profile, Path file) {
+        this.accessToken = accessToken;
+        this.profile = profile;
+        this.file = file;
+    }
+
+    /**
+     * Create gists which are missing in the file of seeded gists
+     *
+     * @return seeded gists ordered by index
+     * @throws IllegalStateException if some gists failed to be created, created ones are saved anyway
+     */
+    public List<SeededGist> seed() throws IOException {
+        Map<Integer, SeededGist> gists = new TreeMap<>();
+        for (SeededGist gist : reusable()) {
+            if (gist.getIndex() < profile.getCount()) {
+                gists.put(gist.getIndex(), gist);
+            }
+        }
+
+        List<Integer> missing = new ArrayList<>();
+        for (int index = 0; index < profile.getCount(); index++) {
+            if (!gists.containsKey(index)) {
+                missing.add(index);
+            }
+        }
+
+        int failures = 0;
+        Throwable firstFailure = null;
+        if (!missing.isEmpty()) {
+            ExecutorService executor = createExecutor();
+            try {
+                List<CompletableFuture<SeededGist>> created = new ArrayList<>(missing.size());
+                for (int index : missing) {
+                    created.add(CompletableFuture.supplyAsync(() -> create(index), executor));
+                }
+                for (CompletableFuture<SeededGist> gist : created) {
+                    try {
+                        SeededGist seeded = gist.join();
+                        gists.put(seeded.getIndex(), seeded);
+                    } catch (RuntimeException e) {
+                        failures++;
+                        if (firstFailure == null) {
+                            firstFailure = e.getCause() != null ? e.getCause() : e;
+                        }
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        List<SeededGist> result = new ArrayList<>(gists.values());
+        save(result);
+        if (failures > 0) {
+            throw new IllegalStateException(failures + " of " + missing.size()
+                    + " gists failed to be seeded", firstFailure);
+        }
+        return result;
+    }
+
+    /**
+     * Read gists of the previous run if they were seeded against the same API with the same shape
+     * and still exist, existence is checked by the first and the last gist only
+     */
+    private List<SeededGist> reusable() throws IOException {
+        if (!Files.exists(file)) {
+            return new ArrayList<>();
+        }
+        SeedFile saved = MAPPER.readValue(file.toFile(), SeedFile.class);
+        List<SeededGist> gists = saved.getGists();
+        boolean sameShape = GistTestConfigurationConstants.GITHUB_API.equals(saved.getApi())
+                && profile.getPublicRatio() == saved.getPublicRatio()
+                && profile.getFiles() == saved.getFiles()
+                && profile.getContentBytes() == saved.getContentBytes();
+        if (!sameShape || gists.isEmpty() || !exists(gists.get(0)) || !exists(gists.get(gists.size() - 1))) {
+            return new ArrayList<>();
+        }
+        return gists;
+    }
+
+    private boolean exists(SeededGist gist) {
+        return given().
+                spec(GistRequestSpecifications.authorized(accessToken)).
+                when().
+                get(gist.getId()).
+                getStatusCode() == 200;
+    }
+
+    private void save(List<SeededGist> gists) throws IOException {
+        SeedFile seedFile = new SeedFile();
+        seedFile.setApi(GistTestConfigurationConstants.GITHUB_API);
+        seedFile.setPublicRatio(profile.getPublicRatio());
+        seedFile.setFiles(profile.getFiles());
+        seedFile.setContentBytes(profile.getContentBytes());
+        seedFile.setGists(gists);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        MAPPER.writeValue(file.toFile(), seedFile);
+    }
+
+    private SeededGist create(int index) {
+        boolean isPublic = profile.isPublic(index);
+        String id = GistTestConfiguration.createGist(accessToken, body(index, isPublic), "seeded gist " + index);
+        return new SeededGist(index, id, isPublic);
+    }
+
+    /**
+     * Build body of gist: template for gist with one file, the same structure written by generator for more files
+     */
+    private byte[] body(int index, boolean isPublic) {
+        String description = DESCRIPTION_MARKER + " " + index;
+        String content = content(index);
+        if (profile.getFiles() == 1) {
+            Map<String, String> values = new HashMap<>();
+            values.put("description", description);
+            values.put("public", String.valueOf(isPublic));
+            values.put("filename", filename(index, 0));
+            values.put("content", content);
+            return GistPayload.CREATE_GIST_TEMPLATE.render(values);
+        }
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(profile.getFiles() * (content.length() + 64));
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(body, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("description", description);
+            generator.writeBooleanField("public", isPublic);
+            generator.writeObjectFieldStart("files");
+            for (int f = 0; f < profile.getFiles(); f++) {
+                generator.writeObjectFieldStart(filename(index, f));
+                generator.writeStringField("content", content);
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to build body of seeded gist " + index, e);
+        }
+        return body.toByteArray();
+    }
+
+    private static String filename(int index, int file) {
+        return "seed-" + index + "-" + file + ".txt";
+    }
+
+    /**
+     * Printable content of configured size, different for every gist
+     */
+    private String content(int index) {
+        String line = "seeded gist " + index + "\n";
+        StringBuilder content = new StringBuilder(profile.getContentBytes());
+        while (content.length() < profile.getContentBytes()) {
+            content.append(line, 0, Math.min(line.length(), profile.getContentBytes() - content.length()));
+        }
+        return content.toString();
+    }
+
+    private ExecutorService createExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(profile.getConcurrency(), runnable -> {
+            Thread thread = new Thread(runnable, "gist-seeder-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Seeded gist as it is written to the file
+     */
+    public static class SeededGist {
+
+        private int index;
+
+        private String id;
+
+        private boolean isPublic;
+
+        public SeededGist() {
+        }
+
+        SeededGist(int index, String id, boolean isPublic) {
+            this.index = index;
+            this.id = id;
+            this.isPublic = isPublic;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public boolean isPublic() {
+            return isPublic;
+        }
+
+        public void setPublic(boolean isPublic) {
+            this.isPublic = isPublic;
+        }
+    }
+
+    /**
+     * Content of the file of seeded gists: API and shape they were seeded with
+     */
+    public static class SeedFile {
+
+        private String api;
+
+        private double publicRatio;
+
+        private int files;
+
+        private int contentBytes;
+
+        private List<SeededGist> gists = new ArrayList<>();
+
+        public String getApi() {
+            return api;
+        }
+
+        public void setApi(String api) {
+            this.api = api;
+        }
+
+        public double getPublicRatio() {
+            return publicRatio;
+        }
+
+        public void setPublicRatio(double publicRatio) {
+            this.publicRatio = publicRatio;
+        }
+
+        public int getFiles() {
+            return files;
+        }
+
+        public void setFiles(int files) {
+            this.files = files;
+        }
+
+        public int getContentBytes() {
+            return contentBytes;
+        }
+
+        public void setContentBytes(int contentBytes) {
+            this.contentBytes = contentBytes;
+        }
+
+        public List<SeededGist> getGists() {
+            return gists;
+        }
+
+        public void setGists(List<SeededGist> gists) {
+            this.gists = gists;
+        }
+    }
+}
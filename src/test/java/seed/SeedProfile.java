@@ -0,0 +1,83 @@
+package seed;
+
+/**
+ * Shape of seeded data: number of gists, share of public ones, files per gist, size of file content
+ * and number of gists created concurrently
+ */
+public class SeedProfile {
+
+    private final int count;
+
+    private final double publicRatio;
+
+    private final int files;
+
+    private final int contentBytes;
+
+    private final int concurrency;
+
+    public SeedProfile(int count, double publicRatio, int files, int contentBytes, int concurrency) {
+        if (count < 0 || publicRatio < 0 || publicRatio > 1 || files < 1 || contentBytes < 1 || concurrency < 1) {
+            throw new IllegalArgumentException("Invalid seed profile: count=" + count + ", publicRatio="
+                    + publicRatio + ", files=" + files + ", contentBytes=" + contentBytes
+                    + ", concurrency=" + concurrency);
+        }
+        this.count = count;
+        this.publicRatio = publicRatio;
+        this.files = files;
+        this.contentBytes = contentBytes;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Read profile from system properties gist.seed.count, gist.seed.publicRatio, gist.seed.files,
+     * gist.seed.contentBytes and gist.seed.concurrency
+     *
+     * @return profile of seeding
+     */
+    public static SeedProfile fromSystemProperties() {
+        return new SeedProfile(
+                Integer.getInteger("gist.seed.count", 1000),
+                Double.parseDouble(System.getProperty("gist.seed.publicRatio", "0.5")),
+                Integer.getInteger("gist.seed.files", 1),
+                Integer.getInteger("gist.seed.contentBytes", 1024),
+                Integer.getInteger("gist.seed.concurrency", 16));
+    }
+
+    /**
+     * Public gists are spread evenly: gist is public when it increases the number of public gists
+     * required by ratio
+     *
+     * @param index number of gist starting from 0
+     * @return true if gist should be public
+     */
+    boolean isPublic(int index) {
+        return Math.floor((index + 1) * publicRatio) > Math.floor(index * publicRatio);
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getPublicRatio() {
+        return publicRatio;
+    }
+
+    public int getFiles() {
+        return files;
+    }
+
+    public int getContentBytes() {
+        return contentBytes;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + ", publicRatio=" + publicRatio + ", files=" + files
+                + ", contentBytes=" + contentBytes + ", concurrency=" + concurrency;
+    }
+}
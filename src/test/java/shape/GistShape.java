@@ -0,0 +1,152 @@
+package shape;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bodies of gists with many files: creation of gist with given number of files and PATCH which changes
+ * all of them with mixed operations, every third file is updated, renamed or deleted
+ * Gist with one file is only updated, because gist can't lose all its files
+ */
+public final class GistShape {
+
+    /**
+     * Prefix of description of every gist created by shape tests, used to find leftovers
+     */
+    public static final String DESCRIPTION_MARKER = "gist-shape";
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private final int files;
+
+    private final int fileBytes;
+
+    /**
+     * @param files     number of files
+     * @param fileBytes size of content of every file
+     */
+    public GistShape(int files, int fileBytes) {
+        this.files = files;
+        this.fileBytes = fileBytes;
+    }
+
+    /**
+     * @return body of POST /gists
+     */
+    public byte[] createBody() {
+        return write(generator -> {
+            generator.writeStringField("description", DESCRIPTION_MARKER + " " + files + " files");
+            generator.writeBooleanField("public", false);
+            generator.writeObjectFieldStart("files");
+            for (int i = 0; i < files; i++) {
+                generator.writeObjectFieldStart(filename(i));
+                generator.writeStringField("content", content(i, "created"));
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        });
+    }
+
+    /**
+     * @return body of PATCH /gists/{id} which changes every file of created gist
+     */
+    public byte[] patchBody() {
+        return write(generator -> {
+            generator.writeObjectFieldStart("files");
+            for (int i = 0; i < files; i++) {
+                switch (operation(i)) {
+                    case UPDATE:
+                        generator.writeObjectFieldStart(filename(i));
+                        generator.writeStringField("content", content(i, "updated"));
+                        generator.writeEndObject();
+                        break;
+                    case RENAME:
+                        generator.writeObjectFieldStart(filename(i));
+                        generator.writeStringField("filename", renamed(i));
+                        generator.writeStringField("content", content(i, "renamed"));
+                        generator.writeEndObject();
+                        break;
+                    default:
+                        generator.writeNullField(filename(i));
+                }
+            }
+            generator.writeEndObject();
+        });
+    }
+
+    /**
+     * @return content of files by their names after {@link #patchBody()}
+     */
+    public Map<String, String> filesAfterPatch() {
+        Map<String, String> result = new LinkedHashMap<>();
+        for (int i = 0; i < files; i++) {
+            switch (operation(i)) {
+                case UPDATE:
+                    result.put(filename(i), content(i, "updated"));
+                    break;
+                case RENAME:
+                    result.put(renamed(i), content(i, "renamed"));
+                    break;
+                default:
+                    // deleted
+            }
+        }
+        return result;
+    }
+
+    public int getFiles() {
+        return files;
+    }
+
+    private Operation operation(int index) {
+        return files == 1 ? Operation.UPDATE : Operation.values()[index % Operation.values().length];
+    }
+
+    private static String filename(int index) {
+        return String.format("shape-%04d.txt", index);
+    }
+
+    private static String renamed(int index) {
+        return String.format("shape-%04d-renamed.txt", index);
+    }
+
+    /**
+     * Text of configured size which differs by file and by operation
+     */
+    private String content(int index, String operation) {
+        String line = operation + " file " + index + "\n";
+        StringBuilder content = new StringBuilder(fileBytes);
+        while (content.length() < fileBytes) {
+            content.append(line, 0, Math.min(line.length(), fileBytes - content.length()));
+        }
+        return content.toString();
+    }
+
+    private byte[] write(Fields fields) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(files * (fileBytes + 64) + 128);
+        try (JsonGenerator generator = FACTORY.createGenerator(body, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            fields.write(generator);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to build body of gist with " + files + " files", e);
+        }
+        return body.toByteArray();
+    }
+
+    private enum Operation {
+        UPDATE, RENAME, DELETE
+    }
+
+    private interface Fields {
+
+        void write(JsonGenerator generator) throws IOException;
+    }
+}
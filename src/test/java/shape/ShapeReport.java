@@ -0,0 +1,116 @@
+package shape;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Request size, latency and response parse cost of requests by operation and number of files
+ * Medians are reported in total and per file, so growth of per-file cost shows where it is non-linear
+ */
+public class ShapeReport {
+
+    private final Map<String, List<Sample>> samples = new TreeMap<>();
+
+    /**
+     * Record one request
+     *
+     * @param operation          e.g. POST or PATCH
+     * @param files              number of files in request
+     * @param requestBytes       size of request body
+     * @param responseBytes      size of response body
+     * @param latencyNanos       time from sending request to receiving the whole response
+     * @param firstByteNanos     time from sending request to receiving response headers, i.e. upload and
+     *                           server time, negative if unknown
+     * @param jacksonParseNanos  time of parsing response into Jackson tree
+     * @param jsonPathParseNanos time of parsing response by RestAssured JsonPath, as tests do
+     */
+    public synchronized void record(String operation, int files, long requestBytes, long responseBytes,
+                                    long latencyNanos, long firstByteNanos, long jacksonParseNanos,
+                                    long jsonPathParseNanos) {
+        samples.computeIfAbsent(String.format("%s %03d files", operation, files), key -> new ArrayList<>()).
+                add(new Sample(files, requestBytes, responseBytes, latencyNanos, firstByteNanos, jacksonParseNanos,
+                        jsonPathParseNanos));
+    }
+
+    /**
+     * Write medians of all shapes as JSON
+     *
+     * @param file file to write
+     */
+    public synchronized void write(Path file) throws IOException {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        samples.forEach((shape, shapeSamples) -> summary.put(shape, summary(shapeSamples)));
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().
+                enable(SerializationFeature.INDENT_OUTPUT).
+                writeValue(file.toFile(), summary);
+    }
+
+    private static Map<String, Object> summary(List<Sample> shapeSamples) {
+        int files = shapeSamples.get(0).files;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", shapeSamples.size());
+        summary.put("requestBytes", median(shapeSamples, sample -> sample.requestBytes));
+        summary.put("responseBytes", median(shapeSamples, sample -> sample.responseBytes));
+        putMillis(summary, "latency", median(shapeSamples, sample -> sample.latencyNanos), files);
+        putMillis(summary, "timeToFirstByte", median(shapeSamples, sample -> sample.firstByteNanos), files);
+        putMillis(summary, "jacksonParse", median(shapeSamples, sample -> sample.jacksonParseNanos), files);
+        putMillis(summary, "jsonPathParse", median(shapeSamples, sample -> sample.jsonPathParseNanos), files);
+        return summary;
+    }
+
+    private static void putMillis(Map<String, Object> summary, String name, long nanos, int files) {
+        if (nanos < 0) {
+            return;
+        }
+        summary.put(name + "Millis", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        summary.put(name + "MicrosPerFile", nanos / (double) TimeUnit.MICROSECONDS.toNanos(1) / files);
+    }
+
+    private static long median(List<Sample> shapeSamples, ToLongFunction<Sample> value) {
+        List<Long> values = new ArrayList<>(shapeSamples.size());
+        shapeSamples.forEach(sample -> values.add(value.applyAsLong(sample)));
+        Collections.sort(values);
+        return values.get(values.size() / 2);
+    }
+
+    private static class Sample {
+
+        private final int files;
+
+        private final long requestBytes;
+
+        private final long responseBytes;
+
+        private final long latencyNanos;
+
+        private final long firstByteNanos;
+
+        private final long jacksonParseNanos;
+
+        private final long jsonPathParseNanos;
+
+        Sample(int files, long requestBytes, long responseBytes, long latencyNanos, long firstByteNanos,
+               long jacksonParseNanos, long jsonPathParseNanos) {
+            this.files = files;
+            this.requestBytes = requestBytes;
+            this.responseBytes = responseBytes;
+            this.latencyNanos = latencyNanos;
+            this.firstByteNanos = firstByteNanos;
+            this.jacksonParseNanos = jacksonParseNanos;
+            this.jsonPathParseNanos = jsonPathParseNanos;
+        }
+    }
+}
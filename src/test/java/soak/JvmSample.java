@@ -0,0 +1,182 @@
+package soak;
+
+/**
+ * State of the JVM at one moment of soak run and its activity since the previous sample
+ * Values which can't be measured on this JVM or platform are -1
+ */
+public class JvmSample {
+
+    private double offsetSeconds;
+
+    private long iterations;
+
+    private long heapUsedBytes;
+
+    private long heapCommittedBytes;
+
+    private long metaspaceBytes;
+
+    private long loadedClasses;
+
+    private double allocatedMegabytesPerSecond;
+
+    private long gcCount;
+
+    private long gcMillis;
+
+    private long maxGcPauseMillis;
+
+    private long liveThreads;
+
+    private long openSockets;
+
+    private long openFileDescriptors;
+
+    private long leasedConnections;
+
+    private long availableConnections;
+
+    /**
+     * @return time since the beginning of soak run
+     */
+    public double getOffsetSeconds() {
+        return offsetSeconds;
+    }
+
+    void setOffsetSeconds(double offsetSeconds) {
+        this.offsetSeconds = offsetSeconds;
+    }
+
+    /**
+     * @return number of finished iterations
+     */
+    public long getIterations() {
+        return iterations;
+    }
+
+    void setIterations(long iterations) {
+        this.iterations = iterations;
+    }
+
+    /**
+     * @return heap used right after garbage collection
+     */
+    public long getHeapUsedBytes() {
+        return heapUsedBytes;
+    }
+
+    void setHeapUsedBytes(long heapUsedBytes) {
+        this.heapUsedBytes = heapUsedBytes;
+    }
+
+    public long getHeapCommittedBytes() {
+        return heapCommittedBytes;
+    }
+
+    void setHeapCommittedBytes(long heapCommittedBytes) {
+        this.heapCommittedBytes = heapCommittedBytes;
+    }
+
+    /**
+     * @return used metaspace, grows when classes are generated and never unloaded, e.g. by Groovy
+     */
+    public long getMetaspaceBytes() {
+        return metaspaceBytes;
+    }
+
+    void setMetaspaceBytes(long metaspaceBytes) {
+        this.metaspaceBytes = metaspaceBytes;
+    }
+
+    public long getLoadedClasses() {
+        return loadedClasses;
+    }
+
+    void setLoadedClasses(long loadedClasses) {
+        this.loadedClasses = loadedClasses;
+    }
+
+    /**
+     * @return bytes allocated by all threads since the previous sample per second
+     */
+    public double getAllocatedMegabytesPerSecond() {
+        return allocatedMegabytesPerSecond;
+    }
+
+    void setAllocatedMegabytesPerSecond(double allocatedMegabytesPerSecond) {
+        this.allocatedMegabytesPerSecond = allocatedMegabytesPerSecond;
+    }
+
+    /**
+     * @return number of collections since the previous sample, forced ones are not counted
+     */
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    void setGcCount(long gcCount) {
+        this.gcCount = gcCount;
+    }
+
+    /**
+     * @return total duration of collections since the previous sample, forced ones are not counted
+     */
+    public long getGcMillis() {
+        return gcMillis;
+    }
+
+    void setGcMillis(long gcMillis) {
+        this.gcMillis = gcMillis;
+    }
+
+    public long getMaxGcPauseMillis() {
+        return maxGcPauseMillis;
+    }
+
+    void setMaxGcPauseMillis(long maxGcPauseMillis) {
+        this.maxGcPauseMillis = maxGcPauseMillis;
+    }
+
+    public long getLiveThreads() {
+        return liveThreads;
+    }
+
+    void setLiveThreads(long liveThreads) {
+        this.liveThreads = liveThreads;
+    }
+
+    public long getOpenSockets() {
+        return openSockets;
+    }
+
+    void setOpenSockets(long openSockets) {
+        this.openSockets = openSockets;
+    }
+
+    public long getOpenFileDescriptors() {
+        return openFileDescriptors;
+    }
+
+    void setOpenFileDescriptors(long openFileDescriptors) {
+        this.openFileDescriptors = openFileDescriptors;
+    }
+
+    /**
+     * @return connections of the shared pool which are taken and not released
+     */
+    public long getLeasedConnections() {
+        return leasedConnections;
+    }
+
+    void setLeasedConnections(long leasedConnections) {
+        this.leasedConnections = leasedConnections;
+    }
+
+    public long getAvailableConnections() {
+        return availableConnections;
+    }
+
+    void setAvailableConnections(long availableConnections) {
+        this.availableConnections = availableConnections;
+    }
+}
@@ -0,0 +1,216 @@
+package soak;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.UnixOperatingSystemMXBean;
+import config.GistConnectionPool;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Samples heap after garbage collection, allocation rate, collections, threads, sockets and connections of the pool
+ * Heap is measured either after forced full collection, which shows live objects only, or after the last collection
+ * reported by the JVM, which may still contain garbage promoted to old generation
+ * Collections are counted from JVM notifications, so forced collections are excluded from pause statistics
+ */
+class JvmSampler implements AutoCloseable {
+
+    private static final String EXPLICIT_GC = "System.gc()";
+
+    private static final Path FILE_DESCRIPTORS = Paths.get("/proc/self/fd");
+
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    private final boolean forceGc;
+
+    private final long startNanos;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final NotificationListener gcListener = this::onGc;
+
+    private final AtomicLong gcCount = new AtomicLong();
+
+    private final AtomicLong gcMillis = new AtomicLong();
+
+    private final AtomicLong maxGcPauseMillis = new AtomicLong();
+
+    private final AtomicLong heapAfterLastGc = new AtomicLong(-1);
+
+    /**
+     * Bytes allocated by every thread until the previous sample, threads which died since then are forgotten
+     * and their allocations after the previous sample are lost
+     */
+    private Map<Long, Long> allocatedByThread = new HashMap<>();
+
+    private long previousNanos;
+
+    /**
+     * @param forceGc collect garbage before every sample
+     */
+    JvmSampler(boolean forceGc) {
+        this.forceGc = forceGc;
+        this.startNanos = System.nanoTime();
+        this.previousNanos = startNanos;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                ((NotificationEmitter) collector).addNotificationListener(gcListener, null, null);
+            }
+        }
+        if (threads.isThreadAllocatedMemorySupported()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+            allocatedByThread = allocatedByThread();
+        }
+    }
+
+    /**
+     * Take sample, called by one thread at a time
+     *
+     * @param iterations number of iterations finished so far
+     * @return sample with activity since the previous one
+     */
+    synchronized JvmSample sample(long iterations) {
+        long now = System.nanoTime();
+        JvmSample sample = new JvmSample();
+        sample.setOffsetSeconds((now - startNanos) / (double) TimeUnit.SECONDS.toNanos(1));
+        sample.setIterations(iterations);
+
+        sample.setAllocatedMegabytesPerSecond(allocatedMegabytesPerSecond(now));
+        sample.setGcCount(gcCount.getAndSet(0));
+        sample.setGcMillis(gcMillis.getAndSet(0));
+        sample.setMaxGcPauseMillis(maxGcPauseMillis.getAndSet(0));
+
+        if (forceGc) {
+            System.gc();
+            sample.setHeapUsedBytes(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        } else {
+            sample.setHeapUsedBytes(heapAfterLastGc.get());
+        }
+        sample.setHeapCommittedBytes(ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getCommitted());
+        sample.setMetaspaceBytes(metaspaceBytes());
+        sample.setLoadedClasses(ManagementFactory.getClassLoadingMXBean().getLoadedClassCount());
+
+        sample.setLiveThreads(threads.getThreadCount());
+        sample.setOpenSockets(openSockets());
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        sample.setOpenFileDescriptors(os instanceof UnixOperatingSystemMXBean
+                ? ((UnixOperatingSystemMXBean) os).getOpenFileDescriptorCount() : -1);
+        sample.setLeasedConnections(GistConnectionPool.leasedConnections());
+        sample.setAvailableConnections(GistConnectionPool.availableConnections());
+        return sample;
+    }
+
+    @Override
+    public void close() {
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) collector).removeNotificationListener(gcListener);
+                } catch (ListenerNotFoundException e) {
+                    // collector didn't accept listener
+                }
+            }
+        }
+    }
+
+    private void onGc(Notification notification, Object handback) {
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+                GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+
+        long heapAfterGc = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = info.getGcInfo().getMemoryUsageAfterGc().get(pool.getName());
+            if (pool.getType() == MemoryType.HEAP && usage != null) {
+                heapAfterGc += usage.getUsed();
+            }
+        }
+        heapAfterLastGc.set(heapAfterGc);
+
+        if (EXPLICIT_GC.equals(info.getGcCause())) {
+            return;
+        }
+        long duration = info.getGcInfo().getDuration();
+        gcCount.incrementAndGet();
+        gcMillis.addAndGet(duration);
+        maxGcPauseMillis.accumulateAndGet(duration, Math::max);
+    }
+
+    private double allocatedMegabytesPerSecond(long now) {
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+        Map<Long, Long> allocated = allocatedByThread();
+        long bytes = 0;
+        for (Map.Entry<Long, Long> thread : allocated.entrySet()) {
+            bytes += thread.getValue() - allocatedByThread.getOrDefault(thread.getKey(), 0L);
+        }
+        double seconds = (now - previousNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        allocatedByThread = allocated;
+        previousNanos = now;
+        return seconds > 0 ? bytes / BYTES_PER_MEGABYTE / seconds : 0;
+    }
+
+    private Map<Long, Long> allocatedByThread() {
+        long[] ids = threads.getAllThreadIds();
+        long[] bytes = threads.getThreadAllocatedBytes(ids);
+        Map<Long, Long> allocated = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            if (bytes[i] >= 0) {
+                allocated.put(ids[i], bytes[i]);
+            }
+        }
+        return allocated;
+    }
+
+    private static long metaspaceBytes() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.NON_HEAP && pool.getName().equals("Metaspace")) {
+                return pool.getUsage().getUsed();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Count sockets among open file descriptors, only on Linux
+     */
+    private static long openSockets() {
+        if (!Files.isDirectory(FILE_DESCRIPTORS)) {
+            return -1;
+        }
+        try (Stream<Path> descriptors = Files.list(FILE_DESCRIPTORS)) {
+            return descriptors.filter(descriptor -> {
+                try {
+                    return Files.readSymbolicLink(descriptor).toString().startsWith("socket:");
+                } catch (IOException e) {
+                    // descriptor was closed while listing
+                    return false;
+                }
+            }).count();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package soak;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Finds metrics which grow steadily during soak run
+ * Samples after warm-up are split into equal windows and the minimum of every window is taken, so the saw-tooth
+ * of garbage collection and short bursts are ignored. Metric is flagged as leaking when the minimum never goes down
+ * from window to window, goes up at least in half of the steps and grows by at least the configured share
+ * from the first window to the last one
+ */
+final class LeakDetector {
+
+    /**
+     * Metrics which should stay flat when nothing leaks
+     */
+    private static final Map<String, ToLongFunction<JvmSample>> TRACKED = new LinkedHashMap<>();
+
+    static {
+        TRACKED.put("heapUsedBytes", JvmSample::getHeapUsedBytes);
+        TRACKED.put("metaspaceBytes", JvmSample::getMetaspaceBytes);
+        TRACKED.put("loadedClasses", JvmSample::getLoadedClasses);
+        TRACKED.put("liveThreads", JvmSample::getLiveThreads);
+        TRACKED.put("openSockets", JvmSample::getOpenSockets);
+        TRACKED.put("openFileDescriptors", JvmSample::getOpenFileDescriptors);
+        TRACKED.put("leasedConnections", JvmSample::getLeasedConnections);
+    }
+
+    private LeakDetector() {
+    }
+
+    /**
+     * Judge trend of every tracked metric
+     *
+     * @param samples all samples of the run
+     * @param profile profile with warm-up, number of windows and minimal growth
+     * @return trend of every metric which was measured
+     */
+    static List<Trend> trends(List<JvmSample> samples, SoakProfile profile) {
+        double warmupSeconds = profile.getWarmupNanos() / 1e9;
+        List<JvmSample> steady = new ArrayList<>();
+        for (JvmSample sample : samples) {
+            if (sample.getOffsetSeconds() >= warmupSeconds) {
+                steady.add(sample);
+            }
+        }
+
+        List<Trend> trends = new ArrayList<>();
+        TRACKED.forEach((name, metric) -> {
+            if (!steady.isEmpty() && metric.applyAsLong(steady.get(0)) >= 0) {
+                trends.add(trend(name, steady, metric, profile));
+            }
+        });
+        return trends;
+    }
+
+    private static Trend trend(String name, List<JvmSample> samples, ToLongFunction<JvmSample> metric,
+                               SoakProfile profile) {
+        Trend trend = new Trend(name);
+        trend.slopePerHour = slopePerHour(samples, metric);
+        int windows = profile.getWindows();
+        if (samples.size() < windows * 2) {
+            trend.verdict = "not enough samples after warm-up: " + samples.size() + ", need " + windows * 2;
+            return trend;
+        }
+
+        long[] minima = new long[windows];
+        for (int window = 0; window < windows; window++) {
+            long minimum = Long.MAX_VALUE;
+            int from = samples.size() * window / windows;
+            int to = samples.size() * (window + 1) / windows;
+            for (int i = from; i < to; i++) {
+                minimum = Math.min(minimum, metric.applyAsLong(samples.get(i)));
+            }
+            minima[window] = minimum;
+        }
+        trend.windowMinima = minima;
+
+        int rises = 0;
+        boolean neverFalls = true;
+        for (int window = 1; window < windows; window++) {
+            neverFalls &= minima[window] >= minima[window - 1];
+            rises += minima[window] > minima[window - 1] ? 1 : 0;
+        }
+        long first = minima[0];
+        long last = minima[windows - 1];
+        trend.growth = first > 0 ? (double) (last - first) / first : (last > 0 ? Double.POSITIVE_INFINITY : 0);
+        trend.leak = neverFalls && rises * 2 >= windows - 1 && last > first && trend.growth >= profile.getMinGrowth();
+        trend.verdict = trend.leak ? "grows monotonically" : "stable";
+        return trend;
+    }
+
+    /**
+     * Least squares slope of metric over time
+     */
+    private static double slopePerHour(List<JvmSample> samples, ToLongFunction<JvmSample> metric) {
+        if (samples.size() < 2) {
+            return 0;
+        }
+        double meanTime = 0;
+        double meanValue = 0;
+        for (JvmSample sample : samples) {
+            meanTime += sample.getOffsetSeconds();
+            meanValue += metric.applyAsLong(sample);
+        }
+        meanTime /= samples.size();
+        meanValue /= samples.size();
+
+        double covariance = 0;
+        double variance = 0;
+        for (JvmSample sample : samples) {
+            double time = sample.getOffsetSeconds() - meanTime;
+            covariance += time * (metric.applyAsLong(sample) - meanValue);
+            variance += time * time;
+        }
+        return variance > 0 ? covariance / variance * 3600 : 0;
+    }
+
+    /**
+     * Trend of one metric after warm-up
+     */
+    static class Trend {
+
+        private final String metric;
+
+        private long[] windowMinima = new long[0];
+
+        private double growth;
+
+        private double slopePerHour;
+
+        private boolean leak;
+
+        private String verdict;
+
+        Trend(String metric) {
+            this.metric = metric;
+        }
+
+        public String getMetric() {
+            return metric;
+        }
+
+        /**
+         * @return minimum of every window after warm-up
+         */
+        public long[] getWindowMinima() {
+            return windowMinima;
+        }
+
+        /**
+         * @return growth from the first window to the last one as share of the first one
+         */
+        public double getGrowth() {
+            return growth;
+        }
+
+        public double getSlopePerHour() {
+            return slopePerHour;
+        }
+
+        public boolean isLeak() {
+            return leak;
+        }
+
+        public String getVerdict() {
+            return verdict;
+        }
+    }
+}
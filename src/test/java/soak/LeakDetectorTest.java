@@ -0,0 +1,112 @@
+package soak;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongUnaryOperator;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.lessThan;
+
+/**
+ * Tests of leak verdicts on samples built in memory, no API is called
+ */
+class LeakDetectorTest {
+
+    private static final long MB = 1024 * 1024;
+
+    /**
+     * 10 s of warm-up, 4 windows, leak grows by at least 10%
+     */
+    private static final SoakProfile PROFILE = new SoakProfile(1, 1, 10, 4, 0.1, 0, 0, false);
+
+    @Test
+    @DisplayName("heap which grows steadily after warm-up is a leak")
+    void steadyGrowth() {
+        LeakDetector.Trend heap = heap(LeakDetector.trends(samples(50, second -> 100 * MB + second * MB), PROFILE));
+
+        assertThat(heap.isLeak(), equalTo(true));
+        assertThat(heap.getVerdict(), equalTo("grows monotonically"));
+        assertThat(heap.getSlopePerHour(), closeTo(3600.0 * MB, MB));
+        assertThat(heap.getWindowMinima()[0], equalTo(110 * MB));
+    }
+
+    @Test
+    @DisplayName("saw-tooth of garbage collection with flat minimum is stable")
+    void sawTooth() {
+        LeakDetector.Trend heap = heap(LeakDetector.trends(
+                samples(50, second -> 100 * MB + (second % 5) * 20 * MB), PROFILE));
+
+        assertThat(heap.isLeak(), equalTo(false));
+        assertThat(heap.getVerdict(), equalTo("stable"));
+    }
+
+    @Test
+    @DisplayName("growth below minimal share is not a leak")
+    void smallGrowth() {
+        // 1 KB per second of 100 MB is far below 10%
+        LeakDetector.Trend heap = heap(LeakDetector.trends(samples(50, second -> 100 * MB + second * 1024), PROFILE));
+
+        assertThat(heap.isLeak(), equalTo(false));
+        assertThat(heap.getGrowth(), lessThan(0.1));
+    }
+
+    @Test
+    @DisplayName("growth during warm-up is ignored")
+    void warmupIgnored() {
+        LeakDetector.Trend heap = heap(LeakDetector.trends(
+                samples(50, second -> second < 10 ? second * 10 * MB : 100 * MB), PROFILE));
+
+        assertThat(heap.isLeak(), equalTo(false));
+        assertThat(heap.getWindowMinima()[0], equalTo(100 * MB));
+    }
+
+    @Test
+    @DisplayName("too few samples after warm-up give no verdict of leak")
+    void notEnoughSamples() {
+        LeakDetector.Trend heap = heap(LeakDetector.trends(samples(15, second -> second * MB), PROFILE));
+
+        assertThat(heap.isLeak(), equalTo(false));
+        assertThat(heap.getVerdict(), containsString("not enough samples after warm-up: 5, need 8"));
+    }
+
+    @Test
+    @DisplayName("metrics which are not measured are not judged")
+    void unmeasuredMetric() {
+        List<String> metrics = new ArrayList<>();
+        LeakDetector.trends(samples(50, second -> 100 * MB), PROFILE).
+                forEach(trend -> metrics.add(trend.getMetric()));
+
+        assertThat(metrics, hasItem("heapUsedBytes"));
+        assertThat(metrics, not(hasItem("openFileDescriptors")));
+    }
+
+    /**
+     * One sample per second with given heap, file descriptors are not measured like on Windows
+     */
+    private static List<JvmSample> samples(int seconds, LongUnaryOperator heap) {
+        List<JvmSample> samples = new ArrayList<>();
+        for (int second = 0; second < seconds; second++) {
+            JvmSample sample = new JvmSample();
+            sample.setOffsetSeconds(second);
+            sample.setHeapUsedBytes(heap.applyAsLong(second));
+            sample.setOpenFileDescriptors(-1);
+            samples.add(sample);
+        }
+        return samples;
+    }
+
+    private static LeakDetector.Trend heap(List<LeakDetector.Trend> trends) {
+        return trends.stream().
+                filter(trend -> trend.getMetric().equals("heapUsedBytes")).
+                findFirst().
+                orElseThrow(() -> new AssertionError("No trend of heapUsedBytes"));
+    }
+}
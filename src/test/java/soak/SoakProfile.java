@@ -0,0 +1,107 @@
+package soak;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Duration of soak run, how often JVM is sampled and how samples are judged
+ * Profile is configured with system properties:
+ * gist.soak.minutes (duration), gist.soak.sampleSeconds, gist.soak.warmupSeconds (samples excluded from trends),
+ * gist.soak.windows (number of windows compared by trend), gist.soak.minGrowth (share of growth flagged as leak),
+ * gist.soak.fixtureEvery (iterations between fixture sessions, 0 to skip them), gist.soak.pauseMillis
+ * (pause between iterations) and gist.soak.forceGc (collect garbage before every sample)
+ */
+public final class SoakProfile {
+
+    private final long durationNanos;
+
+    private final long sampleNanos;
+
+    private final long warmupNanos;
+
+    private final int windows;
+
+    private final double minGrowth;
+
+    private final int fixtureEvery;
+
+    private final long pauseMillis;
+
+    private final boolean forceGc;
+
+    public SoakProfile(double minutes, long sampleSeconds, long warmupSeconds, int windows, double minGrowth,
+                       int fixtureEvery, long pauseMillis, boolean forceGc) {
+        if (minutes <= 0 || sampleSeconds <= 0 || warmupSeconds < 0 || windows < 2 || minGrowth < 0
+                || fixtureEvery < 0 || pauseMillis < 0) {
+            throw new IllegalArgumentException("Invalid soak profile: minutes=" + minutes + ", sampleSeconds="
+                    + sampleSeconds + ", warmupSeconds=" + warmupSeconds + ", windows=" + windows
+                    + ", minGrowth=" + minGrowth + ", fixtureEvery=" + fixtureEvery + ", pauseMillis=" + pauseMillis);
+        }
+        this.durationNanos = (long) (minutes * TimeUnit.MINUTES.toNanos(1));
+        this.sampleNanos = TimeUnit.SECONDS.toNanos(sampleSeconds);
+        this.warmupNanos = TimeUnit.SECONDS.toNanos(warmupSeconds);
+        this.windows = windows;
+        this.minGrowth = minGrowth;
+        this.fixtureEvery = fixtureEvery;
+        this.pauseMillis = pauseMillis;
+        this.forceGc = forceGc;
+    }
+
+    /**
+     * Create profile from system properties
+     *
+     * @return soak profile
+     */
+    public static SoakProfile fromSystemProperties() {
+        return new SoakProfile(
+                Double.parseDouble(System.getProperty("gist.soak.minutes", "60")),
+                Long.getLong("gist.soak.sampleSeconds", 10),
+                Long.getLong("gist.soak.warmupSeconds", 120),
+                Integer.getInteger("gist.soak.windows", 6),
+                Double.parseDouble(System.getProperty("gist.soak.minGrowth", "0.05")),
+                Integer.getInteger("gist.soak.fixtureEvery", 50),
+                Long.getLong("gist.soak.pauseMillis", 0),
+                Boolean.parseBoolean(System.getProperty("gist.soak.forceGc", "true")));
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public long getSampleNanos() {
+        return sampleNanos;
+    }
+
+    public long getWarmupNanos() {
+        return warmupNanos;
+    }
+
+    public int getWindows() {
+        return windows;
+    }
+
+    public double getMinGrowth() {
+        return minGrowth;
+    }
+
+    public int getFixtureEvery() {
+        return fixtureEvery;
+    }
+
+    public long getPauseMillis() {
+        return pauseMillis;
+    }
+
+    public boolean isForceGc() {
+        return forceGc;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%.1f minutes, sample every %d s, warm-up %d s, %d windows, "
+                        + "min growth %.0f%%, fixtures every %d iterations, pause %d ms, forced GC %s",
+                durationNanos / (double) TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS.toSeconds(sampleNanos),
+                TimeUnit.NANOSECONDS.toSeconds(warmupNanos), windows, minGrowth * 100, fixtureEvery, pauseMillis,
+                forceGc);
+    }
+}
@@ -0,0 +1,98 @@
+package soak;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of soak run: iterations, time series of JVM samples and trends of metrics which should stay flat
+ */
+public class SoakReport {
+
+    private final SoakProfile profile;
+
+    private final Map<String, Object> iterationMetrics;
+
+    private final long iterations;
+
+    private final long failedIterations;
+
+    private final long fixtureSessions;
+
+    private final long failedFixtureSessions;
+
+    private final List<JvmSample> samples;
+
+    private final List<LeakDetector.Trend> trends;
+
+    SoakReport(SoakProfile profile, Map<String, Object> iterationMetrics, long iterations, long failedIterations,
+               long fixtureSessions, long failedFixtureSessions, List<JvmSample> samples,
+               List<LeakDetector.Trend> trends) {
+        this.profile = profile;
+        this.iterationMetrics = iterationMetrics;
+        this.iterations = iterations;
+        this.failedIterations = failedIterations;
+        this.fixtureSessions = fixtureSessions;
+        this.failedFixtureSessions = failedFixtureSessions;
+        this.samples = samples;
+        this.trends = trends;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    public long getFailedIterations() {
+        return failedIterations;
+    }
+
+    public long getFailedFixtureSessions() {
+        return failedFixtureSessions;
+    }
+
+    /**
+     * @return names of metrics which grow monotonically after warm-up
+     */
+    public List<String> getLeaks() {
+        List<String> leaks = new ArrayList<>();
+        for (LeakDetector.Trend trend : trends) {
+            if (trend.isLeak()) {
+                leaks.add(trend.getMetric());
+            }
+        }
+        return leaks;
+    }
+
+    /**
+     * Write report as JSON
+     *
+     * @param file file to write
+     */
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        new ObjectMapper().
+                enable(SerializationFeature.INDENT_OUTPUT).
+                writeValue(file.toFile(), summary());
+    }
+
+    private Map<String, Object> summary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("profile", profile.toString());
+        summary.put("iterations", iterations);
+        summary.put("failedIterations", failedIterations);
+        summary.put("fixtureSessions", fixtureSessions);
+        summary.put("failedFixtureSessions", failedFixtureSessions);
+        summary.put("leaks", getLeaks());
+        summary.put("trends", trends);
+        summary.put("iterationMetrics", iterationMetrics);
+        summary.put("samples", samples);
+        return summary;
+    }
+}
@@ -0,0 +1,77 @@
+package soak;
+
+import load.GistLifecycle;
+import load.LoadMetrics;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Repeats gist workflow in one thread for the duration of soak run while JVM is sampled at fixed rate
+ * Every few iterations test fixtures are created and deleted the way a test session does it,
+ * so leaks of fixture handling are caught as well as leaks of requests
+ */
+public final class SoakRunner {
+
+    private SoakRunner() {
+    }
+
+    /**
+     * Run soak
+     *
+     * @param lifecycle      workflow repeated by iterations
+     * @param fixtureSession creation and deletion of test fixtures
+     * @param profile        duration and sampling of run
+     * @return time series of samples, trends and results of iterations
+     */
+    public static SoakReport run(GistLifecycle lifecycle, Runnable fixtureSession, SoakProfile profile)
+            throws InterruptedException {
+        LoadMetrics metrics = new LoadMetrics();
+        AtomicLong iterations = new AtomicLong();
+        List<JvmSample> samples = new CopyOnWriteArrayList<>();
+        long fixtureSessions = 0;
+        long failedFixtureSessions = 0;
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gist-soak-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        try (JvmSampler sampler = new JvmSampler(profile.isForceGc())) {
+            scheduler.scheduleAtFixedRate(() -> samples.add(sampler.sample(iterations.get())),
+                    0, profile.getSampleNanos(), TimeUnit.NANOSECONDS);
+
+            while (System.nanoTime() - start < profile.getDurationNanos()) {
+                lifecycle.run(metrics, System.nanoTime());
+                long finished = iterations.incrementAndGet();
+
+                if (profile.getFixtureEvery() > 0 && finished % profile.getFixtureEvery() == 0) {
+                    fixtureSessions++;
+                    try {
+                        fixtureSession.run();
+                    } catch (RuntimeException e) {
+                        failedFixtureSessions++;
+                    }
+                }
+                if (profile.getPauseMillis() > 0) {
+                    Thread.sleep(profile.getPauseMillis());
+                }
+            }
+
+            scheduler.shutdown();
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+            samples.add(sampler.sample(iterations.get()));
+        } finally {
+            scheduler.shutdownNow();
+        }
+        long duration = System.nanoTime() - start;
+
+        return new SoakReport(profile, metrics.summary(duration), metrics.getSessions(), metrics.getFailedSessions(),
+                fixtureSessions, failedFixtureSessions, samples, LeakDetector.trends(samples, profile));
+    }
+}
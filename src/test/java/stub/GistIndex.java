@@ -0,0 +1,81 @@
+package stub;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gists of one listing (owned by user, public, starred by user or forks of gist) from the newest one to the oldest one
+ * Page is read by skipping previous pages of this listing only, total is kept by counter because size of
+ * skip list is counted by traversal
+ */
+class GistIndex {
+
+    private final ConcurrentNavigableMap<Long, StoredGist> newestFirst =
+            new ConcurrentSkipListMap<>(Collections.reverseOrder());
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    void add(StoredGist gist) {
+        if (newestFirst.putIfAbsent(gist.getSequence(), gist) == null) {
+            size.incrementAndGet();
+        }
+    }
+
+    void remove(StoredGist gist) {
+        if (newestFirst.remove(gist.getSequence(), gist)) {
+            size.decrementAndGet();
+        }
+    }
+
+    boolean contains(StoredGist gist) {
+        return newestFirst.get(gist.getSequence()) == gist;
+    }
+
+    /**
+     * Get one page of gists from the newest one
+     *
+     * @param page    number of page starting from 1
+     * @param perPage size of page
+     * @return gists of page and total number of gists in the listing
+     */
+    Page page(int page, int perPage) {
+        List<StoredGist> items = new ArrayList<>(perPage);
+        long skip = (long) (page - 1) * perPage;
+        Iterator<StoredGist> iterator = newestFirst.values().iterator();
+        for (long i = 0; i < skip && iterator.hasNext(); i++) {
+            iterator.next();
+        }
+        while (items.size() < perPage && iterator.hasNext()) {
+            items.add(iterator.next());
+        }
+        return new Page(items, size.get());
+    }
+
+    /**
+     * One page of listing
+     */
+    static class Page {
+
+        private final List<StoredGist> items;
+
+        private final int total;
+
+        Page(List<StoredGist> items, int total) {
+            this.items = items;
+            this.total = total;
+        }
+
+        List<StoredGist> getItems() {
+            return items;
+        }
+
+        int getTotal() {
+            return total;
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package stub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Endpoints of GitHub API implemented by the local stand-in:
+ * authorizations, gists CRUD, listing of gists, stars, forks and raw content of files
+ * GET /rate_limit is answered by {@link LocalGistApi} which knows the window of the caller
+ * Unauthorized changes of gists get 404 and unauthorized creation gets 401 like on GitHub
+ */
+class GistRoutes {
+
+    private static final int DEFAULT_PER_PAGE = 30;
+
+    private static final int MAX_PER_PAGE = 100;
+
+    /**
+     * Like GitHub, only the first megabyte of file content is returned, the whole file is available by raw_url
+     */
+    private static final int MAX_CONTENT_BYTES = 1024 * 1024;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final GistStore store;
+
+    private final String baseUri;
+
+    /**
+     * @param store   store of gists
+     * @param baseUri URI of the stand-in without trailing slash
+     */
+    GistRoutes(GistStore store, String baseUri) {
+        this.store = store;
+        this.baseUri = baseUri;
+    }
+
+    /**
+     * Handle request
+     *
+     * @param request request
+     * @param user    authenticated user or null
+     * @return response without rate limit headers
+     */
+    StubResponse handle(StubExchange request, String user) {
+        String[] path = request.getSegments();
+        String method = request.getMethod();
+
+        if (path.length == 1 && path[0].equals("authorizations") && method.equals("POST")) {
+            return authorize(request);
+        }
+        if (path.length == 3 && path[0].equals("raw") && method.equals("GET")) {
+            return raw(path[1], path[2]);
+        }
+        if (path.length == 0 || !path[0].equals("gists")) {
+            return notFound();
+        }
+        if (path.length == 1) {
+            switch (method) {
+                case "GET":
+                    return list(request, "/gists", user != null ? store.ownedBy(user) : store.publicGists());
+                case "POST":
+                    return create(request, user);
+                default:
+                    return notFound();
+            }
+        }
+        if (path.length == 2 && method.equals("GET") && path[1].equals("public")) {
+            return list(request, "/gists/public", store.publicGists());
+        }
+        if (path.length == 2 && method.equals("GET") && path[1].equals("starred")) {
+            return user != null
+                    ? list(request, "/gists/starred", store.starredBy(user))
+                    : message(401, "Requires authentication");
+        }
+
+        StoredGist gist = store.get(path[1]);
+        if (gist == null) {
+            return notFound();
+        }
+        if (path.length == 2) {
+            return gist(request, gist, user);
+        }
+        if (path.length == 3 && path[2].equals("star")) {
+            return star(method, gist, user);
+        }
+        if (path.length == 3 && path[2].equals("forks")) {
+            return forks(request, gist, user);
+        }
+        return notFound();
+    }
+
+    private StubResponse authorize(StubExchange request) {
+        String user = request.getBasicUser();
+        if (user == null) {
+            return message(401, "Requires authentication");
+        }
+        Map<String, Object> authorization = new LinkedHashMap<>();
+        authorization.put("token", store.createToken(user));
+        authorization.put("scopes", new String[]{"gist"});
+        return json(201, authorization);
+    }
+
+    private StubResponse raw(String id, String filename) {
+        StoredGist gist = store.get(id);
+        String content = gist != null ? gist.getFiles().get(filename) : null;
+        if (content == null) {
+            return notFound();
+        }
+        return new StubResponse(200, content.getBytes(StandardCharsets.UTF_8)).
+                header("Content-Type", "text/plain; charset=utf-8");
+    }
+
+    private StubResponse create(StubExchange request, String user) {
+        if (user == null) {
+            return message(401, "Requires authentication");
+        }
+        JsonNode body = readJson(request);
+        JsonNode filesNode = body != null ? body.get("files") : null;
+        if (filesNode == null || !filesNode.isObject() || filesNode.size() == 0) {
+            return message(422, "Validation Failed");
+        }
+        Map<String, String> files = new LinkedHashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = filesNode.fields(); it.hasNext(); ) {
+            Map.Entry<String, JsonNode> file = it.next();
+            JsonNode content = file.getValue().get("content");
+            if (content == null || !content.isTextual() || content.asText().isEmpty()) {
+                return message(422, "Validation Failed");
+            }
+            files.put(file.getKey(), content.asText());
+        }
+        StoredGist gist = store.create(user, body.path("public").asBoolean(false),
+                body.path("description").asText(""), files);
+        return json(201, gistJson(gist, true)).header("Location", gistUrl(gist));
+    }
+
+    private StubResponse gist(StubExchange request, StoredGist gist, String user) {
+        switch (request.getMethod()) {
+            case "GET":
+                return json(200, gistJson(gist, true));
+            case "PATCH":
+                if (!gist.getOwner().equals(user)) {
+                    return notFound();
+                }
+                JsonNode body = readJson(request);
+                if (body == null) {
+                    return message(422, "Validation Failed");
+                }
+                Map<String, StoredGist.FileChange> changes = new LinkedHashMap<>();
+                for (Iterator<Map.Entry<String, JsonNode>> it = body.path("files").fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> file = it.next();
+                    JsonNode change = file.getValue();
+                    changes.put(file.getKey(), change.isNull() ? null : new StoredGist.FileChange(
+                            change.hasNonNull("content") ? change.get("content").asText() : null,
+                            change.hasNonNull("filename") ? change.get("filename").asText() : null));
+                }
+                gist.update(body.hasNonNull("description") ? body.get("description").asText() : null, changes);
+                return json(200, gistJson(gist, true));
+            case "DELETE":
+                return gist.getOwner().equals(user) && store.delete(gist) ? noContent() : notFound();
+            default:
+                return notFound();
+        }
+    }
+
+    private StubResponse star(String method, StoredGist gist, String user) {
+        if (user == null) {
+            return notFound();
+        }
+        switch (method) {
+            case "PUT":
+                store.star(gist, user);
+                return noContent();
+            case "DELETE":
+                store.unstar(gist, user);
+                return noContent();
+            case "GET":
+                return store.isStarred(gist, user) ? noContent() : notFound();
+            default:
+                return notFound();
+        }
+    }
+
+    private StubResponse forks(StubExchange request, StoredGist gist, String user) {
+        switch (request.getMethod()) {
+            case "POST":
+                if (user == null) {
+                    return message(401, "Requires authentication");
+                }
+                if (gist.getOwner().equals(user)) {
+                    return message(422, "You cannot fork your own gist");
+                }
+                StoredGist fork = store.fork(gist, user);
+                return json(201, gistJson(fork, true)).header("Location", gistUrl(fork));
+            case "GET":
+                return list(request, "/gists/" + gist.getId() + "/forks", store.forksOf(gist));
+            default:
+                return notFound();
+        }
+    }
+
+    private StubResponse list(StubExchange request, String path, GistIndex index) {
+        int perPage = Math.min(MAX_PER_PAGE, intParameter(request, "per_page", DEFAULT_PER_PAGE));
+        int page = intParameter(request, "page", 1);
+        GistIndex.Page gists = index.page(page, perPage);
+
+        List<Object> items = new ArrayList<>(gists.getItems().size());
+        gists.getItems().forEach(gist -> {
+            Map<String, Object> json = gistJson(gist, false);
+            if (gist.getForkOf() != null) {
+                json.put("user", owner(gist));
+            }
+            items.add(json);
+        });
+        StubResponse response = json(200, items);
+
+        int lastPage = Math.max(1, (gists.getTotal() + perPage - 1) / perPage);
+        List<String> links = new ArrayList<>();
+        if (page < lastPage) {
+            links.add(link(path, page + 1, perPage, "next"));
+            links.add(link(path, lastPage, perPage, "last"));
+        }
+        if (page > 1) {
+            links.add(link(path, 1, perPage, "first"));
+            links.add(link(path, Math.min(page - 1, lastPage), perPage, "prev"));
+        }
+        return links.isEmpty() ? response : response.header("Link", String.join(", ", links));
+    }
+
+    private String link(String path, int page, int perPage, String rel) {
+        return "<" + baseUri + path + "?page=" + page + "&per_page=" + perPage + ">; rel=\"" + rel + "\"";
+    }
+
+    private Map<String, Object> gistJson(StoredGist gist, boolean withContent) {
+        String url = gistUrl(gist);
+        Map<String, Object> files = new LinkedHashMap<>();
+        gist.getFiles().forEach((filename, content) -> {
+            Map<String, Object> file = new LinkedHashMap<>();
+            file.put("filename", filename);
+            file.put("type", type(filename));
+            file.put("language", language(filename));
+            file.put("raw_url", baseUri + "/raw/" + gist.getId() + "/" + filename);
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            file.put("size", bytes.length);
+            if (withContent) {
+                boolean truncated = bytes.length > MAX_CONTENT_BYTES;
+                file.put("truncated", truncated);
+                file.put("content", truncated
+                        ? new String(bytes, 0, MAX_CONTENT_BYTES, StandardCharsets.UTF_8) : content);
+            }
+            files.put(filename, file);
+        });
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("url", url);
+        json.put("forks_url", url + "/forks");
+        json.put("id", gist.getId());
+        json.put("files", files);
+        json.put("public", gist.isPublic());
+        json.put("created_at", gist.getCreatedAt().toString());
+        json.put("updated_at", gist.getUpdatedAt().toString());
+        json.put("description", gist.getDescription());
+        json.put("comments", 0);
+        json.put("owner", owner(gist));
+        json.put("truncated", false);
+        if (gist.getForkOf() != null) {
+            Map<String, Object> forkOf = new LinkedHashMap<>();
+            forkOf.put("id", gist.getForkOf());
+            forkOf.put("url", baseUri + "/gists/" + gist.getForkOf());
+            json.put("fork_of", forkOf);
+        }
+        return json;
+    }
+
+    private Map<String, Object> owner(StoredGist gist) {
+        Map<String, Object> owner = new LinkedHashMap<>();
+        owner.put("login", gist.getOwner());
+        owner.put("url", baseUri + "/users/" + gist.getOwner());
+        return owner;
+    }
+
+    private String gistUrl(StoredGist gist) {
+        return baseUri + "/gists/" + gist.getId();
+    }
+
+    private static String type(String filename) {
+        switch (extension(filename)) {
+            case "json":
+                return "application/json";
+            case "csv":
+                return "text/csv";
+            case "md":
+                return "text/markdown";
+            default:
+                return "text/plain";
+        }
+    }
+
+    private static String language(String filename) {
+        switch (extension(filename)) {
+            case "txt":
+                return "Text";
+            case "json":
+                return "JSON";
+            case "csv":
+                return "CSV";
+            case "md":
+                return "Markdown";
+            case "java":
+                return "Java";
+            default:
+                return null;
+        }
+    }
+
+    private static String extension(String filename) {
+        int dot = filename.lastIndexOf('.');
+        return dot >= 0 ? filename.substring(dot + 1).toLowerCase() : "";
+    }
+
+    private static int intParameter(StubExchange request, String name, int defaultValue) {
+        try {
+            int value = Integer.parseInt(request.getQueryParameter(name));
+            return value > 0 ? value : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static JsonNode readJson(StubExchange request) {
+        try {
+            JsonNode body = MAPPER.readTree(request.getBody());
+            return body != null && body.isObject() ? body : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    static StubResponse json(int status, Object body) {
+        try {
+            return new StubResponse(status, MAPPER.writeValueAsBytes(body)).
+                    header("Content-Type", "application/json; charset=utf-8");
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Body of GET /rate_limit
+     *
+     * @param limit limit, remaining requests and reset time of window
+     */
+    static StubResponse rateLimit(long[] limit) {
+        Map<String, Object> core = new LinkedHashMap<>();
+        core.put("limit", limit[0]);
+        core.put("remaining", limit[1]);
+        core.put("reset", limit[2]);
+        Map<String, Object> resources = new LinkedHashMap<>();
+        resources.put("core", core);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("resources", resources);
+        body.put("rate", core);
+        return json(200, body);
+    }
+
+    static StubResponse message(int status, String message) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("message", message);
+        body.put("documentation_url", "https://developer.github.com/v3");
+        return json(status, body);
+    }
+
+    private static StubResponse notFound() {
+        return message(404, "Not Found");
+    }
+
+    private static StubResponse noContent() {
+        return new StubResponse(204, null);
+    }
+}
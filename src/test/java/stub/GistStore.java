@@ -0,0 +1,183 @@
+package stub;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory store of the local stand-in: gists, stars, forks and access tokens
+ * All operations are thread safe and don't block each other except changes of the same gist
+ * Every listing has its own index ordered by creation, so a page doesn't scan gists of other listings
+ */
+class GistStore {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ConcurrentMap<String, StoredGist> gists = new ConcurrentHashMap<>();
+
+    /**
+     * Gists by owner
+     */
+    private final ConcurrentMap<String, GistIndex> owned = new ConcurrentHashMap<>();
+
+    private final GistIndex publicGists = new GistIndex();
+
+    /**
+     * Starred gists by user
+     */
+    private final ConcurrentMap<String, GistIndex> stars = new ConcurrentHashMap<>();
+
+    /**
+     * Forks by ID of forked gist
+     */
+    private final ConcurrentMap<String, GistIndex> forksOf = new ConcurrentHashMap<>();
+
+    /**
+     * Forks of gist by user, key is ID of forked gist and user
+     */
+    private final ConcurrentMap<String, StoredGist> forks = new ConcurrentHashMap<>();
+
+    /**
+     * Users by access token
+     */
+    private final ConcurrentMap<String, String> tokens = new ConcurrentHashMap<>();
+
+    /**
+     * Create access token
+     *
+     * @param user owner of token
+     * @return new token
+     */
+    String createToken(String user) {
+        String token = randomHex(40);
+        tokens.put(token, user);
+        return token;
+    }
+
+    /**
+     * Get user of access token
+     *
+     * @param token access token
+     * @return user or null if token is unknown
+     */
+    String userOfToken(String token) {
+        return tokens.get(token);
+    }
+
+    /**
+     * Create gist with random ID
+     */
+    StoredGist create(String owner, boolean isPublic, String description, Map<String, String> files) {
+        return create(randomHex(32), owner, isPublic, description, files, null);
+    }
+
+    /**
+     * Create gist with given ID
+     */
+    StoredGist create(String id, String owner, boolean isPublic, String description, Map<String, String> files,
+                      String forkOf) {
+        StoredGist gist = new StoredGist(id, owner, isPublic, description, files, forkOf, sequence.incrementAndGet());
+        gists.put(id, gist);
+        owned.computeIfAbsent(owner, key -> new GistIndex()).add(gist);
+        if (isPublic) {
+            publicGists.add(gist);
+        }
+        if (forkOf != null) {
+            forksOf.computeIfAbsent(forkOf, key -> new GistIndex()).add(gist);
+        }
+        return gist;
+    }
+
+    /**
+     * @param id ID of gist
+     * @return gist or null if gist doesn't exist
+     */
+    StoredGist get(String id) {
+        return gists.get(id);
+    }
+
+    /**
+     * Delete gist with its stars
+     *
+     * @return false if gist doesn't exist
+     */
+    boolean delete(StoredGist gist) {
+        if (!gists.remove(gist.getId(), gist)) {
+            return false;
+        }
+        owned.get(gist.getOwner()).remove(gist);
+        publicGists.remove(gist);
+        if (gist.getForkOf() != null) {
+            forks.remove(gist.getForkOf() + " " + gist.getOwner(), gist);
+            GistIndex siblings = forksOf.get(gist.getForkOf());
+            if (siblings != null) {
+                siblings.remove(gist);
+            }
+        }
+        forksOf.remove(gist.getId());
+        stars.values().forEach(starred -> starred.remove(gist));
+        return true;
+    }
+
+    /**
+     * Fork gist, every user has only one fork of gist
+     *
+     * @return existing or new fork
+     */
+    StoredGist fork(StoredGist gist, String user) {
+        return forks.computeIfAbsent(gist.getId() + " " + user, key -> create(randomHex(32), user, gist.isPublic(),
+                gist.getDescription(), gist.getFiles(), gist.getId()));
+    }
+
+    void star(StoredGist gist, String user) {
+        GistIndex starred = stars.computeIfAbsent(user, key -> new GistIndex());
+        starred.add(gist);
+        // gist deleted concurrently might have missed this index while removing its stars
+        if (gists.get(gist.getId()) != gist) {
+            starred.remove(gist);
+        }
+    }
+
+    void unstar(StoredGist gist, String user) {
+        GistIndex starred = stars.get(user);
+        if (starred != null) {
+            starred.remove(gist);
+        }
+    }
+
+    boolean isStarred(StoredGist gist, String user) {
+        GistIndex starred = stars.get(user);
+        return starred != null && starred.contains(gist);
+    }
+
+    /**
+     * @return gists of user, public and secret ones
+     */
+    GistIndex ownedBy(String user) {
+        return owned.getOrDefault(user, new GistIndex());
+    }
+
+    GistIndex publicGists() {
+        return publicGists;
+    }
+
+    GistIndex starredBy(String user) {
+        return stars.getOrDefault(user, new GistIndex());
+    }
+
+    GistIndex forksOf(StoredGist gist) {
+        return forksOf.getOrDefault(gist.getId(), new GistIndex());
+    }
+
+    private static String randomHex(int length) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        char[] hex = new char[length];
+        for (int i = 0; i < length; i++) {
+            hex[i] = Character.forDigit(random.nextInt(16), 16);
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,195 @@
+package stub;
+
+import config.GistTestConfigurationConstants;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-process stand-in for GitHub API which serves gists from memory, so tests run offline and in milliseconds
+ * Requests are served by {@link NioHttpServer}: gist.local.threads non-blocking event loops, one per processor
+ * by default, read, handle and write requests of any number of keep-alive connections without a thread
+ * per connection or per request
+ * Responses have X-RateLimit-* headers: 5000 requests for token or OAuth app and 60 requests for address
+ * during gist.local.rateLimitWindowSeconds, over the limit requests get 403 unless
+ * -Dgist.local.enforceRateLimit=false
+ * GET responses have ETag and conditional requests get 304 which don't count against the limit,
+ * GET /rate_limit is not counted either
+ * Bodies of 256 bytes and more (gist.local.compressMinBytes) are compressed when client accepts gzip or deflate,
+ * -Dgist.local.compression=false turns compression off
+ */
+public final class LocalGistApi {
+
+    /**
+     * Value of system property gist.api which starts the stand-in
+     */
+    public static final String LOCAL = "local";
+
+    private static final int AUTHENTICATED_LIMIT = 5000;
+
+    private static final int UNAUTHENTICATED_LIMIT = 60;
+
+    private static final int BACKLOG = 1024;
+
+    private static volatile LocalGistApi instance;
+
+    private final NioHttpServer server;
+
+    private final String baseUri;
+
+    private final GistStore store = new GistStore();
+
+    private final GistRoutes routes;
+
+    private final ConcurrentMap<String, RateLimitWindow> rateLimits = new ConcurrentHashMap<>();
+
+    private final long rateLimitWindowSeconds = Long.getLong("gist.local.rateLimitWindowSeconds", 3600);
+
+    private final boolean enforceRateLimit = Boolean.parseBoolean(
+            System.getProperty("gist.local.enforceRateLimit", "true"));
+
+    private LocalGistApi(int port, int threads) throws IOException {
+        server = new NioHttpServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG, threads,
+                this::handle);
+        InetSocketAddress address = server.getAddress();
+        baseUri = "http://" + address.getAddress().getHostAddress() + ":" + address.getPort();
+        routes = new GistRoutes(store, baseUri);
+
+        store.create(GistTestConfigurationConstants.ID_OF_GIST_FOR_FORK, "octocat", true,
+                "Star Wars graph data", Collections.singletonMap("starwars-graph-data.csv",
+                        "source,target,weight\nLuke,Leia,21\nLuke,Han,19\nHan,Chewbacca,28\n"), null);
+    }
+
+    /**
+     * Resolve URI of GitHub API from value of system property gist.api
+     *
+     * @param api "local" to start the stand-in, otherwise URI of API
+     * @return URI of API without trailing slash
+     */
+    public static String resolve(String api) {
+        return LOCAL.equals(api) ? start().getBaseUri() : api.replaceAll("/+$", "");
+    }
+
+    /**
+     * Start the stand-in once per JVM on port gist.local.port, random free port by default
+     *
+     * @return running stand-in
+     */
+    public static LocalGistApi start() {
+        if (instance == null) {
+            synchronized (LocalGistApi.class) {
+                if (instance == null) {
+                    try {
+                        instance = new LocalGistApi(Integer.getInteger("gist.local.port", 0),
+                                Integer.getInteger("gist.local.threads",
+                                        Runtime.getRuntime().availableProcessors()));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to start local Gists API", e);
+                    }
+                    instance.server.start();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return URI of the stand-in without trailing slash, e.g. http://127.0.0.1:54321
+     */
+    public String getBaseUri() {
+        return baseUri;
+    }
+
+    /**
+     * Stop the stand-in and drop all its data
+     */
+    public static void stop() {
+        synchronized (LocalGistApi.class) {
+            if (instance != null) {
+                instance.server.stop();
+                instance = null;
+            }
+        }
+    }
+
+    private byte[] handle(StubExchange request) {
+        try {
+            String user = null;
+            String rateLimitKey;
+            StubResponse response = null;
+
+            String token = request.getToken();
+            String basicUser = request.getBasicUser();
+            String clientId = request.getQueryParameter("client_id");
+            if (token != null) {
+                user = store.userOfToken(token);
+                rateLimitKey = user != null ? "user " + user : "address " + request.getRemoteAddress();
+                if (user == null) {
+                    response = GistRoutes.message(401, "Bad credentials");
+                }
+            } else if (basicUser != null) {
+                user = basicUser;
+                rateLimitKey = "user " + basicUser;
+            } else if (clientId != null && request.getQueryParameter("client_secret") != null) {
+                rateLimitKey = "client " + clientId;
+            } else {
+                rateLimitKey = "address " + request.getRemoteAddress();
+            }
+
+            RateLimitWindow window = rateLimits.computeIfAbsent(rateLimitKey, key -> new RateLimitWindow(
+                    key.startsWith("address ") ? UNAUTHENTICATED_LIMIT : AUTHENTICATED_LIMIT,
+                    rateLimitWindowSeconds));
+            long now = System.currentTimeMillis() / 1000;
+            boolean rateLimitQuery = request.getMethod().equals("GET") && request.getSegments().length == 1
+                    && request.getSegments()[0].equals("rate_limit");
+            if (response == null && rateLimitQuery) {
+                response = GistRoutes.rateLimit(window.consume(now, false));
+            }
+            if (response == null && enforceRateLimit && window.isExhausted(now)) {
+                response = GistRoutes.message(403, "API rate limit exceeded");
+            }
+            if (response == null) {
+                response = routes.handle(request, user);
+            }
+
+            int status = response.getStatus();
+            Map<String, String> headers = new LinkedHashMap<>(response.getHeaders());
+            if (request.getMethod().equals("GET") && status == 200) {
+                String etag = etag(response.getBody());
+                headers.put("ETag", etag);
+                if (etag.equals(request.getHeader("If-None-Match"))) {
+                    status = 304;
+                }
+            }
+            long[] limit = window.consume(now, status != 304 && !rateLimitQuery);
+            headers.put("X-RateLimit-Limit", String.valueOf(limit[0]));
+            headers.put("X-RateLimit-Remaining", String.valueOf(limit[1]));
+            headers.put("X-RateLimit-Reset", String.valueOf(limit[2]));
+            return request.send(status, headers, response.getBody());
+        } catch (RuntimeException e) {
+            return request.send(500, Collections.emptyMap(), GistRoutes.message(500, e.toString()).getBody());
+        }
+    }
+
+    private static String etag(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(body);
+            StringBuilder etag = new StringBuilder("W/\"");
+            for (byte b : digest) {
+                etag.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return etag.append('"').toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,502 @@
+package stub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Non-blocking HTTP/1.1 server of the local stand-in
+ * One acceptor thread hands connections round-robin to event loops, every event loop owns a selector and reads,
+ * handles and writes requests of its connections without blocking, so one loop serves any number of keep-alive
+ * connections and throughput is not limited by size of thread pool
+ * Handler runs on the event loop and must not block, gists are kept in memory so routing takes microseconds
+ * Requests are parsed with Content-Length or chunked body, Expect: 100-continue is answered and pipelined
+ * requests are answered in order
+ */
+final class NioHttpServer {
+
+    /**
+     * Handles parsed request on event loop
+     */
+    interface Handler {
+
+        /**
+         * @param request parsed request
+         * @return whole HTTP response: status line, headers and body
+         */
+        byte[] handle(StubExchange request);
+    }
+
+    private static final int READ_BUFFER_BYTES = 16 * 1024;
+
+    /**
+     * Larger requests get 413, large gist files are tens of megabytes at most
+     */
+    private static final int MAX_REQUEST_BYTES = 256 * 1024 * 1024;
+
+    private static final byte[] CONTINUE = "HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private final ServerSocketChannel serverChannel;
+
+    private final EventLoop[] loops;
+
+    private final Handler handler;
+
+    private final Thread acceptor;
+
+    private volatile boolean running = true;
+
+    /**
+     * @param address address to listen on, port 0 for random free port
+     * @param backlog maximal number of pending connections
+     * @param loops   number of event loops
+     * @param handler handler of requests
+     */
+    NioHttpServer(InetSocketAddress address, int backlog, int loops, Handler handler) throws IOException {
+        this.handler = handler;
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+        serverChannel.bind(address, backlog);
+        this.loops = new EventLoop[loops];
+        for (int i = 0; i < loops; i++) {
+            this.loops[i] = new EventLoop(i + 1);
+        }
+        acceptor = new Thread(this::accept, "gist-local-api-acceptor");
+        acceptor.setDaemon(true);
+    }
+
+    InetSocketAddress getAddress() throws IOException {
+        return (InetSocketAddress) serverChannel.getLocalAddress();
+    }
+
+    void start() {
+        for (EventLoop loop : loops) {
+            loop.thread.start();
+        }
+        acceptor.start();
+    }
+
+    /**
+     * Close listening socket, event loops and all connections
+     */
+    void stop() {
+        running = false;
+        try {
+            serverChannel.close();
+        } catch (IOException e) {
+            // server is stopped anyway
+        }
+        for (EventLoop loop : loops) {
+            loop.selector.wakeup();
+        }
+    }
+
+    /**
+     * Accepting is the only blocking call, it is off the request path
+     */
+    private void accept() {
+        int next = 0;
+        while (running) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.configureBlocking(false);
+                loops[next].register(channel);
+                next = (next + 1) % loops.length;
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (!running) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Selector thread with its connections
+     */
+    private final class EventLoop implements Runnable {
+
+        private final Selector selector;
+
+        private final Thread thread;
+
+        private final Queue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Read buffer is shared by connections of the loop, unparsed bytes are kept by connection
+         */
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+
+        EventLoop(int number) throws IOException {
+            selector = Selector.open();
+            thread = new Thread(this, "gist-local-api-" + number);
+            thread.setDaemon(true);
+        }
+
+        void register(SocketChannel channel) {
+            accepted.add(channel);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    for (SocketChannel channel = accepted.poll(); channel != null; channel = accepted.poll()) {
+                        channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isReadable()) {
+                                connection.read(key, readBuffer);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                connection.flush(key);
+                            }
+                        } catch (IOException | RuntimeException e) {
+                            connection.close(key);
+                        }
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                // loop is stopped
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    ((Connection) key.attachment()).close(key);
+                }
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    // loop is stopped anyway
+                }
+            }
+        }
+    }
+
+    /**
+     * One keep-alive connection: unparsed request bytes and queue of responses which are not written yet
+     */
+    private final class Connection {
+
+        private final SocketChannel channel;
+
+        private final String remoteAddress;
+
+        private byte[] input = new byte[0];
+
+        private int inputLength;
+
+        private final Deque<ByteBuffer> output = new ArrayDeque<>();
+
+        private boolean continueSent;
+
+        private boolean closeAfterWrite;
+
+        Connection(SocketChannel channel) throws IOException {
+            this.channel = channel;
+            this.remoteAddress = ((InetSocketAddress) channel.getRemoteAddress()).getAddress().getHostAddress();
+        }
+
+        void read(SelectionKey key, ByteBuffer buffer) throws IOException {
+            int read;
+            do {
+                buffer.clear();
+                read = channel.read(buffer);
+                if (read > 0) {
+                    buffer.flip();
+                    append(buffer);
+                }
+            } while (read == buffer.capacity());
+            if (read < 0) {
+                close(key);
+                return;
+            }
+            process();
+            flush(key);
+        }
+
+        private void append(ByteBuffer buffer) {
+            int needed = inputLength + buffer.remaining();
+            if (needed > input.length) {
+                byte[] grown = new byte[Math.max(needed, Math.max(READ_BUFFER_BYTES, input.length * 2))];
+                System.arraycopy(input, 0, grown, 0, inputLength);
+                input = grown;
+            }
+            buffer.get(input, inputLength, buffer.remaining());
+            inputLength = needed;
+        }
+
+        /**
+         * Handle all complete requests in the input
+         */
+        private void process() {
+            while (!closeAfterWrite) {
+                int headEnd = indexOf(input, 0, inputLength, "\r\n\r\n");
+                if (headEnd < 0) {
+                    if (inputLength > MAX_REQUEST_BYTES) {
+                        reject(413, "Request Entity Too Large");
+                    }
+                    return;
+                }
+                Head head;
+                try {
+                    head = Head.parse(new String(input, 0, headEnd, StandardCharsets.ISO_8859_1));
+                } catch (IllegalArgumentException e) {
+                    reject(400, "Bad Request");
+                    return;
+                }
+
+                int bodyStart = headEnd + 4;
+                int requestEnd;
+                byte[] body;
+                if (head.chunked) {
+                    requestEnd = chunkedEnd(input, bodyStart, inputLength);
+                    if (requestEnd == -2) {
+                        reject(400, "Bad Request");
+                        return;
+                    }
+                    body = requestEnd < 0 ? null : dechunk(input, bodyStart);
+                } else {
+                    long end = (long) bodyStart + head.contentLength;
+                    if (head.contentLength < 0 || end > MAX_REQUEST_BYTES) {
+                        reject(head.contentLength < 0 ? 400 : 413,
+                                head.contentLength < 0 ? "Bad Request" : "Request Entity Too Large");
+                        return;
+                    }
+                    requestEnd = end <= inputLength ? (int) end : -1;
+                    body = requestEnd < 0 ? null : copyOfRange(input, bodyStart, requestEnd);
+                }
+                if (requestEnd < 0) {
+                    if (inputLength > MAX_REQUEST_BYTES) {
+                        reject(413, "Request Entity Too Large");
+                    } else if (head.expectContinue && !continueSent) {
+                        continueSent = true;
+                        output.add(ByteBuffer.wrap(CONTINUE));
+                    }
+                    return;
+                }
+
+                System.arraycopy(input, requestEnd, input, 0, inputLength - requestEnd);
+                inputLength -= requestEnd;
+                continueSent = false;
+                closeAfterWrite = !head.keepAlive;
+
+                StubExchange request = new StubExchange(head.method, head.target, head.headers, body, remoteAddress,
+                        head.keepAlive);
+                output.add(ByteBuffer.wrap(handler.handle(request)));
+            }
+        }
+
+        private void reject(int status, String reason) {
+            byte[] body = reason.getBytes(StandardCharsets.US_ASCII);
+            output.add(ByteBuffer.wrap(("HTTP/1.1 " + status + " " + reason + "\r\nContent-Length: " + body.length
+                    + "\r\nConnection: close\r\n\r\n" + reason).getBytes(StandardCharsets.US_ASCII)));
+            closeAfterWrite = true;
+            inputLength = 0;
+        }
+
+        /**
+         * Write queued responses, wait for the socket to become writable if it doesn't take all of them
+         */
+        void flush(SelectionKey key) throws IOException {
+            while (!output.isEmpty()) {
+                ByteBuffer buffer = output.peek();
+                channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                output.poll();
+            }
+            if (closeAfterWrite) {
+                close(key);
+            } else if ((key.interestOps() & SelectionKey.OP_WRITE) != 0) {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+        }
+
+        void close(SelectionKey key) {
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // connection is dropped anyway
+            }
+        }
+    }
+
+    /**
+     * Request line and headers
+     */
+    private static final class Head {
+
+        private String method;
+
+        private String target;
+
+        private final Map<String, String> headers = new HashMap<>();
+
+        private long contentLength;
+
+        private boolean chunked;
+
+        private boolean keepAlive;
+
+        private boolean expectContinue;
+
+        static Head parse(String text) {
+            String[] lines = text.split("\r\n");
+            String[] requestLine = lines[0].split(" ");
+            if (requestLine.length != 3 || !requestLine[2].startsWith("HTTP/1.")) {
+                throw new IllegalArgumentException("Bad request line " + lines[0]);
+            }
+            Head head = new Head();
+            head.method = requestLine[0];
+            head.target = requestLine[1];
+            for (int i = 1; i < lines.length; i++) {
+                int colon = lines[i].indexOf(':');
+                if (colon <= 0) {
+                    throw new IllegalArgumentException("Bad header " + lines[i]);
+                }
+                head.headers.putIfAbsent(lines[i].substring(0, colon).trim().toLowerCase(Locale.ROOT),
+                        lines[i].substring(colon + 1).trim());
+            }
+
+            String connection = head.headers.getOrDefault("connection", "").toLowerCase(Locale.ROOT);
+            head.keepAlive = requestLine[2].equals("HTTP/1.1")
+                    ? !connection.contains("close") : connection.contains("keep-alive");
+            head.chunked = head.headers.getOrDefault("transfer-encoding", "").toLowerCase(Locale.ROOT)
+                    .contains("chunked");
+            head.expectContinue = head.headers.getOrDefault("expect", "").equalsIgnoreCase("100-continue");
+            try {
+                head.contentLength = Long.parseLong(head.headers.getOrDefault("content-length", "0"));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad Content-Length", e);
+            }
+            return head;
+        }
+    }
+
+    /**
+     * Find end of chunked body
+     *
+     * @return index after the last chunk and trailers, -1 if body is incomplete, -2 if it is malformed
+     */
+    private static int chunkedEnd(byte[] input, int from, int length) {
+        int position = from;
+        while (true) {
+            int lineEnd = indexOf(input, position, length, "\r\n");
+            if (lineEnd < 0) {
+                return -1;
+            }
+            long size = chunkSize(input, position, lineEnd);
+            if (size < 0) {
+                return -2;
+            }
+            position = lineEnd + 2;
+            if (size == 0) {
+                // trailers end with empty line
+                while (true) {
+                    int trailerEnd = indexOf(input, position, length, "\r\n");
+                    if (trailerEnd < 0) {
+                        return -1;
+                    }
+                    if (trailerEnd == position) {
+                        return position + 2;
+                    }
+                    position = trailerEnd + 2;
+                }
+            }
+            if (position + size + 2 > length) {
+                return -1;
+            }
+            position += (int) size + 2;
+        }
+    }
+
+    private static byte[] dechunk(byte[] input, int from) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        int position = from;
+        while (true) {
+            int lineEnd = indexOf(input, position, input.length, "\r\n");
+            int size = (int) chunkSize(input, position, lineEnd);
+            position = lineEnd + 2;
+            if (size == 0) {
+                return body.toByteArray();
+            }
+            body.write(input, position, size);
+            position += size + 2;
+        }
+    }
+
+    /**
+     * Parse hex size of chunk, extensions after ';' are ignored
+     *
+     * @return size or -1 if line is malformed
+     */
+    private static long chunkSize(byte[] input, int from, int to) {
+        long size = 0;
+        int digits = 0;
+        for (int i = from; i < to && input[i] != ';'; i++) {
+            int digit = Character.digit(input[i], 16);
+            if (digit < 0) {
+                if (input[i] == ' ' || input[i] == '\t') {
+                    continue;
+                }
+                return -1;
+            }
+            size = size * 16 + digit;
+            if (++digits > 8) {
+                return -1;
+            }
+        }
+        return digits == 0 ? -1 : size;
+    }
+
+    private static int indexOf(byte[] input, int from, int to, String pattern) {
+        byte first = (byte) pattern.charAt(0);
+        outer:
+        for (int i = from; i <= to - pattern.length(); i++) {
+            if (input[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < pattern.length(); j++) {
+                if (input[i + j] != (byte) pattern.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static byte[] copyOfRange(byte[] input, int from, int to) {
+        byte[] copy = new byte[to - from];
+        System.arraycopy(input, from, copy, 0, copy.length);
+        return copy;
+    }
+}
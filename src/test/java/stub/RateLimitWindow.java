@@ -0,0 +1,51 @@
+package stub;
+
+/**
+ * Rate limit of one user, OAuth app or address in the local stand-in, limit is restored when window is over
+ */
+class RateLimitWindow {
+
+    private final int limit;
+
+    private final long windowSeconds;
+
+    private long resetEpochSecond;
+
+    private int remaining;
+
+    RateLimitWindow(int limit, long windowSeconds) {
+        this.limit = limit;
+        this.windowSeconds = windowSeconds;
+    }
+
+    /**
+     * @param nowEpochSecond current time
+     * @return true if no more requests are allowed in current window
+     */
+    synchronized boolean isExhausted(long nowEpochSecond) {
+        restore(nowEpochSecond);
+        return remaining <= 0;
+    }
+
+    /**
+     * Count request and get state of window after it
+     *
+     * @param nowEpochSecond current time
+     * @param counted        false for requests which don't count against the limit, e.g. 304 responses
+     * @return limit, remaining requests and reset time in epoch seconds
+     */
+    synchronized long[] consume(long nowEpochSecond, boolean counted) {
+        restore(nowEpochSecond);
+        if (counted && remaining > 0) {
+            remaining--;
+        }
+        return new long[]{limit, remaining, resetEpochSecond};
+    }
+
+    private void restore(long nowEpochSecond) {
+        if (nowEpochSecond >= resetEpochSecond) {
+            remaining = limit;
+            resetEpochSecond = nowEpochSecond + windowSeconds;
+        }
+    }
+}
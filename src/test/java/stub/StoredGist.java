@@ -0,0 +1,140 @@
+package stub;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Gist kept by the local stand-in, all changes are synchronized on the gist
+ */
+class StoredGist {
+
+    private final String id;
+
+    private final String owner;
+
+    private final boolean isPublic;
+
+    /**
+     * ID of gist which was forked, null if gist is not a fork
+     */
+    private final String forkOf;
+
+    /**
+     * Order of creation, newer gists have greater sequence
+     */
+    private final long sequence;
+
+    private final Instant createdAt;
+
+    private String description;
+
+    private Instant updatedAt;
+
+    /**
+     * Content of files by their names in order of creation
+     */
+    private final Map<String, String> files = new LinkedHashMap<>();
+
+    StoredGist(String id, String owner, boolean isPublic, String description, Map<String, String> files,
+               String forkOf, long sequence) {
+        this.id = id;
+        this.owner = owner;
+        this.isPublic = isPublic;
+        this.description = description;
+        this.forkOf = forkOf;
+        this.sequence = sequence;
+        this.createdAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        this.updatedAt = createdAt;
+        this.files.putAll(files);
+    }
+
+    String getId() {
+        return id;
+    }
+
+    String getOwner() {
+        return owner;
+    }
+
+    boolean isPublic() {
+        return isPublic;
+    }
+
+    String getForkOf() {
+        return forkOf;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    synchronized String getDescription() {
+        return description;
+    }
+
+    synchronized Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * Get copy of files
+     *
+     * @return content of files by their names
+     */
+    synchronized Map<String, String> getFiles() {
+        return new LinkedHashMap<>(files);
+    }
+
+    /**
+     * Apply changes of PATCH request
+     *
+     * @param description new description or null to keep current one
+     * @param changes     changes of files by their current names, see {@link FileChange}
+     */
+    synchronized void update(String description, Map<String, FileChange> changes) {
+        if (description != null) {
+            this.description = description;
+        }
+        changes.forEach((name, change) -> {
+            if (change == null) {
+                files.remove(name);
+                return;
+            }
+            String current = files.remove(name);
+            String content = change.getContent() != null ? change.getContent() : current;
+            if (content != null) {
+                files.put(change.getFilename() != null ? change.getFilename() : name, content);
+            }
+        });
+        updatedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    /**
+     * Change of one file in PATCH request, null change deletes file
+     */
+    static class FileChange {
+
+        private final String content;
+
+        private final String filename;
+
+        FileChange(String content, String filename) {
+            this.content = content;
+            this.filename = filename;
+        }
+
+        String getContent() {
+            return content;
+        }
+
+        String getFilename() {
+            return filename;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package stub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Request to the local stand-in with identity of its caller
+ */
+class StubExchange {
+
+    /**
+     * Bodies are compressed with gzip or deflate if client accepts it, unless gist.local.compression=false
+     */
+    private static final boolean COMPRESSION = Boolean.parseBoolean(
+            System.getProperty("gist.local.compression", "true"));
+
+    /**
+     * Smaller bodies are sent as is, because compression would only make them larger
+     */
+    private static final int COMPRESS_MIN_BYTES = Integer.getInteger("gist.local.compressMinBytes", 256);
+
+    private static final Map<Integer, String> REASONS = new HashMap<>();
+
+    static {
+        REASONS.put(200, "OK");
+        REASONS.put(201, "Created");
+        REASONS.put(204, "No Content");
+        REASONS.put(304, "Not Modified");
+        REASONS.put(400, "Bad Request");
+        REASONS.put(401, "Unauthorized");
+        REASONS.put(403, "Forbidden");
+        REASONS.put(404, "Not Found");
+        REASONS.put(405, "Method Not Allowed");
+        REASONS.put(409, "Conflict");
+        REASONS.put(422, "Unprocessable Entity");
+        REASONS.put(500, "Internal Server Error");
+    }
+
+    private final String method;
+
+    private final String[] segments;
+
+    private final Map<String, String> query;
+
+    private final Map<String, String> headers;
+
+    private final byte[] body;
+
+    private final String remoteAddress;
+
+    private final boolean keepAlive;
+
+    /**
+     * @param method        method of request
+     * @param target        path with query from request line
+     * @param headers       headers with names in lower case
+     * @param body          body of request, empty if it has no body
+     * @param remoteAddress address of client
+     * @param keepAlive     whether connection stays open after response
+     */
+    StubExchange(String method, String target, Map<String, String> headers, byte[] body, String remoteAddress,
+                 boolean keepAlive) {
+        this.method = method;
+        URI uri = URI.create(target);
+        this.segments = uri.getPath().replaceAll("^/+|/+$", "").split("/+");
+        try {
+            this.query = parseQuery(uri.getRawQuery());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        this.headers = headers;
+        this.body = body;
+        this.remoteAddress = remoteAddress;
+        this.keepAlive = keepAlive;
+    }
+
+    String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return decoded segments of path without empty ones
+     */
+    String[] getSegments() {
+        return segments;
+    }
+
+    String getQueryParameter(String name) {
+        return query.get(name);
+    }
+
+    byte[] getBody() {
+        return body;
+    }
+
+    String getHeader(String name) {
+        return headers.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Get access token from Authorization header with Bearer or token scheme
+     *
+     * @return token or null if request doesn't have it
+     */
+    String getToken() {
+        String authorization = getHeader("Authorization");
+        if (authorization == null) {
+            return null;
+        }
+        for (String scheme : new String[]{"Bearer ", "token "}) {
+            if (authorization.regionMatches(true, 0, scheme, 0, scheme.length())) {
+                return authorization.substring(scheme.length()).trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get username from Authorization header with Basic scheme, any password is accepted
+     *
+     * @return username or null if request doesn't have it
+     */
+    String getBasicUser() {
+        String authorization = getHeader("Authorization");
+        if (authorization == null || !authorization.regionMatches(true, 0, "Basic ", 0, 6)) {
+            return null;
+        }
+        try {
+            String credentials = new String(Base64.getDecoder().decode(authorization.substring(6).trim()),
+                    StandardCharsets.UTF_8);
+            int colon = credentials.indexOf(':');
+            return colon > 0 ? credentials.substring(0, colon) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    /**
+     * Build response to the request
+     * Compressed body is sent with chunked transfer encoding like GitHub does
+     *
+     * @param status  status code
+     * @param headers headers of response
+     * @param body    body of response or null for response without body
+     * @return status line, headers and body
+     */
+    byte[] send(int status, Map<String, String> headers, byte[] body) {
+        Map<String, String> responseHeaders = new LinkedHashMap<>(headers);
+        boolean hasBody = body != null && body.length > 0 && status != 204 && status != 304;
+        String encoding = hasBody && body.length >= COMPRESS_MIN_BYTES ? acceptedEncoding() : null;
+        if (COMPRESSION) {
+            responseHeaders.put("Vary", "Accept-Encoding");
+        }
+        byte[] content = hasBody ? body : new byte[0];
+        if (encoding != null) {
+            responseHeaders.put("Content-Encoding", encoding);
+            responseHeaders.put("Transfer-Encoding", "chunked");
+            content = chunked(compress(body, encoding));
+        } else if (status != 204 && status != 304) {
+            responseHeaders.put("Content-Length", String.valueOf(content.length));
+        }
+        if (!keepAlive) {
+            responseHeaders.put("Connection", "close");
+        }
+
+        StringBuilder head = new StringBuilder("HTTP/1.1 ").append(status).append(' ')
+                .append(REASONS.getOrDefault(status, "Status")).append("\r\n");
+        responseHeaders.forEach((name, value) -> head.append(name).append(": ").append(value).append("\r\n"));
+        byte[] headBytes = head.append("\r\n").toString().getBytes(StandardCharsets.ISO_8859_1);
+        byte[] response = new byte[headBytes.length + content.length];
+        System.arraycopy(headBytes, 0, response, 0, headBytes.length);
+        System.arraycopy(content, 0, response, headBytes.length, content.length);
+        return response;
+    }
+
+    /**
+     * Choose encoding of response from Accept-Encoding header, gzip is preferred to deflate
+     *
+     * @return "gzip", "deflate" or null if body should not be compressed
+     */
+    private String acceptedEncoding() {
+        String acceptEncoding = getHeader("Accept-Encoding");
+        if (!COMPRESSION || acceptEncoding == null) {
+            return null;
+        }
+        boolean deflate = false;
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim();
+            if (parameters.length > 1 && parameters[1].trim().matches("q=0(\\.0*)?")) {
+                continue;
+            }
+            if (name.equals("gzip")) {
+                return name;
+            }
+            deflate |= name.equals("deflate");
+        }
+        return deflate ? "deflate" : null;
+    }
+
+    private static byte[] compress(byte[] body, String encoding) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (OutputStream out = encoding.equals("gzip")
+                ? new GZIPOutputStream(compressed, 8192)
+                : new DeflaterOutputStream(compressed)) {
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Body is already in memory, so it is sent as one chunk followed by the last chunk
+     */
+    private static byte[] chunked(byte[] body) {
+        byte[] size = (Integer.toHexString(body.length) + "\r\n").getBytes(StandardCharsets.US_ASCII);
+        byte[] last = "\r\n0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+        byte[] chunked = new byte[size.length + body.length + last.length];
+        System.arraycopy(size, 0, chunked, 0, size.length);
+        System.arraycopy(body, 0, chunked, size.length, body.length);
+        System.arraycopy(last, 0, chunked, size.length + body.length, last.length);
+        return chunked;
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) throws UnsupportedEncodingException {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int equals = parameter.indexOf('=');
+            String name = equals >= 0 ? parameter.substring(0, equals) : parameter;
+            String value = equals >= 0 ? parameter.substring(equals + 1) : "";
+            query.put(URLDecoder.decode(name, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+        }
+        return query;
+    }
+}
@@ -0,0 +1,38 @@
+package stub;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Response of the local stand-in before rate limit and cache headers are added
+ */
+class StubResponse {
+
+    private final int status;
+
+    private final byte[] body;
+
+    private final Map<String, String> headers = new LinkedHashMap<>();
+
+    StubResponse(int status, byte[] body) {
+        this.status = status;
+        this.body = body;
+    }
+
+    StubResponse header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    byte[] getBody() {
+        return body;
+    }
+
+    Map<String, String> getHeaders() {
+        return headers;
+    }
+}